@@ -0,0 +1,79 @@
+package com.example.accommodiq.benchmarks;
+
+import com.example.accommodiq.domain.Accommodation;
+import com.example.accommodiq.domain.Availability;
+import com.example.accommodiq.dtos.AccommodationCardDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccommodationBenchmark {
+    private static final int GUESTS = 2;
+
+    @Param({"1", "10", "100", "1000"})
+    public int slotCount;
+
+    @Param({"1", "7", "30"})
+    public int stayNights;
+
+    @Param({"0", "10", "1000"})
+    public int reviewCount;
+
+    private Accommodation accommodation;
+    private Set<Availability> slots;
+    private long from;
+    private long to;
+
+    @Setup
+    public void setUp() {
+        accommodation = BenchmarkData.accommodation(slotCount, stayNights, reviewCount, 42);
+        slots = BenchmarkData.slots(slotCount, stayNights, new Random(42));
+        from = BenchmarkData.stayStart(slotCount, stayNights);
+        to = BenchmarkData.stayEnd(slotCount, stayNights);
+    }
+
+    @Benchmark
+    public boolean isAvailable() {
+        return accommodation.isAvailable(from, to);
+    }
+
+    @Benchmark
+    public double getTotalPrice() {
+        return accommodation.getTotalPrice(from, to, GUESTS);
+    }
+
+    @Benchmark
+    public double getMinPrice() {
+        return accommodation.getMinPrice();
+    }
+
+    @Benchmark
+    public double getAverageRating() {
+        return accommodation.getAverageRating();
+    }
+
+    // the availability index and price calendar are cached per accommodation; this measures rebuilding them
+    @Benchmark
+    public double getTotalPriceAfterAvailabilityChange() {
+        accommodation.setAvailable(slots);
+        return accommodation.getTotalPrice(from, to, GUESTS);
+    }
+
+    @Benchmark
+    public AccommodationCardDto cardDto() {
+        return new AccommodationCardDto(accommodation);
+    }
+
+    @Benchmark
+    public AccommodationCardDto cardDtoForStay() {
+        return new AccommodationCardDto(accommodation, from, to, GUESTS);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.accommodiq.benchmarks;
+
+import com.example.accommodiq.domain.Accommodation;
+import com.example.accommodiq.domain.Availability;
+import com.example.accommodiq.domain.Location;
+import com.example.accommodiq.domain.Review;
+import com.example.accommodiq.enums.AccommodationStatus;
+import com.example.accommodiq.enums.PricingType;
+import com.example.accommodiq.enums.ReviewStatus;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.example.accommodiq.indexes.AvailabilityIndex.ONE_DAY;
+
+// Synthetic accommodations: back-to-back availability slots starting at BASE_DATE, each at least a week long
+// and long enough together to cover the requested stay, since getTotalPrice rejects unavailable stays
+final class BenchmarkData {
+    static final long BASE_DATE = 1_893_456_000_000L;
+    static final int MIN_SLOT_DAYS = 7;
+
+    private BenchmarkData() {
+    }
+
+    static Accommodation accommodation(int slotCount, int stayNights, int reviewCount, long seed) {
+        Random random = new Random(seed);
+        Accommodation accommodation = new Accommodation();
+        accommodation.setId(seed);
+        accommodation.setTitle("Accommodation " + seed);
+        accommodation.setLocation(new Location("Bulevar oslobodjenja " + seed + ", Novi Sad", 19.84, 45.25));
+        accommodation.setImages(List.of("image-" + seed + ".jpg"));
+        accommodation.setMinGuests(1);
+        accommodation.setMaxGuests(6);
+        accommodation.setType("Apartment");
+        accommodation.setStatus(AccommodationStatus.ACCEPTED);
+        accommodation.setPricingType(seed % 2 == 0 ? PricingType.PER_NIGHT : PricingType.PER_GUEST);
+        accommodation.setBenefits(new HashSet<>(List.of("WiFi", "Parking", "Air conditioning")));
+        accommodation.setAvailable(slots(slotCount, stayNights, random));
+        for (int i = 0; i < reviewCount; i++) {
+            accommodation.addReview(new Review((long) i, 1 + random.nextInt(5), "Review " + i, BASE_DATE - i * ONE_DAY, ReviewStatus.ACCEPTED));
+        }
+        return accommodation;
+    }
+
+    static Set<Availability> slots(int slotCount, int stayNights, Random random) {
+        int slotDays = slotDays(slotCount, stayNights);
+        Set<Availability> slots = new HashSet<>();
+        for (int i = 0; i < slotCount; i++) {
+            long from = BASE_DATE + (long) i * slotDays * ONE_DAY;
+            slots.add(new Availability((long) i, from, from + (slotDays - 1) * ONE_DAY, 40 + random.nextInt(80)));
+        }
+        return slots;
+    }
+
+    // a stay centered in the covered period
+    static long stayStart(int slotCount, int stayNights) {
+        long coveredDays = (long) slotCount * slotDays(slotCount, stayNights);
+        return BASE_DATE + (coveredDays - 1 - stayNights) / 2 * ONE_DAY;
+    }
+
+    static long stayEnd(int slotCount, int stayNights) {
+        return stayStart(slotCount, stayNights) + stayNights * ONE_DAY;
+    }
+
+    private static int slotDays(int slotCount, int stayNights) {
+        return Math.max(MIN_SLOT_DAYS, (stayNights + slotCount) / slotCount);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.accommodiq.benchmarks;
+
+import com.example.accommodiq.enums.AccountRole;
+import com.example.accommodiq.security.jwt.JwtTokenUtil;
+import com.example.accommodiq.services.impl.email.VerificationTokenServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityBenchmark {
+    private static final String EMAIL = "guest@accommodiq.com";
+
+    private JwtTokenUtil jwtTokenUtil;
+    private VerificationTokenServiceImpl verificationTokenService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret", "benchmark-secret");
+        verificationTokenService = new VerificationTokenServiceImpl();
+        userDetails = User.withUsername(EMAIL).password("password").authorities(AccountRole.GUEST.getAuthority()).build();
+        token = jwtTokenUtil.generateToken(EMAIL, AccountRole.GUEST, 1L);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenUtil.generateToken(EMAIL, AccountRole.GUEST, 1L);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return jwtTokenUtil.getUsernameFromToken(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtTokenUtil.validateToken(token, userDetails);
+    }
+
+    // hashData is private; generating a verification token is a single hashData call
+    @Benchmark
+    public String generateVerificationToken() {
+        return verificationTokenService.generateVerificationToken(1L, EMAIL);
+    }
+}
@@ -2,20 +2,27 @@ package com.example.accommodiq.controllers;
 
 import com.example.accommodiq.domain.Availability;
 import com.example.accommodiq.dtos.*;
+import com.example.accommodiq.enums.AccommodationSortType;
 import com.example.accommodiq.enums.ReviewStatus;
 import com.example.accommodiq.services.interfaces.accommodations.IAccommodationService;
+import com.example.accommodiq.services.interfaces.accommodations.IAvailabilityImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.time.YearMonth;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -26,10 +33,12 @@ import java.util.Set;
 @Validated
 public class AccommodationController {
     final private IAccommodationService accommodationService;
+    final private IAvailabilityImportService availabilityImportService;
 
     @Autowired
-    public AccommodationController(IAccommodationService accommodationService) {
+    public AccommodationController(IAccommodationService accommodationService, IAvailabilityImportService availabilityImportService) {
         this.accommodationService = accommodationService;
+        this.availabilityImportService = availabilityImportService;
     }
 
     @GetMapping()
@@ -39,6 +48,38 @@ public class AccommodationController {
         return accommodationService.findByFilter(title, location, availableFrom, availableTo, priceFrom, priceTo, guests, type, benefits);
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search accommodations page by page")
+    public AccommodationCardPageDto searchAccommodations(@RequestParam(required = false) String title, @RequestParam(required = false) String location, @RequestParam(required = false) Long availableFrom, @RequestParam(required = false) Long availableTo,
+                                                         @RequestParam(required = false) Integer priceFrom, @RequestParam(required = false) Integer priceTo, @RequestParam(required = false) Integer guests, @RequestParam(required = false) String type, @RequestParam(required = false) Set<String> benefits,
+                                                         @RequestParam(defaultValue = "NEWEST") AccommodationSortType sort, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") @Min(value = 1) @Max(value = 100) int size) {
+        return accommodationService.searchAccommodations(title, location, availableFrom, availableTo, priceFrom, priceTo, guests, type, benefits, sort, cursor, size);
+    }
+
+    @GetMapping("/map")
+    @Operation(summary = "Search accommodations within a radius or a bounding box, nearest first")
+    public List<AccommodationMapCardDto> getAccommodationsOnMap(@RequestParam(required = false) Double latitude, @RequestParam(required = false) Double longitude, @RequestParam(required = false) Double radiusKm,
+                                                               @RequestParam(required = false) Double minLatitude, @RequestParam(required = false) Double minLongitude, @RequestParam(required = false) Double maxLatitude, @RequestParam(required = false) Double maxLongitude,
+                                                               @RequestParam(required = false) String title, @RequestParam(required = false) String location, @RequestParam(required = false) Long availableFrom, @RequestParam(required = false) Long availableTo,
+                                                               @RequestParam(required = false) Integer priceFrom, @RequestParam(required = false) Integer priceTo, @RequestParam(required = false) Integer guests, @RequestParam(required = false) String type, @RequestParam(required = false) Set<String> benefits,
+                                                               @RequestParam(defaultValue = "100") @Min(value = 1) @Max(value = 500) int size) {
+        return accommodationService.findOnMap(latitude, longitude, radiusKm, minLatitude, minLongitude, maxLatitude, maxLongitude, title, location, availableFrom, availableTo, priceFrom, priceTo, guests, type, benefits, size);
+    }
+
+    @GetMapping("/facets")
+    @Operation(summary = "Count matching accommodations per benefit and per type")
+    public AccommodationFacetsDto getAccommodationFacets(@RequestParam(required = false) String title, @RequestParam(required = false) String location, @RequestParam(required = false) Long availableFrom, @RequestParam(required = false) Long availableTo,
+                                                         @RequestParam(required = false) Integer priceFrom, @RequestParam(required = false) Integer priceTo, @RequestParam(required = false) Integer guests, @RequestParam(required = false) String type, @RequestParam(required = false) Set<String> benefits) {
+        return accommodationService.findFacets(title, location, availableFrom, availableTo, priceFrom, priceTo, guests, type, benefits);
+    }
+
+    @GetMapping("/search-cache/stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(summary = "Get search cache statistics")
+    public SearchCacheStatsDto getSearchCacheStats() {
+        return accommodationService.getSearchCacheStats();
+    }
+
     @PutMapping("/{accommodationId}/status")
     @PreAuthorize("hasAuthority('ADMIN')")
     @ResponseStatus(HttpStatus.ACCEPTED)
@@ -81,6 +122,20 @@ public class AccommodationController {
         return accommodationService.addAccommodationAvailability(accommodationId, body);
     }
 
+    @PostMapping(value = "/availabilities/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('HOST')")
+    @Operation(summary = "Import availabilities of one or more accommodations from a JSON array")
+    public AvailabilityImportResultDto importAvailabilitiesJson(InputStream body) {
+        return availabilityImportService.importJson(body);
+    }
+
+    @PostMapping(value = "/availabilities/import", consumes = "text/csv")
+    @PreAuthorize("hasAuthority('HOST')")
+    @Operation(summary = "Import availabilities of one or more accommodations from CSV")
+    public AvailabilityImportResultDto importAvailabilitiesCsv(InputStream body) {
+        return availabilityImportService.importCsv(body);
+    }
+
     @DeleteMapping("/{accommodationId}/availabilities/{availabilityId}")
     @PreAuthorize("hasAuthority('HOST')")
     @Operation(summary = "Remove accommodation availability")
@@ -88,6 +143,13 @@ public class AccommodationController {
         return accommodationService.removeAccommodationAvailability(accommodationId, availabilityId);
     }
 
+    @GetMapping("/financial-report")
+    @PreAuthorize("hasAuthority('HOST')")
+    @Operation(summary = "Get monthly revenue of several accommodations over a range of months")
+    public List<AccommodationMonthlyRevenueDto> getMonthlyRevenueReport(@RequestParam(required = false) Set<Long> accommodationIds, @RequestParam YearMonth from, @RequestParam YearMonth to) {
+        return accommodationService.getMonthlyRevenueReport(accommodationIds, from, to);
+    }
+
     @GetMapping("/{accommodationId}/financial-report")
     @PreAuthorize("hasAuthority('HOST')")
     @Operation(summary = "Get accommodation financial report")
@@ -115,6 +177,15 @@ public class AccommodationController {
         return accommodationService.getTotalPrice(accommodationId, dateFrom, dateTo, guests);
     }
 
+    @GetMapping("/{accommodationId}/calendar")
+    @Operation(summary = "Get bookable nights and nightly prices of a month")
+    public ResponseEntity<AccommodationCalendarDto> getCalendar(@Parameter(description = "Id of accommodation to get calendar") @PathVariable Long accommodationId,
+                                                                @RequestParam @Min(value = 1970) @Max(value = 9999) int year, @RequestParam @Min(value = 1) @Max(value = 12) int month) {
+        // a matching If-None-Match is answered with 304 and no body by the ResponseEntity handling
+        AccommodationCalendarDto calendar = accommodationService.getCalendar(accommodationId, year, month);
+        return ResponseEntity.ok().eTag(calendar.getVersion()).cacheControl(CacheControl.noCache()).body(calendar);
+    }
+
     @GetMapping("/{accommodationId}/is-available")
     @Operation(summary = "Get is available")
     public AccommodationAvailabilityDto getIsAvailable(@Parameter(description = "Id of accommodation to get is available") @PathVariable Long accommodationId, @RequestParam @Min(value = 1) long dateFrom, @RequestParam @Min(value = 1) long dateTo) {
@@ -0,0 +1,34 @@
+package com.example.accommodiq.controllers;
+
+import com.example.accommodiq.dtos.AdminDashboardDto;
+import com.example.accommodiq.services.interfaces.users.IAdminDashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin")
+@CrossOrigin
+public class AdminController {
+    final private IAdminDashboardService dashboardService;
+
+    @Autowired
+    public AdminController(IAdminDashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @GetMapping("/dashboard")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(summary = "Get platform counters for the admin dashboard")
+    public AdminDashboardDto getDashboard() {
+        return dashboardService.getDashboard();
+    }
+
+    @PostMapping("/dashboard/reconcile")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(summary = "Recount the admin dashboard counters from the database")
+    public AdminDashboardDto reconcileDashboard() {
+        return dashboardService.reconcile();
+    }
+}
@@ -2,15 +2,19 @@ package com.example.accommodiq.controllers;
 
 import com.example.accommodiq.dtos.*;
 import com.example.accommodiq.enums.ReservationStatus;
+import com.example.accommodiq.services.interfaces.accommodations.IReservationHoldService;
 import com.example.accommodiq.services.interfaces.users.IGuestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.FieldError;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,21 +24,25 @@ import java.util.Map;
 
 @CrossOrigin
 @RestController
+@Validated
 @RequestMapping("/guests")
 public class GuestController {
     final IGuestService guestService;
+    final IReservationHoldService reservationHoldService;
 
     @Autowired
-    public GuestController(IGuestService guestService) {
+    public GuestController(IGuestService guestService, IReservationHoldService reservationHoldService) {
         this.guestService = guestService;
+        this.reservationHoldService = reservationHoldService;
     }
 
     @GetMapping("/reservations")
     @PreAuthorize("hasAuthority('GUEST')")
     @Operation(summary = "Get all reservations of guest")
     public Collection<ReservationCardDto> getReservations(@RequestParam(required = false) String title, @RequestParam(required = false) Long startDate,
-                                                          @RequestParam(required = false) Long endDate, @RequestParam(required = false) ReservationStatus status) {
-        return guestService.findReservationsByFilter(title, startDate, endDate, status);
+                                                          @RequestParam(required = false) Long endDate, @RequestParam(required = false) ReservationStatus status,
+                                                          @RequestParam(defaultValue = "0") @Min(value = 0) int page, @RequestParam(defaultValue = "20") @Min(value = 1) @Max(value = 100) int size) {
+        return guestService.findReservationsByFilter(title, startDate, endDate, status, page, size);
     }
 
     @PostMapping("/reservations")
@@ -44,6 +52,20 @@ public class GuestController {
         return guestService.addReservation(reservationDto);
     }
 
+    @PostMapping("/holds")
+    @PreAuthorize("hasAuthority('GUEST')")
+    @Operation(summary = "Hold dates of an accommodation for the guest for a few minutes")
+    public ReservationHoldDto createHold(@Valid @RequestBody ReservationHoldRequestDto holdDto) {
+        return reservationHoldService.createHold(holdDto);
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    @PreAuthorize("hasAuthority('GUEST')")
+    @Operation(summary = "Release a hold of the guest")
+    public MessageDto releaseHold(@Parameter(description = "Id of hold to release") @PathVariable Long holdId) {
+        return reservationHoldService.releaseHold(holdId);
+    }
+
     @GetMapping("/favorites")
     @PreAuthorize("hasAuthority('GUEST')")
     @Operation(summary = "Get all favorites of guest")
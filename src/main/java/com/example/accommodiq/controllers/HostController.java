@@ -4,17 +4,26 @@ import com.example.accommodiq.domain.Host;
 import com.example.accommodiq.dtos.*;
 import com.example.accommodiq.enums.ReservationStatus;
 import com.example.accommodiq.enums.ReviewStatus;
+import com.example.accommodiq.services.interfaces.users.IHostExportService;
 import com.example.accommodiq.services.interfaces.users.IHostService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
 import java.util.Collection;
 
 @RestController
@@ -23,10 +32,12 @@ import java.util.Collection;
 @Validated
 public class HostController {
     final private IHostService hostService;
+    final private IHostExportService hostExportService;
 
     @Autowired
-    public HostController(IHostService hostService) {
+    public HostController(IHostService hostService, IHostExportService hostExportService) {
         this.hostService = hostService;
+        this.hostExportService = hostExportService;
     }
 
     @GetMapping
@@ -40,8 +51,10 @@ public class HostController {
     @PreAuthorize("hasAuthority('HOST')")
     @Operation(summary = "Get host reservations")
     public Collection<HostReservationCardDto> getHostAccommodationReservations(@RequestParam(required = false) String title, @RequestParam(required = false) Long startDate,
-                                                                               @RequestParam(required = false) Long endDate, @RequestParam(required = false) ReservationStatus status) {
-        return hostService.getHostAccommodationReservationsByFilter(title, startDate, endDate, status);
+                                                                               @RequestParam(required = false) Long endDate, @RequestParam(required = false) ReservationStatus status,
+                                                                               @RequestParam(defaultValue = "0") @Min(value = 0) int page,
+                                                                               @RequestParam(defaultValue = "20") @Min(value = 1) @Max(value = 100) int size) {
+        return hostService.getHostAccommodationReservationsByFilter(title, startDate, endDate, status, page, size);
     }
 
     @GetMapping("/{hostId}")
@@ -107,6 +120,28 @@ public class HostController {
         return hostService.getFinancialReport(fromDate, toDate);
     }
 
+    @GetMapping("/occupancy-report")
+    @PreAuthorize("hasAuthority('HOST')")
+    @Operation(summary = "Get occupancy, average daily rate and booking lead times of host accommodations per month")
+    public OccupancyReportDto getOccupancyReport(@RequestParam YearMonth from, @RequestParam YearMonth to) {
+        return hostService.getOccupancyReport(from, to);
+    }
+
+    @GetMapping("/financial-report/export")
+    @PreAuthorize("hasAuthority('HOST')")
+    @Operation(summary = "Export host revenue per accommodation and day as CSV")
+    public ResponseEntity<StreamingResponseBody> exportFinancialReport(@RequestParam @Min(value = 1) long fromDate, @RequestParam @Min(value = 1) long toDate) {
+        return csv("revenue.csv", hostExportService.exportDailyRevenue(fromDate, toDate));
+    }
+
+    @GetMapping("/reservations/export")
+    @PreAuthorize("hasAuthority('HOST')")
+    @Operation(summary = "Export host reservations starting in a date range as CSV")
+    public ResponseEntity<StreamingResponseBody> exportReservations(@RequestParam @Min(value = 1) long fromDate, @RequestParam @Min(value = 1) long toDate,
+                                                                    @RequestParam(required = false) ReservationStatus status) {
+        return csv("reservations.csv", hostExportService.exportReservations(fromDate, toDate, status));
+    }
+
     @PostMapping("{hostId}/reviews")
     @PreAuthorize("hasAuthority('GUEST')")
     @Operation(summary = "Add review")
@@ -139,4 +174,11 @@ public class HostController {
     public MessageDto changeReviewStatus(@Parameter(description = "Id of review to change status") @PathVariable Long reviewId, @Valid @RequestBody ReviewStatusDto body) {
         return hostService.changeReviewStatus(reviewId, body);
     }
+
+    private static ResponseEntity<StreamingResponseBody> csv(String fileName, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
 }
@@ -3,7 +3,9 @@ package com.example.accommodiq.controllers;
 import com.example.accommodiq.domain.Reservation;
 
 import com.example.accommodiq.dtos.*;
+import com.example.accommodiq.services.interfaces.accommodations.IReservationExpiryService;
 import com.example.accommodiq.services.interfaces.accommodations.IReservationService;
+import com.example.accommodiq.services.interfaces.accommodations.IRevenueRollupService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
@@ -15,16 +17,21 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @CrossOrigin
 @RequestMapping("/reservations")
 public class ReservationController {
     IReservationService reservationService;
+    IReservationExpiryService reservationExpiryService;
+    IRevenueRollupService revenueRollupService;
 
     @Autowired
-    public ReservationController(IReservationService reservationService) {
+    public ReservationController(IReservationService reservationService, IReservationExpiryService reservationExpiryService, IRevenueRollupService revenueRollupService) {
         this.reservationService = reservationService;
+        this.reservationExpiryService = reservationExpiryService;
+        this.revenueRollupService = revenueRollupService;
     }
 
     @GetMapping
@@ -34,6 +41,20 @@ public class ReservationController {
         return reservationService.getAll();
     }
 
+    @GetMapping("/expiry/stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(summary = "Get statistics of the pending reservation expiry sweeper")
+    public ReservationExpiryStatsDto getExpiryStats() {
+        return reservationExpiryService.getStats();
+    }
+
+    @PostMapping("/revenue-rollup/rebuild")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(summary = "Rebuild the daily revenue rollup from the accepted reservations")
+    public RevenueRollupRebuildDto rebuildRevenueRollup() {
+        return revenueRollupService.rebuild();
+    }
+
     @GetMapping("/{reservationId}")
     @Operation(summary = "Get reservation by id")
     public ReservationDto findReservationById(@Parameter(description = "Id of reservation to get data") @PathVariable Long reservationId) {
@@ -72,4 +93,11 @@ public class ReservationController {
     public ReservationCardDto changeReservationStatus(@Parameter(description = "Id of reservation to change status") @PathVariable Long reservationId,@Valid @RequestBody ReservationStatusDto statusDto) {
         return reservationService.changeReservationStatus(reservationId, statusDto.getStatus());
     }
+
+    @PutMapping("/status")
+    @PreAuthorize("hasAuthority('HOST') || hasAuthority('ADMIN')")
+    @Operation(summary = "Change the status of several reservations in one transaction")
+    public List<ReservationCardDto> changeReservationStatuses(@Valid @RequestBody ReservationStatusBatchDto batchDto) {
+        return reservationService.changeReservationStatuses(batchDto);
+    }
 }
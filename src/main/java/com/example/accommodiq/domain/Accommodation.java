@@ -3,12 +3,17 @@ package com.example.accommodiq.domain;
 import com.example.accommodiq.dtos.AccommodationModifyDto;
 import com.example.accommodiq.enums.AccommodationStatus;
 import com.example.accommodiq.enums.PricingType;
+import com.example.accommodiq.indexes.AvailabilityIndex;
+import com.example.accommodiq.indexes.PriceCalendar;
 import com.example.accommodiq.utilities.ErrorUtils;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.*;
 
 @Entity
+@Table(indexes = @Index(name = "idx_accommodation_status", columnList = "status"))
 public class Accommodation {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,6 +23,7 @@ public class Accommodation {
     @Embedded
     private Location location;
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 500)
     private List<String> images = new ArrayList<>();
     private int minGuests;
     private int maxGuests;
@@ -28,12 +34,20 @@ public class Accommodation {
     private int cancellationDeadline;
     @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private Set<Review> reviews = new HashSet<>();
+    @Embedded
+    private ReviewStats reviewStats = new ReviewStats();
     @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    @BatchSize(size = 500)
     private Set<Availability> available = new HashSet<>();
     @ManyToOne(fetch = FetchType.LAZY)
     private Host host;
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 500)
     private Set<String> benefits = new HashSet<>();
+    @Transient
+    private AvailabilityIndex availabilityIndex;
+    @Transient
+    private PriceCalendar priceCalendar;
 
     public Accommodation(Long id, String title, String description, Location location, List<String> images, int minGuests, int maxGuests, String type, AccommodationStatus status, PricingType pricingType,
                          boolean automaticAcceptance, int cancellationDeadline, Host host) {
@@ -188,12 +202,50 @@ public class Accommodation {
         this.reviews = reviews;
     }
 
+    public void addReview(Review review) {
+        this.reviews.add(review);
+    }
+
+    public ReviewStats getReviewStats() {
+        return reviewStats;
+    }
+
     public Set<Availability> getAvailable() {
         return available;
     }
 
     public void setAvailable(Set<Availability> available) {
         this.available = available;
+        this.availabilityIndex = null;
+        this.priceCalendar = null;
+    }
+
+    public void addAvailability(Availability availability) {
+        this.available.add(availability);
+        this.availabilityIndex = null;
+        this.priceCalendar = null;
+    }
+
+    public void removeAvailability(Availability availability) {
+        this.available.remove(availability);
+        this.availabilityIndex = null;
+        this.priceCalendar = null;
+    }
+
+    @JsonIgnore
+    public AvailabilityIndex getAvailabilityIndex() {
+        if (availabilityIndex == null) {
+            availabilityIndex = AvailabilityIndex.of(available);
+        }
+        return availabilityIndex;
+    }
+
+    @JsonIgnore
+    public PriceCalendar getPriceCalendar() {
+        if (priceCalendar == null) {
+            priceCalendar = PriceCalendar.of(getAvailabilityIndex());
+        }
+        return priceCalendar;
     }
 
     public Host getHost() {
@@ -213,34 +265,11 @@ public class Accommodation {
     }
 
     public boolean isAvailable(Long from, Long to) {
-        Long finalFrom = from;
-        Long oneDay = (long) (60 * 60 * 24 * 1000);
-
         if (this.available == null) {
             return false;
         }
 
-        List<Availability> availabilityCandidates = this.available.stream().filter(availability ->
-                (availability.getFromDate() <= finalFrom && finalFrom <= availability.getToDate())
-                        || (availability.getFromDate() <= to && to <= availability.getToDate())
-                        || (finalFrom <= availability.getFromDate() && availability.getToDate() <= to)
-        ).sorted(Comparator.comparing(Availability::getFromDate)).toList();
-
-        if (availabilityCandidates.isEmpty()) {
-            return false;
-        }
-
-        for (Availability availabilityCandidate : availabilityCandidates) {
-            if (availabilityCandidate.getFromDate() <= from && to <= availabilityCandidate.getToDate()) {
-                return true;
-            } else if (availabilityCandidate.getFromDate() <= from && to > availabilityCandidate.getToDate()) {
-                from = availabilityCandidate.getToDate() + oneDay;
-            } else {
-                return false;
-            }
-        }
-
-        return false;
+        return getAvailabilityIndex().covers(from, to);
     }
 
     public double getTotalPrice(Long fromDate, Long toDate, Integer guests) {
@@ -256,43 +285,18 @@ public class Accommodation {
             throw ErrorUtils.generateBadRequest("invalidGuestNumber");
         }
 
-        long oneDay = 60 * 60 * 24 * 1000;
-
-        List<Availability> availabilityCandidates = available.stream().filter(availability ->
-                (availability.getFromDate() <= fromDate && fromDate <= availability.getToDate())
-                        || (availability.getFromDate() <= toDate && toDate <= availability.getToDate())
-                        || (fromDate <= availability.getFromDate() && availability.getToDate() <= toDate)
-        ).sorted(Comparator.comparing(Availability::getFromDate)).toList();
-
-        Long fromDateCopy = fromDate;
-        double totalPrice = 0;
-        double lastPrice = 0;
-        for (Availability availabilityCandidate : availabilityCandidates) {
-            while (availabilityCandidate.getFromDate() <= fromDateCopy && fromDateCopy <= availabilityCandidate.getToDate()) {
-                totalPrice += availabilityCandidate.getPrice();
-                lastPrice = availabilityCandidate.getPrice();
-                fromDateCopy += oneDay;
-
-                assert guests != null;
-
-                if (fromDateCopy > toDate) {
-                    return (pricingType == PricingType.PER_GUEST) ? (totalPrice - lastPrice) * guests : (totalPrice - lastPrice);
-                }
-            }
-        }
+        double totalPrice = getPriceCalendar().quote(fromDate, toDate).orElseGet(() -> PriceCalendar.walk(getAvailabilityIndex(), fromDate, toDate));
 
         assert guests != null;
-        return (pricingType == PricingType.PER_GUEST) ? (totalPrice - lastPrice) * guests : (totalPrice - lastPrice);
+        return (pricingType == PricingType.PER_GUEST) ? totalPrice * guests : totalPrice;
     }
 
     public double getMinPrice() {
-        OptionalDouble minPrice = available.stream().mapToDouble(Availability::getPrice).min();
-        return minPrice.isPresent() ? minPrice.getAsDouble() : 0;
+        return getPriceCalendar().getMinPrice();
     }
 
     public double getAverageRating() {
-        OptionalDouble averageRating = reviews.stream().mapToDouble(Review::getRating).average();
-        return averageRating.isPresent() ? averageRating.getAsDouble() : 0;
+        return reviewStats.getAverageRating();
     }
 }
 
@@ -14,6 +14,7 @@ import java.util.Collection;
 import java.util.Collections;
 
 @Entity
+@Table(indexes = @Index(name = "idx_account_status", columnList = "status"))
 public class Account implements UserDetails {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,69 @@
+package com.example.accommodiq.domain;
+
+import jakarta.persistence.*;
+
+// Rollup of the ACCEPTED reservations of an accommodation per UTC day: revenue and reservations are counted on the day
+// a stay starts, and every night of a stay counts as a booked night on its own day. Rows are changed with deltas only.
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_daily_revenue_accommodation_day", columnNames = {"accommodationId", "dayStart"}))
+public class DailyRevenue {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long accommodationId;
+    private Long dayStart;
+    private double revenue;
+    private int reservationCount;
+    private int bookedNights;
+
+    public DailyRevenue() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAccommodationId() {
+        return accommodationId;
+    }
+
+    public void setAccommodationId(Long accommodationId) {
+        this.accommodationId = accommodationId;
+    }
+
+    public Long getDayStart() {
+        return dayStart;
+    }
+
+    public void setDayStart(Long dayStart) {
+        this.dayStart = dayStart;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public int getReservationCount() {
+        return reservationCount;
+    }
+
+    public void setReservationCount(int reservationCount) {
+        this.reservationCount = reservationCount;
+    }
+
+    public int getBookedNights() {
+        return bookedNights;
+    }
+
+    public void setBookedNights(int bookedNights) {
+        this.bookedNights = bookedNights;
+    }
+}
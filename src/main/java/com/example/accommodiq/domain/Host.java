@@ -1,7 +1,6 @@
 package com.example.accommodiq.domain;
 
 import jakarta.persistence.*;
-import org.hibernate.Hibernate;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -11,6 +10,8 @@ public class Host extends User {
 
     @OneToMany(fetch= FetchType.LAZY, cascade= CascadeType.ALL)
     private Set<Review> reviews = new HashSet<>();
+    @Embedded
+    private ReviewStats reviewStats = new ReviewStats();
 
     public Host() {
         super();
@@ -32,11 +33,15 @@ public class Host extends User {
         this.reviews = reviews;
     }
 
+    public void addReview(Review review) {
+        this.reviews.add(review);
+    }
+
+    public ReviewStats getReviewStats() {
+        return reviewStats;
+    }
+
     public double getRating() {
-        Hibernate.initialize(reviews);
-        return reviews.stream()
-                .mapToDouble(Review::getRating)
-                .average()
-                .orElse(0);
+        return reviewStats.getAverageRating();
     }
 }
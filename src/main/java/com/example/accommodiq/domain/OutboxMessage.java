@@ -0,0 +1,98 @@
+package com.example.accommodiq.domain;
+
+import com.example.accommodiq.enums.OutboxChannel;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// A message waiting to be delivered to an external channel, written in the same transaction as the change it reports.
+// The reference is the notification id for WEBSOCKET and PUSH messages and the account id for verification emails.
+@Entity
+@Table(indexes = @Index(name = "idx_outbox_message_next_attempt", columnList = "nextAttemptAt, id"))
+public class OutboxMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private OutboxChannel channel;
+    private Long referenceId;
+    private String recipient;
+    private int attempts;
+    private Long nextAttemptAt;
+    private Long createdAt;
+    private String lastError;
+
+    public OutboxMessage() {
+    }
+
+    public OutboxMessage(OutboxChannel channel, Long referenceId, String recipient) {
+        this.channel = channel;
+        this.referenceId = referenceId;
+        this.recipient = recipient;
+        this.createdAt = Instant.now().toEpochMilli();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public OutboxChannel getChannel() {
+        return channel;
+    }
+
+    public void setChannel(OutboxChannel channel) {
+        this.channel = channel;
+    }
+
+    public Long getReferenceId() {
+        return referenceId;
+    }
+
+    public void setReferenceId(Long referenceId) {
+        this.referenceId = referenceId;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Long getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Long nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -4,8 +4,10 @@ import com.example.accommodiq.dtos.ReservationRequestDto;
 import com.example.accommodiq.enums.ReservationStatus;
 import jakarta.persistence.*;
 
+import java.time.Instant;
 
 @Entity
+@Table(indexes = {@Index(name = "idx_reservation_status_id", columnList = "status, id"), @Index(name = "idx_reservation_created_at", columnList = "createdAt")})
 public class Reservation {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,6 +21,7 @@ public class Reservation {
     @ManyToOne(fetch = FetchType.LAZY)
     private Accommodation accommodation;
     private double totalPrice;
+    private Long createdAt;
 
     public Reservation() {
     }
@@ -44,6 +47,13 @@ public class Reservation {
         this.totalPrice = accommodation.getTotalPrice(this.startDate, this.endDate, this.numberOfGuests);
     }
 
+    @PrePersist
+    public void prePersist() {
+        if (createdAt == null) {
+            createdAt = Instant.now().toEpochMilli();
+        }
+    }
+
     public Long getId() {
         return id;
     }
@@ -107,4 +117,12 @@ public class Reservation {
     public void setTotalPrice(double totalPrice) {
         this.totalPrice = totalPrice;
     }
+
+    public Long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Long createdAt) {
+        this.createdAt = createdAt;
+    }
 }
@@ -0,0 +1,77 @@
+package com.example.accommodiq.domain;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(indexes = @Index(name = "idx_reservation_hold_accommodation_expires", columnList = "accommodation_id, expiresAt"))
+public class ReservationHold {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long startDate;
+    private Long endDate;
+    private Long expiresAt;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Guest guest;
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Accommodation accommodation;
+
+    public ReservationHold() {
+    }
+
+    public ReservationHold(Long startDate, Long endDate, Long expiresAt, Guest guest, Accommodation accommodation) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.expiresAt = expiresAt;
+        this.guest = guest;
+        this.accommodation = accommodation;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(Long startDate) {
+        this.startDate = startDate;
+    }
+
+    public Long getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(Long endDate) {
+        this.endDate = endDate;
+    }
+
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Guest getGuest() {
+        return guest;
+    }
+
+    public void setGuest(Guest guest) {
+        this.guest = guest;
+    }
+
+    public Accommodation getAccommodation() {
+        return accommodation;
+    }
+
+    public void setAccommodation(Accommodation accommodation) {
+        this.accommodation = accommodation;
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
+@Table(indexes = @Index(name = "idx_review_status", columnList = "status"))
 public class Review {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,105 @@
+package com.example.accommodiq.domain;
+
+import com.example.accommodiq.enums.ReviewStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+// Maintained with atomic increments in the owner's table, never by writing the entity back, so the columns are not
+// updatable through it and a stale copy cannot overwrite counts added by concurrent transactions.
+@Embeddable
+public class ReviewStats {
+    @Column(updatable = false)
+    private int reviewCount;
+    @Column(updatable = false)
+    private long ratingSum;
+    @Column(updatable = false)
+    private int acceptedReviewCount;
+    @Column(updatable = false)
+    private int declinedReviewCount;
+    @Column(updatable = false)
+    private int reportedReviewCount;
+    @Column(updatable = false)
+    private int pendingReviewCount;
+    @Column(updatable = false)
+    private long visibleRatingSum;
+    // the average rating as divided by the database; searches order by this stored value and compare cursors against it,
+    // since a division in the query would not round the same way as Java
+    @Column(updatable = false)
+    private double ratingSortKey;
+
+    public ReviewStats() {
+        super();
+    }
+
+    // the change of a review moving from oldStatus to newStatus, where null stands for a review that does not exist
+    public static ReviewStats delta(ReviewStatus oldStatus, ReviewStatus newStatus, int rating) {
+        ReviewStats delta = new ReviewStats();
+        if (oldStatus != null) {
+            delta.apply(oldStatus, rating, -1);
+        }
+        if (newStatus != null) {
+            delta.apply(newStatus, rating, 1);
+        }
+        return delta;
+    }
+
+    private void apply(ReviewStatus status, int rating, int sign) {
+        reviewCount += sign;
+        ratingSum += (long) sign * rating;
+        switch (status) {
+            case ACCEPTED -> acceptedReviewCount += sign;
+            case DECLINED -> declinedReviewCount += sign;
+            case REPORTED -> reportedReviewCount += sign;
+            case PENDING -> pendingReviewCount += sign;
+        }
+
+        if (status == ReviewStatus.ACCEPTED || status == ReviewStatus.REPORTED) {
+            visibleRatingSum += (long) sign * rating;
+        }
+    }
+
+    public double getAverageRating() {
+        return reviewCount > 0 ? (double) ratingSum / reviewCount : 0;
+    }
+
+    // accepted and reported reviews are the ones shown on the details pages
+    public int getVisibleReviewCount() {
+        return acceptedReviewCount + reportedReviewCount;
+    }
+
+    public double getVisibleAverageRating() {
+        return getVisibleReviewCount() > 0 ? (double) visibleRatingSum / getVisibleReviewCount() : 0;
+    }
+
+    public int getReviewCount() {
+        return reviewCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public int getAcceptedReviewCount() {
+        return acceptedReviewCount;
+    }
+
+    public int getDeclinedReviewCount() {
+        return declinedReviewCount;
+    }
+
+    public int getReportedReviewCount() {
+        return reportedReviewCount;
+    }
+
+    public int getPendingReviewCount() {
+        return pendingReviewCount;
+    }
+
+    public long getVisibleRatingSum() {
+        return visibleRatingSum;
+    }
+
+    public double getRatingSortKey() {
+        return ratingSortKey;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.accommodiq.dtos;
+
+import com.example.accommodiq.enums.PricingType;
+
+public class AccommodationCalendarDto {
+    private Long accommodationId;
+    private int year;
+    private int month;
+    private long firstNight;
+    private int nights;
+    private long bookable;
+    private PricingType pricingType;
+    private int[] priceRunLengths;
+    private Double[] priceRunValues;
+    private String version;
+
+    public AccommodationCalendarDto() {
+        super();
+    }
+
+    public AccommodationCalendarDto(Long accommodationId, int year, int month, long firstNight, int nights, long bookable, PricingType pricingType,
+                                    int[] priceRunLengths, Double[] priceRunValues, String version) {
+        this.accommodationId = accommodationId;
+        this.year = year;
+        this.month = month;
+        this.firstNight = firstNight;
+        this.nights = nights;
+        this.bookable = bookable;
+        this.pricingType = pricingType;
+        this.priceRunLengths = priceRunLengths;
+        this.priceRunValues = priceRunValues;
+        this.version = version;
+    }
+
+    public Long getAccommodationId() {
+        return accommodationId;
+    }
+
+    public void setAccommodationId(Long accommodationId) {
+        this.accommodationId = accommodationId;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    public long getFirstNight() {
+        return firstNight;
+    }
+
+    public void setFirstNight(long firstNight) {
+        this.firstNight = firstNight;
+    }
+
+    public int getNights() {
+        return nights;
+    }
+
+    public void setNights(int nights) {
+        this.nights = nights;
+    }
+
+    public long getBookable() {
+        return bookable;
+    }
+
+    public void setBookable(long bookable) {
+        this.bookable = bookable;
+    }
+
+    public PricingType getPricingType() {
+        return pricingType;
+    }
+
+    public void setPricingType(PricingType pricingType) {
+        this.pricingType = pricingType;
+    }
+
+    public int[] getPriceRunLengths() {
+        return priceRunLengths;
+    }
+
+    public void setPriceRunLengths(int[] priceRunLengths) {
+        this.priceRunLengths = priceRunLengths;
+    }
+
+    public Double[] getPriceRunValues() {
+        return priceRunValues;
+    }
+
+    public void setPriceRunValues(Double[] priceRunValues) {
+        this.priceRunValues = priceRunValues;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+}
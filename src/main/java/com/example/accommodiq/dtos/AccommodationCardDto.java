@@ -48,7 +48,7 @@ public class AccommodationCardDto {
         this.title = accommodation.getTitle();
         this.image = (!accommodation.getImages().isEmpty()) ? accommodation.getImages().get(0) : "";
         this.rating = accommodation.getAverageRating();
-        this.reviewCount = accommodation.getReviews().size();
+        this.reviewCount = accommodation.getReviewStats().getReviewCount();
         this.location = accommodation.getLocation();
         this.minPrice = accommodation.getMinPrice();
         this.minGuests = accommodation.getMinGuests();
@@ -64,7 +64,7 @@ public class AccommodationCardDto {
         this.title = accommodation.getTitle();
         this.image = (!accommodation.getImages().isEmpty()) ? accommodation.getImages().get(0) : "";
         this.rating = accommodation.getAverageRating();
-        this.reviewCount = accommodation.getReviews().size();
+        this.reviewCount = accommodation.getReviewStats().getReviewCount();
         this.location = accommodation.getLocation();
         this.minPrice = accommodation.getMinPrice();
         this.minGuests = accommodation.getMinGuests();
@@ -0,0 +1,33 @@
+package com.example.accommodiq.dtos;
+
+import java.util.List;
+
+public class AccommodationCardPageDto {
+    private List<AccommodationCardDto> content;
+    private String nextCursor;
+
+    public AccommodationCardPageDto() {
+        super();
+    }
+
+    public AccommodationCardPageDto(List<AccommodationCardDto> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<AccommodationCardDto> getContent() {
+        return content;
+    }
+
+    public void setContent(List<AccommodationCardDto> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
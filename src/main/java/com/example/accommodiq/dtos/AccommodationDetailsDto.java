@@ -10,7 +10,6 @@ import com.example.accommodiq.domain.Review;
 import com.example.accommodiq.enums.PricingType;
 import com.example.accommodiq.enums.ReviewStatus;
 
-import java.util.OptionalDouble;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -56,16 +55,10 @@ public class AccommodationDetailsDto {
     }
 
     public AccommodationDetailsDto(Accommodation accommodation) {
-        OptionalDouble averageRating = accommodation.getReviews().stream()
-                .filter(this::isReviewAcceptedOrReported)
-                .mapToDouble(Review::getRating).average();
-
         this.id = accommodation.getId();
         this.title = accommodation.getTitle();
-        this.rating = averageRating.isPresent() ? averageRating.getAsDouble() : 0;
-        this.reviewCount = accommodation.getReviews().stream()
-                .filter(this::isReviewAcceptedOrReported)
-                .toList().size();
+        this.rating = accommodation.getReviewStats().getVisibleAverageRating();
+        this.reviewCount = accommodation.getReviewStats().getVisibleReviewCount();
         this.location = accommodation.getLocation();
         this.host = new AccommodationDetailsHostDto(accommodation.getHost());
         this.images = accommodation.getImages();
@@ -83,16 +76,10 @@ public class AccommodationDetailsDto {
     }
 
     public AccommodationDetailsDto(Accommodation accommodation, Long loggedInId) {
-        OptionalDouble averageRating = accommodation.getReviews().stream()
-                .filter(this::isReviewAcceptedOrReported)
-                .mapToDouble(Review::getRating).average();
-
         this.id = accommodation.getId();
         this.title = accommodation.getTitle();
-        this.rating = averageRating.isPresent() ? averageRating.getAsDouble() : 0;
-        this.reviewCount = accommodation.getReviews().stream()
-                .filter(this::isReviewAcceptedOrReported)
-                .toList().size();
+        this.rating = accommodation.getReviewStats().getVisibleAverageRating();
+        this.reviewCount = accommodation.getReviewStats().getVisibleReviewCount();
         this.location = accommodation.getLocation();
         this.host = new AccommodationDetailsHostDto(accommodation.getHost());
         this.images = accommodation.getImages();
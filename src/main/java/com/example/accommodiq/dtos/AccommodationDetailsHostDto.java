@@ -1,10 +1,6 @@
 package com.example.accommodiq.dtos;
 
 import com.example.accommodiq.domain.Host;
-import com.example.accommodiq.domain.Review;
-import com.example.accommodiq.enums.ReviewStatus;
-
-import java.util.OptionalDouble;
 
 public class AccommodationDetailsHostDto {
     private Long id;
@@ -24,20 +20,10 @@ public class AccommodationDetailsHostDto {
     }
 
     public AccommodationDetailsHostDto(Host host) {
-        OptionalDouble averageRating = host.getReviews().stream()
-                .filter(this::isReviewAcceptedOrReported)
-                .mapToDouble(Review::getRating).average();
-
         this.id = host.getId();
         this.name = host.getFirstName() + " " + host.getLastName();
-        this.rating = averageRating.isPresent() ? averageRating.getAsDouble() : 0;
-        this.reviewCount = host.getReviews().stream()
-                .filter(this::isReviewAcceptedOrReported)
-                .toList().size();
-    }
-
-    private boolean isReviewAcceptedOrReported(Review review) {
-        return review.getStatus() == ReviewStatus.ACCEPTED || review.getStatus() == ReviewStatus.REPORTED;
+        this.rating = host.getReviewStats().getVisibleAverageRating();
+        this.reviewCount = host.getReviewStats().getVisibleReviewCount();
     }
 
     public Long getId() {
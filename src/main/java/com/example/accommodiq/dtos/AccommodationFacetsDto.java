@@ -0,0 +1,43 @@
+package com.example.accommodiq.dtos;
+
+import java.util.Map;
+
+public class AccommodationFacetsDto {
+    private long total;
+    private Map<String, Long> benefits;
+    private Map<String, Long> types;
+
+    public AccommodationFacetsDto() {
+        super();
+    }
+
+    public AccommodationFacetsDto(long total, Map<String, Long> benefits, Map<String, Long> types) {
+        this.total = total;
+        this.benefits = benefits;
+        this.types = types;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<String, Long> getBenefits() {
+        return benefits;
+    }
+
+    public void setBenefits(Map<String, Long> benefits) {
+        this.benefits = benefits;
+    }
+
+    public Map<String, Long> getTypes() {
+        return types;
+    }
+
+    public void setTypes(Map<String, Long> types) {
+        this.types = types;
+    }
+}
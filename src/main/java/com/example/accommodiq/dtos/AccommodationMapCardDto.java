@@ -0,0 +1,29 @@
+package com.example.accommodiq.dtos;
+
+import com.example.accommodiq.domain.Accommodation;
+
+public class AccommodationMapCardDto extends AccommodationCardDto {
+    private double distanceKm;
+
+    public AccommodationMapCardDto() {
+        super();
+    }
+
+    public AccommodationMapCardDto(Accommodation accommodation, double distanceKm) {
+        super(accommodation);
+        this.distanceKm = distanceKm;
+    }
+
+    public AccommodationMapCardDto(Accommodation accommodation, Long fromDate, Long toDate, Integer guests, double distanceKm) {
+        super(accommodation, fromDate, toDate, guests);
+        this.distanceKm = distanceKm;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+}
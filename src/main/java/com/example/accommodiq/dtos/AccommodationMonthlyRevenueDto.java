@@ -0,0 +1,33 @@
+package com.example.accommodiq.dtos;
+
+import java.util.List;
+
+public class AccommodationMonthlyRevenueDto {
+    private Long accommodationId;
+    private List<FinancialReportMonthlyRevenueDto> months;
+
+    public AccommodationMonthlyRevenueDto() {
+        super();
+    }
+
+    public AccommodationMonthlyRevenueDto(Long accommodationId, List<FinancialReportMonthlyRevenueDto> months) {
+        this.accommodationId = accommodationId;
+        this.months = months;
+    }
+
+    public Long getAccommodationId() {
+        return accommodationId;
+    }
+
+    public void setAccommodationId(Long accommodationId) {
+        this.accommodationId = accommodationId;
+    }
+
+    public List<FinancialReportMonthlyRevenueDto> getMonths() {
+        return months;
+    }
+
+    public void setMonths(List<FinancialReportMonthlyRevenueDto> months) {
+        this.months = months;
+    }
+}
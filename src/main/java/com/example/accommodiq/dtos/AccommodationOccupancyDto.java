@@ -0,0 +1,43 @@
+package com.example.accommodiq.dtos;
+
+import java.util.List;
+
+public class AccommodationOccupancyDto {
+    private Long accommodationId;
+    private String title;
+    private List<MonthlyOccupancyDto> months;
+
+    public AccommodationOccupancyDto() {
+        super();
+    }
+
+    public AccommodationOccupancyDto(Long accommodationId, String title, List<MonthlyOccupancyDto> months) {
+        this.accommodationId = accommodationId;
+        this.title = title;
+        this.months = months;
+    }
+
+    public Long getAccommodationId() {
+        return accommodationId;
+    }
+
+    public void setAccommodationId(Long accommodationId) {
+        this.accommodationId = accommodationId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public List<MonthlyOccupancyDto> getMonths() {
+        return months;
+    }
+
+    public void setMonths(List<MonthlyOccupancyDto> months) {
+        this.months = months;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.accommodiq.dtos;
+
+import com.example.accommodiq.enums.AccountStatus;
+import com.example.accommodiq.enums.ReviewStatus;
+
+import java.util.Map;
+
+public class AdminDashboardDto {
+    private long pendingAccommodations;
+    private Map<ReviewStatus, Long> reviewsByStatus;
+    private long openReports;
+    private Map<AccountStatus, Long> accountsByStatus;
+    private Map<String, Long> bookingsPerDay;
+    private long reconciledAt;
+
+    public AdminDashboardDto() {
+        super();
+    }
+
+    public AdminDashboardDto(long pendingAccommodations, Map<ReviewStatus, Long> reviewsByStatus, long openReports, Map<AccountStatus, Long> accountsByStatus, Map<String, Long> bookingsPerDay, long reconciledAt) {
+        this.pendingAccommodations = pendingAccommodations;
+        this.reviewsByStatus = reviewsByStatus;
+        this.openReports = openReports;
+        this.accountsByStatus = accountsByStatus;
+        this.bookingsPerDay = bookingsPerDay;
+        this.reconciledAt = reconciledAt;
+    }
+
+    public long getPendingAccommodations() {
+        return pendingAccommodations;
+    }
+
+    public void setPendingAccommodations(long pendingAccommodations) {
+        this.pendingAccommodations = pendingAccommodations;
+    }
+
+    public Map<ReviewStatus, Long> getReviewsByStatus() {
+        return reviewsByStatus;
+    }
+
+    public void setReviewsByStatus(Map<ReviewStatus, Long> reviewsByStatus) {
+        this.reviewsByStatus = reviewsByStatus;
+    }
+
+    public long getOpenReports() {
+        return openReports;
+    }
+
+    public void setOpenReports(long openReports) {
+        this.openReports = openReports;
+    }
+
+    public Map<AccountStatus, Long> getAccountsByStatus() {
+        return accountsByStatus;
+    }
+
+    public void setAccountsByStatus(Map<AccountStatus, Long> accountsByStatus) {
+        this.accountsByStatus = accountsByStatus;
+    }
+
+    public Map<String, Long> getBookingsPerDay() {
+        return bookingsPerDay;
+    }
+
+    public void setBookingsPerDay(Map<String, Long> bookingsPerDay) {
+        this.bookingsPerDay = bookingsPerDay;
+    }
+
+    public long getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(long reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.accommodiq.dtos;
+
+public class AvailabilityImportResultDto {
+    private int accommodations;
+    private int received;
+    private int inserted;
+
+    public AvailabilityImportResultDto() {
+        super();
+    }
+
+    public AvailabilityImportResultDto(int accommodations, int received, int inserted) {
+        this.accommodations = accommodations;
+        this.received = received;
+        this.inserted = inserted;
+    }
+
+    public int getAccommodations() {
+        return accommodations;
+    }
+
+    public void setAccommodations(int accommodations) {
+        this.accommodations = accommodations;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(int inserted) {
+        this.inserted = inserted;
+    }
+}
@@ -1,8 +1,5 @@
 package com.example.accommodiq.dtos;
 
-import com.example.accommodiq.domain.Reservation;
-
-import java.util.List;
 import java.util.Optional;
 import java.util.OptionalDouble;
 
@@ -12,6 +9,7 @@ public class FinancialReportEntryDto {
     private String accommodationTitle;
     private double revenue;
     private int reservationCount;
+    private int bookedNights;
 
     public FinancialReportEntryDto() {
         super();
@@ -25,12 +23,13 @@ public class FinancialReportEntryDto {
         this.reservationCount = reservationCount;
     }
 
-    public FinancialReportEntryDto(List<Reservation> reservations) {
-        this.accommodationId = reservations.get(0).getAccommodation().getId();
-        this.accommodationImage = (!reservations.get(0).getAccommodation().getImages().isEmpty()) ? reservations.get(0).getAccommodation().getImages().get(0) : "";
-        this.accommodationTitle = reservations.get(0).getAccommodation().getTitle();
-        this.revenue = reservations.stream().mapToDouble(Reservation::getTotalPrice).sum();
-        this.reservationCount = reservations.size();
+    public FinancialReportEntryDto(long accommodationId, String accommodationImage, String accommodationTitle, double revenue, int reservationCount, int bookedNights) {
+        this.accommodationId = accommodationId;
+        this.accommodationImage = accommodationImage;
+        this.accommodationTitle = accommodationTitle;
+        this.revenue = revenue;
+        this.reservationCount = reservationCount;
+        this.bookedNights = bookedNights;
     }
 
     public long getAccommodationId() {
@@ -72,4 +71,12 @@ public class FinancialReportEntryDto {
     public void setReservationCount(int reservationCount) {
         this.reservationCount = reservationCount;
     }
+
+    public int getBookedNights() {
+        return bookedNights;
+    }
+
+    public void setBookedNights(int bookedNights) {
+        this.bookedNights = bookedNights;
+    }
 }
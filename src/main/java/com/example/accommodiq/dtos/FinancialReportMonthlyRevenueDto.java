@@ -1,14 +1,11 @@
 package com.example.accommodiq.dtos;
 
-import com.example.accommodiq.domain.Reservation;
-
-import java.util.Collection;
-import java.util.List;
-
 public class FinancialReportMonthlyRevenueDto {
     private String month;
+    private int year;
     private double revenue;
     private int reservationCount;
+    private int bookedNights;
 
     public FinancialReportMonthlyRevenueDto() {
         super();
@@ -20,10 +17,12 @@ public class FinancialReportMonthlyRevenueDto {
         this.reservationCount = reservationCount;
     }
 
-    public FinancialReportMonthlyRevenueDto(String month, Collection<Reservation> reservations) {
+    public FinancialReportMonthlyRevenueDto(String month, int year, double revenue, int reservationCount, int bookedNights) {
         this.month = month;
-        this.revenue = reservations.stream().mapToDouble(Reservation::getTotalPrice).sum();
-        this.reservationCount = reservations.size();
+        this.year = year;
+        this.revenue = revenue;
+        this.reservationCount = reservationCount;
+        this.bookedNights = bookedNights;
     }
 
     public String getMonth() {
@@ -34,6 +33,14 @@ public class FinancialReportMonthlyRevenueDto {
         this.month = month;
     }
 
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
     public double getRevenue() {
         return revenue;
     }
@@ -49,4 +56,12 @@ public class FinancialReportMonthlyRevenueDto {
     public void setReservationCount(int reservationCount) {
         this.reservationCount = reservationCount;
     }
+
+    public int getBookedNights() {
+        return bookedNights;
+    }
+
+    public void setBookedNights(int bookedNights) {
+        this.bookedNights = bookedNights;
+    }
 }
@@ -1,7 +1,6 @@
 package com.example.accommodiq.dtos;
 
 import com.example.accommodiq.domain.Location;
-import com.example.accommodiq.domain.Reservation;
 import com.example.accommodiq.enums.ReservationStatus;
 
 public class HostReservationCardDto extends ReservationCardDto {
@@ -18,10 +17,11 @@ public class HostReservationCardDto extends ReservationCardDto {
         this.pastCancellations = pastCancellations;
     }
 
-    public HostReservationCardDto(Reservation reservation, long hostId) {
-        super(reservation);
-        this.guestName = reservation.getGuest().getFirstName() + " " + reservation.getGuest().getLastName();
-        this.pastCancellations = reservation.getGuest().getPreviousCancellationNumber(hostId);
+    public HostReservationCardDto(Long id, Long accommodationId, String accommodationTitle, long accommodationRatingSum, int accommodationReviewCount, Location accommodationLocation,
+                                  int guests, Long startDate, Long endDate, ReservationStatus status, double totalPrice, String guestFirstName, String guestLastName, long pastCancellations) {
+        super(id, accommodationId, accommodationTitle, accommodationRatingSum, accommodationReviewCount, accommodationLocation, guests, startDate, endDate, status, totalPrice);
+        this.guestName = guestFirstName + " " + guestLastName;
+        this.pastCancellations = (int) pastCancellations;
     }
 
     public String getGuestName() {
@@ -0,0 +1,93 @@
+package com.example.accommodiq.dtos;
+
+import java.util.List;
+
+public class MonthlyOccupancyDto {
+    private int year;
+    private int month;
+    private int availableNights;
+    private int occupiedNights;
+    private double occupancyRate;
+    private double revenue;
+    private double averageDailyRate;
+    private List<Integer> leadTimeCounts;
+
+    public MonthlyOccupancyDto() {
+        super();
+    }
+
+    public MonthlyOccupancyDto(int year, int month, int availableNights, int occupiedNights, double occupancyRate, double revenue, double averageDailyRate, List<Integer> leadTimeCounts) {
+        this.year = year;
+        this.month = month;
+        this.availableNights = availableNights;
+        this.occupiedNights = occupiedNights;
+        this.occupancyRate = occupancyRate;
+        this.revenue = revenue;
+        this.averageDailyRate = averageDailyRate;
+        this.leadTimeCounts = leadTimeCounts;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    public int getAvailableNights() {
+        return availableNights;
+    }
+
+    public void setAvailableNights(int availableNights) {
+        this.availableNights = availableNights;
+    }
+
+    public int getOccupiedNights() {
+        return occupiedNights;
+    }
+
+    public void setOccupiedNights(int occupiedNights) {
+        this.occupiedNights = occupiedNights;
+    }
+
+    public double getOccupancyRate() {
+        return occupancyRate;
+    }
+
+    public void setOccupancyRate(double occupancyRate) {
+        this.occupancyRate = occupancyRate;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public double getAverageDailyRate() {
+        return averageDailyRate;
+    }
+
+    public void setAverageDailyRate(double averageDailyRate) {
+        this.averageDailyRate = averageDailyRate;
+    }
+
+    public List<Integer> getLeadTimeCounts() {
+        return leadTimeCounts;
+    }
+
+    public void setLeadTimeCounts(List<Integer> leadTimeCounts) {
+        this.leadTimeCounts = leadTimeCounts;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.accommodiq.dtos;
+
+import java.util.List;
+
+public class OccupancyReportDto {
+    private List<Integer> leadTimeBucketStartDays;
+    private List<AccommodationOccupancyDto> accommodations;
+
+    public OccupancyReportDto() {
+        super();
+    }
+
+    public OccupancyReportDto(List<Integer> leadTimeBucketStartDays, List<AccommodationOccupancyDto> accommodations) {
+        this.leadTimeBucketStartDays = leadTimeBucketStartDays;
+        this.accommodations = accommodations;
+    }
+
+    public List<Integer> getLeadTimeBucketStartDays() {
+        return leadTimeBucketStartDays;
+    }
+
+    public void setLeadTimeBucketStartDays(List<Integer> leadTimeBucketStartDays) {
+        this.leadTimeBucketStartDays = leadTimeBucketStartDays;
+    }
+
+    public List<AccommodationOccupancyDto> getAccommodations() {
+        return accommodations;
+    }
+
+    public void setAccommodations(List<AccommodationOccupancyDto> accommodations) {
+        this.accommodations = accommodations;
+    }
+}
@@ -38,13 +38,20 @@ public class ReservationCardDto {
         this.totalPrice = totalPrice;
     }
 
+    // used by JPQL constructor projections; the image is filled in afterwards
+    public ReservationCardDto(Long id, Long accommodationId, String accommodationTitle, long accommodationRatingSum, int accommodationReviewCount,
+                              Location accommodationLocation, int guests, Long startDate, Long endDate, ReservationStatus status, double totalPrice) {
+        this(id, accommodationId, "", accommodationTitle, accommodationReviewCount > 0 ? (double) accommodationRatingSum / accommodationReviewCount : 0,
+                accommodationReviewCount, accommodationLocation, guests, startDate, endDate, status, totalPrice);
+    }
+
     public ReservationCardDto(Reservation reservation) {
         this.id = reservation.getId();
         this.accommodationId = reservation.getAccommodation().getId();
         this.accommodationImage = (!reservation.getAccommodation().getImages().isEmpty()) ? reservation.getAccommodation().getImages().get(0) : "";
         this.accommodationTitle = reservation.getAccommodation().getTitle();
         this.accommodationRating = reservation.getAccommodation().getAverageRating();
-        this.accommodationReviewCount = reservation.getAccommodation().getReviews().size();
+        this.accommodationReviewCount = reservation.getAccommodation().getReviewStats().getReviewCount();
         this.accommodationLocation = reservation.getAccommodation().getLocation();
         this.guests = reservation.getNumberOfGuests();
         this.startDate = reservation.getStartDate();
@@ -0,0 +1,81 @@
+package com.example.accommodiq.dtos;
+
+public class ReservationExpiryStatsDto {
+    private long runs;
+    private long expiredTotal;
+    private long notificationsSent;
+    private Long lastRunAt;
+    private int lastRunExpired;
+    private int lastRunBatches;
+    private long lastRunDurationMillis;
+
+    public ReservationExpiryStatsDto() {
+        super();
+    }
+
+    public ReservationExpiryStatsDto(long runs, long expiredTotal, long notificationsSent, Long lastRunAt, int lastRunExpired, int lastRunBatches, long lastRunDurationMillis) {
+        this.runs = runs;
+        this.expiredTotal = expiredTotal;
+        this.notificationsSent = notificationsSent;
+        this.lastRunAt = lastRunAt;
+        this.lastRunExpired = lastRunExpired;
+        this.lastRunBatches = lastRunBatches;
+        this.lastRunDurationMillis = lastRunDurationMillis;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public void setRuns(long runs) {
+        this.runs = runs;
+    }
+
+    public long getExpiredTotal() {
+        return expiredTotal;
+    }
+
+    public void setExpiredTotal(long expiredTotal) {
+        this.expiredTotal = expiredTotal;
+    }
+
+    public long getNotificationsSent() {
+        return notificationsSent;
+    }
+
+    public void setNotificationsSent(long notificationsSent) {
+        this.notificationsSent = notificationsSent;
+    }
+
+    public Long getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(Long lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public int getLastRunExpired() {
+        return lastRunExpired;
+    }
+
+    public void setLastRunExpired(int lastRunExpired) {
+        this.lastRunExpired = lastRunExpired;
+    }
+
+    public int getLastRunBatches() {
+        return lastRunBatches;
+    }
+
+    public void setLastRunBatches(int lastRunBatches) {
+        this.lastRunBatches = lastRunBatches;
+    }
+
+    public long getLastRunDurationMillis() {
+        return lastRunDurationMillis;
+    }
+
+    public void setLastRunDurationMillis(long lastRunDurationMillis) {
+        this.lastRunDurationMillis = lastRunDurationMillis;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.accommodiq.dtos;
+
+import com.example.accommodiq.domain.ReservationHold;
+
+public class ReservationHoldDto {
+    private Long id;
+    private Long accommodationId;
+    private Long startDate;
+    private Long endDate;
+    private Long expiresAt;
+
+    public ReservationHoldDto() {
+        super();
+    }
+
+    public ReservationHoldDto(ReservationHold hold) {
+        this.id = hold.getId();
+        this.accommodationId = hold.getAccommodation().getId();
+        this.startDate = hold.getStartDate();
+        this.endDate = hold.getEndDate();
+        this.expiresAt = hold.getExpiresAt();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAccommodationId() {
+        return accommodationId;
+    }
+
+    public void setAccommodationId(Long accommodationId) {
+        this.accommodationId = accommodationId;
+    }
+
+    public Long getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(Long startDate) {
+        this.startDate = startDate;
+    }
+
+    public Long getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(Long endDate) {
+        this.endDate = endDate;
+    }
+
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
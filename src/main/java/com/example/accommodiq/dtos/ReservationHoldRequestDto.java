@@ -0,0 +1,47 @@
+package com.example.accommodiq.dtos;
+
+import com.example.accommodiq.validation.FutureLongDate;
+import jakarta.validation.constraints.NotNull;
+
+public class ReservationHoldRequestDto {
+    @NotNull
+    private Long accommodationId;
+    @FutureLongDate
+    private long startDate;
+    @FutureLongDate
+    private long endDate;
+
+    public ReservationHoldRequestDto() {
+        super();
+    }
+
+    public ReservationHoldRequestDto(Long accommodationId, long startDate, long endDate) {
+        this.accommodationId = accommodationId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public Long getAccommodationId() {
+        return accommodationId;
+    }
+
+    public void setAccommodationId(Long accommodationId) {
+        this.accommodationId = accommodationId;
+    }
+
+    public long getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(long startDate) {
+        this.startDate = startDate;
+    }
+
+    public long getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(long endDate) {
+        this.endDate = endDate;
+    }
+}
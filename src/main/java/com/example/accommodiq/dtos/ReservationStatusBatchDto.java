@@ -0,0 +1,29 @@
+package com.example.accommodiq.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class ReservationStatusBatchDto {
+    @NotEmpty(message = "At least one status change is required")
+    @Size(max = 500, message = "At most 500 status changes can be sent at once")
+    private List<@Valid ReservationStatusChangeDto> changes;
+
+    public ReservationStatusBatchDto() {
+        super();
+    }
+
+    public ReservationStatusBatchDto(List<ReservationStatusChangeDto> changes) {
+        this.changes = changes;
+    }
+
+    public List<ReservationStatusChangeDto> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<ReservationStatusChangeDto> changes) {
+        this.changes = changes;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.accommodiq.dtos;
+
+import com.example.accommodiq.enums.ReservationStatus;
+import jakarta.validation.constraints.NotNull;
+
+public class ReservationStatusChangeDto {
+    @NotNull(message = "Reservation id is required")
+    private Long reservationId;
+    @NotNull(message = "Status is required")
+    private ReservationStatus status;
+
+    public ReservationStatusChangeDto() {
+        super();
+    }
+
+    public ReservationStatusChangeDto(Long reservationId, ReservationStatus status) {
+        this.reservationId = reservationId;
+        this.status = status;
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(Long reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public ReservationStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ReservationStatus status) {
+        this.status = status;
+    }
+}
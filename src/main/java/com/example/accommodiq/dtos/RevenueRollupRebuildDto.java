@@ -0,0 +1,51 @@
+package com.example.accommodiq.dtos;
+
+public class RevenueRollupRebuildDto {
+    private int accommodations;
+    private int reservations;
+    private int days;
+    private long durationMillis;
+
+    public RevenueRollupRebuildDto() {
+        super();
+    }
+
+    public RevenueRollupRebuildDto(int accommodations, int reservations, int days, long durationMillis) {
+        this.accommodations = accommodations;
+        this.reservations = reservations;
+        this.days = days;
+        this.durationMillis = durationMillis;
+    }
+
+    public int getAccommodations() {
+        return accommodations;
+    }
+
+    public void setAccommodations(int accommodations) {
+        this.accommodations = accommodations;
+    }
+
+    public int getReservations() {
+        return reservations;
+    }
+
+    public void setReservations(int reservations) {
+        this.reservations = reservations;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public void setDays(int days) {
+        this.days = days;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.accommodiq.dtos;
+
+public class SearchCacheStatsDto {
+    private long hits;
+    private long misses;
+    private long evictions;
+    private int size;
+    private int maxEntries;
+
+    public SearchCacheStatsDto() {
+        super();
+    }
+
+    public SearchCacheStatsDto(long hits, long misses, long evictions, int size, int maxEntries) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+        this.maxEntries = maxEntries;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public double getHitRatio() {
+        return hits + misses > 0 ? (double) hits / (hits + misses) : 0;
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.accommodiq.enums;
+
+public enum AccommodationChangeType {
+    CREATED, UPDATED, STATUS_CHANGED, AVAILABILITY_CHANGED, REVIEWED, RESERVATION_ACCEPTED, RESERVATION_RELEASED, DELETED
+}
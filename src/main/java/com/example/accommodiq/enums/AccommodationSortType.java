@@ -0,0 +1,5 @@
+package com.example.accommodiq.enums;
+
+public enum AccommodationSortType {
+    NEWEST, PRICE_ASC, PRICE_DESC, RATING_DESC, RELEVANCE
+}
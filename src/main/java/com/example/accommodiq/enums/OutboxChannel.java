@@ -0,0 +1,5 @@
+package com.example.accommodiq.enums;
+
+public enum OutboxChannel {
+    WEBSOCKET, PUSH, VERIFICATION_EMAIL
+}
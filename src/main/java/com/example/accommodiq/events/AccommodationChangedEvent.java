@@ -0,0 +1,21 @@
+package com.example.accommodiq.events;
+
+import com.example.accommodiq.enums.AccommodationChangeType;
+
+public class AccommodationChangedEvent {
+    private final Long accommodationId;
+    private final AccommodationChangeType changeType;
+
+    public AccommodationChangedEvent(Long accommodationId, AccommodationChangeType changeType) {
+        this.accommodationId = accommodationId;
+        this.changeType = changeType;
+    }
+
+    public Long getAccommodationId() {
+        return accommodationId;
+    }
+
+    public AccommodationChangeType getChangeType() {
+        return changeType;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.accommodiq.events;
+
+public class ReportCountChangedEvent {
+    private final int delta;
+
+    public ReportCountChangedEvent(int delta) {
+        this.delta = delta;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+}
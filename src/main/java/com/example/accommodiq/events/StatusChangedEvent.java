@@ -0,0 +1,21 @@
+package com.example.accommodiq.events;
+
+// Status transition of an accommodation, review, account or reservation. A null old status means the entity was created,
+// a null new status that it was deleted.
+public class StatusChangedEvent {
+    private final Enum<?> oldStatus;
+    private final Enum<?> newStatus;
+
+    public StatusChangedEvent(Enum<?> oldStatus, Enum<?> newStatus) {
+        this.oldStatus = oldStatus;
+        this.newStatus = newStatus;
+    }
+
+    public Enum<?> getOldStatus() {
+        return oldStatus;
+    }
+
+    public Enum<?> getNewStatus() {
+        return newStatus;
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.accommodiq.indexes;
+
+import com.example.accommodiq.domain.Availability;
+import com.example.accommodiq.domain.Reservation;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+public final class AvailabilityIndex {
+    public static final long ONE_DAY = 24 * 60 * 60 * 1000L;
+
+    private final long[] slotFrom;
+    private final long[] slotTo;
+    private final long[] slotMaxTo;
+    private final double[] slotPrice;
+    private final long[] runFrom;
+    private final long[] runTo;
+    private final long[] bookedFrom;
+    private final long[] bookedMaxTo;
+
+    private AvailabilityIndex(Collection<Availability> slots, Collection<Reservation> bookings) {
+        Availability[] sortedSlots = slots.stream()
+                .filter(slot -> slot.getFromDate() != null && slot.getToDate() != null)
+                .sorted(Comparator.comparing(Availability::getFromDate))
+                .toArray(Availability[]::new);
+
+        int slotCount = sortedSlots.length;
+        slotFrom = new long[slotCount];
+        slotTo = new long[slotCount];
+        slotMaxTo = new long[slotCount];
+        slotPrice = new double[slotCount];
+
+        long[] mergedFrom = new long[slotCount];
+        long[] mergedTo = new long[slotCount];
+        int runCount = 0;
+
+        for (int i = 0; i < slotCount; i++) {
+            slotFrom[i] = sortedSlots[i].getFromDate();
+            slotTo[i] = sortedSlots[i].getToDate();
+            slotPrice[i] = sortedSlots[i].getPrice();
+            slotMaxTo[i] = i == 0 ? slotTo[i] : Math.max(slotMaxTo[i - 1], slotTo[i]);
+
+            if (runCount > 0 && slotFrom[i] <= mergedTo[runCount - 1] + ONE_DAY) {
+                mergedTo[runCount - 1] = Math.max(mergedTo[runCount - 1], slotTo[i]);
+            } else {
+                mergedFrom[runCount] = slotFrom[i];
+                mergedTo[runCount] = slotTo[i];
+                runCount++;
+            }
+        }
+
+        runFrom = Arrays.copyOf(mergedFrom, runCount);
+        runTo = Arrays.copyOf(mergedTo, runCount);
+
+        long[][] sortedBookings = bookings.stream()
+                .filter(booking -> booking.getStartDate() != null && booking.getEndDate() != null)
+                .map(booking -> new long[]{booking.getStartDate(), booking.getEndDate()})
+                .sorted(Comparator.comparingLong(booking -> booking[0]))
+                .toArray(long[][]::new);
+
+        bookedFrom = new long[sortedBookings.length];
+        bookedMaxTo = new long[sortedBookings.length];
+        for (int i = 0; i < sortedBookings.length; i++) {
+            bookedFrom[i] = sortedBookings[i][0];
+            bookedMaxTo[i] = i == 0 ? sortedBookings[i][1] : Math.max(bookedMaxTo[i - 1], sortedBookings[i][1]);
+        }
+    }
+
+    public static AvailabilityIndex of(Collection<Availability> slots) {
+        return new AvailabilityIndex(slots, List.of());
+    }
+
+    public static AvailabilityIndex of(Collection<Availability> slots, Collection<Reservation> acceptedReservations) {
+        return new AvailabilityIndex(slots, acceptedReservations);
+    }
+
+    public boolean isEmpty() {
+        return slotFrom.length == 0;
+    }
+
+    public int slotCount() {
+        return slotFrom.length;
+    }
+
+    public long slotFrom(int slot) {
+        return slotFrom[slot];
+    }
+
+    public long slotTo(int slot) {
+        return slotTo[slot];
+    }
+
+    public double slotPrice(int slot) {
+        return slotPrice[slot];
+    }
+
+    // Index of the first slot (by start date) that may still contain the given instant.
+    public int firstSlotEndingAtOrAfter(long instant) {
+        int low = 0;
+        int high = slotMaxTo.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (slotMaxTo[middle] < instant) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Same semantics as the original slot walk: consecutive slots may be at most one day apart,
+    // and both ends of the range have to fall inside a slot.
+    public boolean covers(long from, long to) {
+        int run = lastStartingAtOrBefore(runFrom, from);
+        return run >= 0 && to <= runTo[run] && isInsideSlot(from) && isInsideSlot(to);
+    }
+
+    public long coveredUntil(long instant) {
+        int run = lastStartingAtOrBefore(runFrom, instant);
+        return run >= 0 && instant <= runTo[run] && isInsideSlot(instant) ? runTo[run] : -1;
+    }
+
+    public boolean overlapsSlot(long from, long to) {
+        int slot = lastStartingBefore(slotFrom, to);
+        return slot >= 0 && slotMaxTo[slot] > from;
+    }
+
+    public boolean overlapsBooking(long from, long to) {
+        int booking = lastStartingBefore(bookedFrom, to);
+        return booking >= 0 && bookedMaxTo[booking] > from;
+    }
+
+    public boolean isBookable(long from, long to) {
+        return covers(from, to) && !overlapsBooking(from, to);
+    }
+
+    // One pass over consecutive nights of a day each, walking the slots, the runs and the bookings together instead of
+    // searching them for every night. Bit i of the result is set when night i is bookable, and prices[i] gets the price
+    // of the earliest starting slot the night starts in, or NaN when it starts outside every slot.
+    public long bookableNights(long firstNight, int nights, double[] prices) {
+        if (nights > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " nights fit in the bitmap");
+        }
+
+        boolean[] inside = new boolean[nights + 1];
+        int slot = 0;
+        for (int i = 0; i <= nights; i++) {
+            long instant = firstNight + i * ONE_DAY;
+            while (slot < slotTo.length && slotTo[slot] < instant) {
+                slot++;
+            }
+            inside[i] = slot < slotFrom.length && slotFrom[slot] <= instant;
+            if (i < nights) {
+                prices[i] = inside[i] ? slotPrice[slot] : Double.NaN;
+            }
+        }
+
+        long bookable = 0;
+        int run = 0;
+        int booking = 0;
+        for (int i = 0; i < nights; i++) {
+            long from = firstNight + i * ONE_DAY;
+            long to = from + ONE_DAY;
+            while (run < runTo.length && runTo[run] < from) {
+                run++;
+            }
+            while (booking < bookedFrom.length && bookedFrom[booking] < to) {
+                booking++;
+            }
+
+            boolean covered = inside[i] && inside[i + 1] && run < runFrom.length && runFrom[run] <= from && to <= runTo[run];
+            boolean booked = booking > 0 && bookedMaxTo[booking - 1] > from;
+            if (covered && !booked) {
+                bookable |= 1L << i;
+            }
+        }
+        return bookable;
+    }
+
+    private boolean isInsideSlot(long instant) {
+        int slot = lastStartingAtOrBefore(slotFrom, instant);
+        return slot >= 0 && slotMaxTo[slot] >= instant;
+    }
+
+    private static int lastStartingAtOrBefore(long[] starts, long instant) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] <= instant) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low - 1;
+    }
+
+    private static int lastStartingBefore(long[] starts, long instant) {
+        return lastStartingAtOrBefore(starts, instant - 1);
+    }
+}
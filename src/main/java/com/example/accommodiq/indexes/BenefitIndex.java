@@ -0,0 +1,137 @@
+package com.example.accommodiq.indexes;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Interns benefit names into bit positions and keeps one bitset per accommodation,
+// so filtering on several benefits is a single AND per accommodation.
+public class BenefitIndex {
+    private final Map<String, Integer> bitsByBenefit = new HashMap<>();
+    private final List<String> benefitsByBit = new ArrayList<>();
+    private final Map<Long, long[]> bitsById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(Long id, Collection<String> benefits) {
+        lock.writeLock().lock();
+        try {
+            long[] bits = new long[0];
+            for (String benefit : benefits) {
+                int bit = bitsByBenefit.computeIfAbsent(benefit, key -> {
+                    benefitsByBit.add(key);
+                    return benefitsByBit.size() - 1;
+                });
+                if (bit / Long.SIZE >= bits.length) {
+                    bits = Arrays.copyOf(bits, bit / Long.SIZE + 1);
+                }
+                bits[bit / Long.SIZE] |= 1L << bit;
+            }
+            bitsById.put(id, bits);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            bitsById.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            bitsByBenefit.clear();
+            benefitsByBit.clear();
+            bitsById.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Set<Long> findWithAll(Collection<String> benefits) {
+        lock.readLock().lock();
+        try {
+            long[] mask = new long[0];
+            for (String benefit : benefits) {
+                Integer bit = bitsByBenefit.get(benefit);
+                if (bit == null) {
+                    return Set.of();
+                }
+                if (bit / Long.SIZE >= mask.length) {
+                    mask = Arrays.copyOf(mask, bit / Long.SIZE + 1);
+                }
+                mask[bit / Long.SIZE] |= 1L << bit;
+            }
+
+            Set<Long> ids = new HashSet<>();
+            for (Map.Entry<Long, long[]> entry : bitsById.entrySet()) {
+                if (containsAll(entry.getValue(), mask)) {
+                    ids.add(entry.getKey());
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Counter counter() {
+        return new Counter();
+    }
+
+    private static boolean containsAll(long[] bits, long[] mask) {
+        for (int word = 0; word < mask.length; word++) {
+            long bitsWord = word < bits.length ? bits[word] : 0;
+            if ((bitsWord & mask[word]) != mask[word]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Accumulates per-benefit counts one accommodation at a time, so callers can count while they filter.
+    public class Counter {
+        private int[] counts = new int[0];
+
+        public void add(Long id) {
+            long[] bits;
+            lock.readLock().lock();
+            try {
+                bits = bitsById.get(id);
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (bits == null) {
+                return;
+            }
+
+            if (counts.length < bits.length * Long.SIZE) {
+                counts = Arrays.copyOf(counts, bits.length * Long.SIZE);
+            }
+            for (int word = 0; word < bits.length; word++) {
+                for (long remaining = bits[word]; remaining != 0; remaining &= remaining - 1) {
+                    counts[word * Long.SIZE + Long.numberOfTrailingZeros(remaining)]++;
+                }
+            }
+        }
+
+        public Map<String, Long> toMap() {
+            Map<String, Long> result = new TreeMap<>();
+            lock.readLock().lock();
+            try {
+                for (int bit = 0; bit < counts.length && bit < benefitsByBit.size(); bit++) {
+                    if (counts[bit] > 0) {
+                        result.put(benefitsByBit.get(bit), (long) counts[bit]);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.accommodiq.indexes;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Buckets points into fixed-size latitude/longitude cells so radius and box queries only look at nearby cells.
+public class GeoGridIndex {
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final double cellDegrees;
+    private final int latitudeCells;
+    private final int longitudeCells;
+    private final Map<Long, double[]> points = new HashMap<>();
+    private final Map<Long, Set<Long>> cells = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public GeoGridIndex(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+        this.latitudeCells = (int) Math.ceil(180 / cellDegrees);
+        this.longitudeCells = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    public void put(Long id, double latitude, double longitude) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            points.put(id, new double[]{latitude, longitude});
+            cells.computeIfAbsent(cellOf(latitude, longitude), cell -> new HashSet<>()).add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            points.clear();
+            cells.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Hit> withinRadius(double latitude, double longitude, double radiusKm) {
+        double latitudeSpan = radiusKm / KM_PER_DEGREE;
+        double minLatitude = Math.max(-90, latitude - latitudeSpan);
+        double maxLatitude = Math.min(90, latitude + latitudeSpan);
+
+        // the widest longitude span is at the latitude closest to a pole
+        double widestLatitude = Math.max(Math.abs(minLatitude), Math.abs(maxLatitude));
+        double cosine = Math.cos(Math.toRadians(widestLatitude));
+        double longitudeSpan = cosine > 1e-9 ? latitudeSpan / cosine : 360;
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            forEachCandidate(minLatitude, maxLatitude, longitude - longitudeSpan, longitude + longitudeSpan, (id, point) -> {
+                double distance = distanceKm(latitude, longitude, point[0], point[1]);
+                if (distance <= radiusKm) {
+                    hits.add(new Hit(id, distance));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm).thenComparingLong(Hit::id));
+        return hits;
+    }
+
+    // minLongitude greater than maxLongitude means the box crosses the antimeridian
+    public List<Hit> withinBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude, double fromLatitude, double fromLongitude) {
+        double maxEast = minLongitude <= maxLongitude ? maxLongitude : maxLongitude + 360;
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            forEachCandidate(minLatitude, maxLatitude, minLongitude, maxEast, (id, point) -> {
+                double longitude = point[1] < minLongitude ? point[1] + 360 : point[1];
+                if (point[0] >= minLatitude && point[0] <= maxLatitude && longitude <= maxEast) {
+                    hits.add(new Hit(id, distanceKm(fromLatitude, fromLongitude, point[0], point[1])));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm).thenComparingLong(Hit::id));
+        return hits;
+    }
+
+    public static double distanceKm(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double latitudeDelta = Math.toRadians(toLatitude - fromLatitude);
+        double longitudeDelta = Math.toRadians(toLongitude - fromLongitude);
+        double a = Math.pow(Math.sin(latitudeDelta / 2), 2)
+                + Math.cos(Math.toRadians(fromLatitude)) * Math.cos(Math.toRadians(toLatitude)) * Math.pow(Math.sin(longitudeDelta / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // longitudes may run past +-180 by less than a full turn; wrapped ranges are split in two
+    private void forEachCandidate(double minLatitude, double maxLatitude, double westLongitude, double eastLongitude, CandidateConsumer consumer) {
+        if (eastLongitude - westLongitude >= 360) {
+            forEachCandidateInRange(minLatitude, maxLatitude, -180, 180, consumer);
+        } else if (westLongitude < -180) {
+            forEachCandidateInRange(minLatitude, maxLatitude, westLongitude + 360, 180, consumer);
+            forEachCandidateInRange(minLatitude, maxLatitude, -180, eastLongitude, consumer);
+        } else if (eastLongitude > 180) {
+            forEachCandidateInRange(minLatitude, maxLatitude, westLongitude, 180, consumer);
+            forEachCandidateInRange(minLatitude, maxLatitude, -180, eastLongitude - 360, consumer);
+        } else {
+            forEachCandidateInRange(minLatitude, maxLatitude, westLongitude, eastLongitude, consumer);
+        }
+    }
+
+    private void forEachCandidateInRange(double minLatitude, double maxLatitude, double westLongitude, double eastLongitude, CandidateConsumer consumer) {
+        int toLongitudeCell = longitudeCell(eastLongitude);
+        for (int latitudeCell = latitudeCell(minLatitude); latitudeCell <= latitudeCell(maxLatitude); latitudeCell++) {
+            for (int longitudeCell = longitudeCell(westLongitude); longitudeCell <= toLongitudeCell; longitudeCell++) {
+                Set<Long> ids = cells.get((long) latitudeCell * longitudeCells + longitudeCell);
+                if (ids != null) {
+                    for (Long id : ids) {
+                        consumer.accept(id, points.get(id));
+                    }
+                }
+            }
+        }
+    }
+
+    private void removeUnlocked(Long id) {
+        double[] point = points.remove(id);
+        if (point == null) {
+            return;
+        }
+
+        long cell = cellOf(point[0], point[1]);
+        Set<Long> ids = cells.get(cell);
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            cells.remove(cell);
+        }
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return (long) latitudeCell(latitude) * longitudeCells + longitudeCell(longitude);
+    }
+
+    private int longitudeCell(double longitude) {
+        return Math.min(longitudeCells - 1, Math.max(0, (int) Math.floor((longitude + 180) / cellDegrees)));
+    }
+
+    private int latitudeCell(double latitude) {
+        return Math.min(latitudeCells - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellDegrees)));
+    }
+
+    private interface CandidateConsumer {
+        void accept(Long id, double[] point);
+    }
+
+    public record Hit(Long id, double distanceKm) {
+    }
+}
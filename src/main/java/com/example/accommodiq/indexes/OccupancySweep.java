@@ -0,0 +1,138 @@
+package com.example.accommodiq.indexes;
+
+import java.util.Arrays;
+
+import static com.example.accommodiq.indexes.AvailabilityIndex.ONE_DAY;
+
+// Occupancy of one accommodation per period, from its open ranges and accepted stays in a single sweep over their
+// sorted UTC night boundaries. A night is available when an open range or a stay covers it and occupied when a stay does;
+// a stay earns its price spread evenly over its nights. Lead times are counted in the period the stay starts in.
+public final class OccupancySweep {
+    public static final int[] LEAD_TIME_BUCKET_DAYS = {0, 1, 7, 30, 90};
+
+    private final int[] availableNights;
+    private final int[] occupiedNights;
+    private final double[] revenue;
+    private final int[][] leadTimes;
+
+    private OccupancySweep(int periods) {
+        availableNights = new int[periods];
+        occupiedNights = new int[periods];
+        revenue = new double[periods];
+        leadTimes = new int[periods][LEAD_TIME_BUCKET_DAYS.length];
+    }
+
+    // boundaries are the UTC midnights between consecutive periods; stayCreatedAt holds 0 where it is unknown
+    public static OccupancySweep of(long[] boundaries, long[] openFrom, long[] openTo, long[] stayStart, long[] stayEnd, double[] stayPrice, long[] stayCreatedAt) {
+        int periods = boundaries.length - 1;
+        OccupancySweep sweep = new OccupancySweep(periods);
+        long[] periodDays = new long[boundaries.length];
+        for (int i = 0; i < boundaries.length; i++) {
+            periodDays[i] = Math.floorDiv(boundaries[i], ONE_DAY);
+        }
+
+        // an event is (day << 1 | kind) with kind 0 for open ranges and 1 for stays, and its position in the delta arrays
+        int events = 2 * (openFrom.length + stayStart.length);
+        long[] keys = new long[events];
+        int[] openDelta = new int[events];
+        int[] stayDelta = new int[events];
+        double[] rateDelta = new double[events];
+        int count = 0;
+        for (int i = 0; i < openFrom.length; i++) {
+            long first = Math.floorDiv(openFrom[i], ONE_DAY);
+            long last = Math.floorDiv(openTo[i], ONE_DAY);
+            if (last <= first) {
+                continue;
+            }
+            keys[count] = first << 1;
+            openDelta[count++] = 1;
+            keys[count] = last << 1;
+            openDelta[count++] = -1;
+        }
+        for (int i = 0; i < stayStart.length; i++) {
+            long first = Math.floorDiv(stayStart[i], ONE_DAY);
+            long last = Math.max(first + 1, Math.floorDiv(stayEnd[i], ONE_DAY));
+            double rate = stayPrice[i] / (last - first);
+            keys[count] = first << 1 | 1;
+            stayDelta[count] = 1;
+            rateDelta[count++] = rate;
+            keys[count] = last << 1 | 1;
+            stayDelta[count] = -1;
+            rateDelta[count++] = -rate;
+
+            int period = periodOf(boundaries, stayStart[i]);
+            if (period >= 0 && stayCreatedAt[i] > 0) {
+                long leadDays = Math.max(0, Math.floorDiv(stayStart[i] - stayCreatedAt[i], ONE_DAY));
+                int bucket = LEAD_TIME_BUCKET_DAYS.length - 1;
+                while (LEAD_TIME_BUCKET_DAYS[bucket] > leadDays) {
+                    bucket--;
+                }
+                sweep.leadTimes[period][bucket]++;
+            }
+        }
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+
+        int open = 0;
+        int stays = 0;
+        double rate = 0;
+        int period = 0;
+        for (int i = 0; i < count; i++) {
+            int event = order[i];
+            open += openDelta[event];
+            stays += stayDelta[event];
+            rate = stays == 0 ? 0 : rate + rateDelta[event];
+
+            // the state after the last event of a day holds until the next event day
+            long from = keys[event] >> 1;
+            long to = i + 1 < count ? keys[order[i + 1]] >> 1 : from;
+            if (to == from || (open == 0 && stays == 0)) {
+                continue;
+            }
+
+            while (period < periods && periodDays[period + 1] <= from) {
+                period++;
+            }
+            for (int p = period; p < periods && periodDays[p] < to; p++) {
+                long nights = Math.min(to, periodDays[p + 1]) - Math.max(from, periodDays[p]);
+                if (nights <= 0) {
+                    continue;
+                }
+                sweep.availableNights[p] += (int) nights;
+                if (stays > 0) {
+                    sweep.occupiedNights[p] += (int) nights;
+                    sweep.revenue[p] += rate * nights;
+                }
+            }
+        }
+        return sweep;
+    }
+
+    private static int periodOf(long[] boundaries, long instant) {
+        if (instant < boundaries[0] || instant >= boundaries[boundaries.length - 1]) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(boundaries, instant);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    public int availableNights(int period) {
+        return availableNights[period];
+    }
+
+    public int occupiedNights(int period) {
+        return occupiedNights[period];
+    }
+
+    public double revenue(int period) {
+        return revenue[period];
+    }
+
+    public int[] leadTimes(int period) {
+        return leadTimes[period].clone();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.accommodiq.indexes;
+
+import java.util.OptionalDouble;
+
+import static com.example.accommodiq.indexes.AvailabilityIndex.ONE_DAY;
+
+// Prefix sums of the nightly price and of covered days over the whole span of an accommodation's slots, so a quote
+// for any number of nights is two lookups instead of a walk over the slots.
+public final class PriceCalendar {
+    private static final int MAX_DAYS = 20 * 366;
+    private static final PriceCalendar EMPTY = new PriceCalendar(0, 0, new double[0], new int[1], 0);
+
+    private final long offset;
+    private final long firstDay;
+    private final double[] pricePrefix;
+    private final int[] coveredPrefix;
+    private final double minPrice;
+
+    private PriceCalendar(long offset, long firstDay, double[] pricePrefix, int[] coveredPrefix, double minPrice) {
+        this.offset = offset;
+        this.firstDay = firstDay;
+        this.pricePrefix = pricePrefix;
+        this.coveredPrefix = coveredPrefix;
+        this.minPrice = minPrice;
+    }
+
+    // Days are counted from the time of day of the earliest slot, so quotes whose start shares that
+    // time of day hit exactly the instants the slot walk in Accommodation would visit.
+    public static PriceCalendar of(AvailabilityIndex index) {
+        if (index.isEmpty()) {
+            return EMPTY;
+        }
+
+        long offset = Math.floorMod(index.slotFrom(0), ONE_DAY);
+        long firstDay = Math.floorDiv(index.slotFrom(0) - offset, ONE_DAY);
+        long lastDay = firstDay;
+        double minPrice = Double.MAX_VALUE;
+        for (int slot = 0; slot < index.slotCount(); slot++) {
+            lastDay = Math.max(lastDay, Math.floorDiv(index.slotTo(slot) - offset, ONE_DAY));
+            minPrice = Math.min(minPrice, index.slotPrice(slot));
+        }
+
+        if (lastDay - firstDay >= MAX_DAYS) {
+            return new PriceCalendar(offset, firstDay, new double[1], new int[1], minPrice);
+        }
+
+        int length = (int) (lastDay - firstDay + 1);
+        double[] prices = new double[length];
+        boolean[] covered = new boolean[length];
+
+        // walk backwards so that, for overlapping slots, the one starting first wins like in the slot walk
+        for (int slot = index.slotCount() - 1; slot >= 0; slot--) {
+            long from = -Math.floorDiv(-(index.slotFrom(slot) - offset), ONE_DAY);
+            long to = Math.floorDiv(index.slotTo(slot) - offset, ONE_DAY);
+            for (long day = from; day <= to; day++) {
+                prices[(int) (day - firstDay)] = index.slotPrice(slot);
+                covered[(int) (day - firstDay)] = true;
+            }
+        }
+
+        double[] pricePrefix = new double[length + 1];
+        int[] coveredPrefix = new int[length + 1];
+        for (int day = 0; day < length; day++) {
+            pricePrefix[day + 1] = pricePrefix[day] + prices[day];
+            coveredPrefix[day + 1] = coveredPrefix[day] + (covered[day] ? 1 : 0);
+        }
+
+        return new PriceCalendar(offset, firstDay, pricePrefix, coveredPrefix, minPrice);
+    }
+
+    public double getMinPrice() {
+        return this == EMPTY ? 0 : minPrice;
+    }
+
+    // Sum of the nightly prices from the first night up to (excluding) the night containing the end date.
+    // Empty when the quote cannot be answered from the calendar and the caller has to walk the slots.
+    public OptionalDouble quote(long fromDate, long toDate) {
+        if (Math.floorMod(fromDate, ONE_DAY) != offset || toDate < fromDate) {
+            return OptionalDouble.empty();
+        }
+
+        long nights = (toDate - fromDate) / ONE_DAY;
+        long start = Math.floorDiv(fromDate - offset, ONE_DAY) - firstDay;
+        long end = start + nights;
+        if (start < 0 || end >= coveredPrefix.length - 1 || coveredPrefix[(int) end + 1] - coveredPrefix[(int) start] != nights + 1) {
+            return OptionalDouble.empty();
+        }
+
+        return OptionalDouble.of(pricePrefix[(int) end] - pricePrefix[(int) start]);
+    }
+
+    // Nightly prices summed by walking the slots night by night, for quotes the calendar cannot answer.
+    public static double walk(AvailabilityIndex index, long fromDate, long toDate) {
+        long fromDateCopy = fromDate;
+        double totalPrice = 0;
+        double lastPrice = 0;
+        for (int slot = index.firstSlotEndingAtOrAfter(fromDate); slot < index.slotCount() && index.slotFrom(slot) <= toDate; slot++) {
+            while (index.slotFrom(slot) <= fromDateCopy && fromDateCopy <= index.slotTo(slot)) {
+                totalPrice += index.slotPrice(slot);
+                lastPrice = index.slotPrice(slot);
+                fromDateCopy += ONE_DAY;
+
+                if (fromDateCopy > toDate) {
+                    return totalPrice - lastPrice;
+                }
+            }
+        }
+
+        return totalPrice - lastPrice;
+    }
+}
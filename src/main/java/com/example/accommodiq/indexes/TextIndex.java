@@ -0,0 +1,176 @@
+package com.example.accommodiq.indexes;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Inverted index from normalized terms to posting lists of document ids kept sorted in primitive arrays.
+// Query terms match whole terms and term prefixes, every query term has to match (AND),
+// and hits are ranked by field weight times inverse document frequency.
+public class TextIndex {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace("\u0111", "dj");
+        return Arrays.stream(SEPARATORS.split(normalized)).filter(term -> !term.isEmpty()).toList();
+    }
+
+    public void put(Long id, WeightedText... texts) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (WeightedText text : texts) {
+            for (String term : tokenize(text.text())) {
+                weights.merge(term, text.weight(), Integer::sum);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, key -> new PostingList()).put(id, weight));
+            documentTerms.put(id, weights.keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Hit> search(String query) {
+        List<String> queryTerms = tokenize(query).stream().distinct().toList();
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores = null;
+        lock.readLock().lock();
+        try {
+            double documentCount = documentTerms.size();
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = new HashMap<>();
+                for (Map.Entry<String, PostingList> entry : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, true).entrySet()) {
+                    PostingList postingList = entry.getValue();
+                    double factor = Math.log(1 + documentCount / postingList.size) * (entry.getKey().equals(queryTerm) ? 1 : PREFIX_MATCH_FACTOR);
+                    for (int i = 0; i < postingList.size; i++) {
+                        Long id = postingList.ids[i];
+                        if (scores == null || scores.containsKey(id)) {
+                            termScores.merge(id, postingList.weights[i] * factor, Math::max);
+                        }
+                    }
+                }
+
+                if (scores != null) {
+                    Map<Long, Double> previousScores = scores;
+                    termScores.replaceAll((id, score) -> score + previousScores.get(id));
+                }
+                scores = termScores;
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> hits.add(new Hit(id, score)));
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::id));
+        return hits;
+    }
+
+    private void removeUnlocked(Long id) {
+        Set<String> terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+
+        for (String term : terms) {
+            PostingList postingList = postings.get(term);
+            postingList.remove(id);
+            if (postingList.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static class PostingList {
+        private long[] ids = new long[4];
+        private int[] weights = new int[4];
+        private int size;
+
+        private void put(long id, int weight) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                weights[position] = weight;
+                return;
+            }
+
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            System.arraycopy(weights, position, weights, position + 1, size - position);
+            ids[position] = id;
+            weights[position] = weight;
+            size++;
+        }
+
+        private void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            System.arraycopy(weights, position + 1, weights, position, size - position - 1);
+            size--;
+        }
+    }
+
+    public record WeightedText(String text, int weight) {
+    }
+
+    public record Hit(Long id, double score) {
+    }
+}
@@ -1,20 +1,35 @@
 package com.example.accommodiq.repositories;
 
 import com.example.accommodiq.domain.Accommodation;
+import com.example.accommodiq.domain.Availability;
 import com.example.accommodiq.domain.Review;
+import com.example.accommodiq.domain.ReviewStats;
 import com.example.accommodiq.enums.AccommodationStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AccommodationRepository extends JpaRepository<Accommodation, Long>, JpaSpecificationExecutor<Accommodation> {
     Collection<Accommodation> findByHostId(Long hostId);
+
+    @Query("SELECT a.id FROM Accommodation a WHERE a.host.id = :hostId ORDER BY a.id")
+    List<Long> findIdsByHostId(@Param("hostId") Long hostId);
+
+    @Query("SELECT a.id FROM Accommodation a WHERE a.id > :afterId ORDER BY a.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     Collection<Accommodation> findAllByStatus(AccommodationStatus accommodationStatus);
     @Transactional
     void deleteAllByHostId(Long accountId);
@@ -23,4 +38,83 @@ public interface AccommodationRepository extends JpaRepository<Accommodation, Lo
     Collection<Accommodation> findAccommodationsContainingReviews(@Param("reviewIds") Collection<Long> reviewIds);
 
     Accommodation findAccommodationByReviewsContaining(Review review);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Accommodation a WHERE a.id = :id")
+    Optional<Accommodation> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Accommodation a WHERE a.id IN :ids ORDER BY a.id")
+    List<Accommodation> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a.id, a.location.latitude, a.location.longitude FROM Accommodation a")
+    List<Object[]> findAllCoordinates();
+
+    @Query("SELECT a.id, a.location.latitude, a.location.longitude FROM Accommodation a WHERE a.id = :id")
+    List<Object[]> findCoordinatesById(@Param("id") Long id);
+
+    @Query("SELECT a.id, a.title, a.description, a.location.address FROM Accommodation a")
+    List<Object[]> findAllSearchableTexts();
+
+    @Query("SELECT a.id, a.title, a.description, a.location.address FROM Accommodation a WHERE a.id = :id")
+    List<Object[]> findSearchableTextsById(@Param("id") Long id);
+
+    @Query("SELECT a.status, COUNT(a) FROM Accommodation a GROUP BY a.status")
+    List<Object[]> countByStatus();
+
+    @Query("SELECT a.id, a.title FROM Accommodation a WHERE a.id IN :ids")
+    List<Object[]> findTitlesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a.id, i FROM Accommodation a JOIN a.images i WHERE a.id IN :ids")
+    List<Object[]> findImagesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT s FROM Accommodation a JOIN a.available s WHERE a.id = :id")
+    List<Availability> findAvailabilitiesById(@Param("id") Long id);
+
+    @Query("SELECT a.id, s.fromDate, s.toDate FROM Accommodation a JOIN a.available s WHERE a.id IN :ids")
+    List<Object[]> findAvailabilityRangesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a.id, s.fromDate, s.toDate FROM Accommodation a JOIN a.available s WHERE a.id IN :ids AND s.toDate > :fromDate AND s.fromDate < :toDate")
+    List<Object[]> findAvailabilityRangesByIdInOverlapping(@Param("ids") Collection<Long> ids, @Param("fromDate") Long fromDate, @Param("toDate") Long toDate);
+
+    @Query("SELECT a.id, b FROM Accommodation a JOIN a.benefits b")
+    List<Object[]> findAllBenefits();
+
+    @Query("SELECT b FROM Accommodation a JOIN a.benefits b WHERE a.id = :id")
+    List<String> findBenefitsById(@Param("id") Long id);
+
+    // review status is stored as its ordinal: ACCEPTED = 0, DECLINED = 1, REPORTED = 2, PENDING = 3
+    String REFRESH_REVIEW_STATS = "UPDATE accommodation o SET " +
+            "review_count = (SELECT COUNT(*) FROM accommodation_reviews jr JOIN review r ON r.id = jr.reviews_id WHERE jr.accommodation_id = o.id), " +
+            "rating_sum = (SELECT COALESCE(SUM(r.rating), 0) FROM accommodation_reviews jr JOIN review r ON r.id = jr.reviews_id WHERE jr.accommodation_id = o.id), " +
+            "accepted_review_count = (SELECT COUNT(*) FROM accommodation_reviews jr JOIN review r ON r.id = jr.reviews_id WHERE jr.accommodation_id = o.id AND r.status = 0), " +
+            "declined_review_count = (SELECT COUNT(*) FROM accommodation_reviews jr JOIN review r ON r.id = jr.reviews_id WHERE jr.accommodation_id = o.id AND r.status = 1), " +
+            "reported_review_count = (SELECT COUNT(*) FROM accommodation_reviews jr JOIN review r ON r.id = jr.reviews_id WHERE jr.accommodation_id = o.id AND r.status = 2), " +
+            "pending_review_count = (SELECT COUNT(*) FROM accommodation_reviews jr JOIN review r ON r.id = jr.reviews_id WHERE jr.accommodation_id = o.id AND r.status = 3), " +
+            "visible_rating_sum = (SELECT COALESCE(SUM(r.rating), 0) FROM accommodation_reviews jr JOIN review r ON r.id = jr.reviews_id WHERE jr.accommodation_id = o.id AND r.status IN (0, 2)), " +
+            "rating_sort_key = (SELECT CASE WHEN COUNT(*) > 0 THEN SUM(r.rating) * 1.0 / COUNT(*) ELSE 0 END FROM accommodation_reviews jr JOIN review r ON r.id = jr.reviews_id WHERE jr.accommodation_id = o.id)";
+
+    @Transactional
+    @Modifying
+    @Query(value = REFRESH_REVIEW_STATS, nativeQuery = true)
+    void refreshReviewStats();
+
+    @Transactional
+    @Modifying
+    @Query(value = REFRESH_REVIEW_STATS + " WHERE o.id = :id", nativeQuery = true)
+    void refreshReviewStatsById(@Param("id") Long id);
+
+    // rating_sort_key comes first because MySQL assigns left to right and would otherwise divide the already updated counts
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE accommodation SET rating_sort_key = CASE WHEN review_count + :#{#delta.reviewCount} > 0 " +
+            "THEN (rating_sum + :#{#delta.ratingSum}) * 1.0 / (review_count + :#{#delta.reviewCount}) ELSE 0 END, " +
+            "review_count = review_count + :#{#delta.reviewCount}, rating_sum = rating_sum + :#{#delta.ratingSum}, " +
+            "accepted_review_count = accepted_review_count + :#{#delta.acceptedReviewCount}, declined_review_count = declined_review_count + :#{#delta.declinedReviewCount}, " +
+            "reported_review_count = reported_review_count + :#{#delta.reportedReviewCount}, pending_review_count = pending_review_count + :#{#delta.pendingReviewCount}, " +
+            "visible_rating_sum = visible_rating_sum + :#{#delta.visibleRatingSum} WHERE id = :id", nativeQuery = true)
+    void addReviewStats(@Param("id") Long id, @Param("delta") ReviewStats delta);
+
+    @Query("SELECT a.id FROM Accommodation a JOIN a.reviews r WHERE r.id = :reviewId")
+    Optional<Long> findIdByReviewId(@Param("reviewId") Long reviewId);
 }
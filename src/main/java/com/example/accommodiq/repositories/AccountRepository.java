@@ -2,11 +2,17 @@ package com.example.accommodiq.repositories;
 
 import com.example.accommodiq.domain.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Account findAccountByEmail(String email);
 
     Account findAccountByUserId(Long userId);
+
+    @Query("SELECT a.status, COUNT(a) FROM Account a GROUP BY a.status")
+    List<Object[]> countByStatus();
 }
@@ -0,0 +1,10 @@
+package com.example.accommodiq.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface DailyRevenuePeriodRepository {
+    // rows of (accommodation id, period index, revenue, reservation count, booked nights) summed over the days in
+    // [boundaries[i], boundaries[i + 1]); periods without rollup rows have no row
+    List<Object[]> sumByPeriod(Collection<Long> accommodationIds, long[] boundaries);
+}
@@ -0,0 +1,34 @@
+package com.example.accommodiq.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.Collection;
+import java.util.List;
+
+// Months have no fixed length in epoch millis, so the period of a day is a CASE over the sorted boundaries.
+// The boundaries are computed longs and inlined as literals, so the grouped expression is identical in SELECT and GROUP BY.
+public class DailyRevenuePeriodRepositoryImpl implements DailyRevenuePeriodRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Object[]> sumByPeriod(Collection<Long> accommodationIds, long[] boundaries) {
+        if (accommodationIds.isEmpty() || boundaries.length < 2) {
+            return List.of();
+        }
+
+        StringBuilder period = new StringBuilder("CASE");
+        for (int i = 1; i < boundaries.length - 1; i++) {
+            period.append(" WHEN d.dayStart < ").append(boundaries[i]).append("L THEN ").append(i - 1);
+        }
+        period.append(" ELSE ").append(boundaries.length - 2).append(" END");
+
+        return entityManager.createQuery("SELECT d.accommodationId, " + period + ", SUM(d.revenue), SUM(d.reservationCount), SUM(d.bookedNights) FROM DailyRevenue d " +
+                        "WHERE d.accommodationId IN :accommodationIds " +
+                        "AND d.dayStart >= " + boundaries[0] + "L AND d.dayStart < " + boundaries[boundaries.length - 1] + "L " +
+                        "GROUP BY d.accommodationId, " + period, Object[].class)
+                .setParameter("accommodationIds", accommodationIds)
+                .getResultList();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.accommodiq.repositories;
+
+import com.example.accommodiq.domain.DailyRevenue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DailyRevenueRepository extends JpaRepository<DailyRevenue, Long>, DailyRevenuePeriodRepository {
+    @Query("SELECT d.accommodationId, SUM(d.revenue), SUM(d.reservationCount), SUM(d.bookedNights) FROM DailyRevenue d " +
+            "WHERE d.accommodationId IN :accommodationIds AND d.dayStart >= :fromDay AND d.dayStart < :toDate " +
+            "GROUP BY d.accommodationId HAVING SUM(d.reservationCount) > 0 OR SUM(d.bookedNights) > 0 ORDER BY d.accommodationId")
+    List<Object[]> sumByAccommodation(@Param("accommodationIds") Collection<Long> accommodationIds, @Param("fromDay") Long fromDay, @Param("toDate") Long toDate);
+
+    @Modifying
+    @Query("DELETE FROM DailyRevenue d WHERE d.accommodationId IN :accommodationIds")
+    int deleteAllByAccommodationIdIn(@Param("accommodationIds") Collection<Long> accommodationIds);
+
+    @Modifying
+    @Query("DELETE FROM DailyRevenue d WHERE d.accommodationId NOT IN (SELECT a.id FROM Accommodation a)")
+    int deleteOrphaned();
+}
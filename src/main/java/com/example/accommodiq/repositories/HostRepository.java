@@ -1,14 +1,56 @@
 package com.example.accommodiq.repositories;
 
 import com.example.accommodiq.domain.Host;
+import com.example.accommodiq.domain.Review;
+import com.example.accommodiq.domain.ReviewStats;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.Optional;
 
 public interface HostRepository extends JpaRepository<Host, Long> {
     @Query(value = "SELECT * FROM user WHERE id IN (SELECT host_id FROM host_reviews WHERE reviews_id IN :reviewIds)", nativeQuery = true)
 
     Collection<Host> findHostsContainingReviews(@Param("reviewIds") Collection<Long> reviewIds);
+
+    Host findHostByReviewsContaining(Review review);
+
+    // review status is stored as its ordinal: ACCEPTED = 0, DECLINED = 1, REPORTED = 2, PENDING = 3
+    String REFRESH_REVIEW_STATS = "UPDATE host o SET " +
+            "review_count = (SELECT COUNT(*) FROM host_reviews jr JOIN review r ON r.id = jr.reviews_id WHERE jr.host_id = o.id), " +
+            "rating_sum = (SELECT COALESCE(SUM(r.rating), 0) FROM host_reviews jr JOIN review r ON r.id = jr.reviews_id WHERE jr.host_id = o.id), " +
+            "accepted_review_count = (SELECT COUNT(*) FROM host_reviews jr JOIN review r ON r.id = jr.reviews_id WHERE jr.host_id = o.id AND r.status = 0), " +
+            "declined_review_count = (SELECT COUNT(*) FROM host_reviews jr JOIN review r ON r.id = jr.reviews_id WHERE jr.host_id = o.id AND r.status = 1), " +
+            "reported_review_count = (SELECT COUNT(*) FROM host_reviews jr JOIN review r ON r.id = jr.reviews_id WHERE jr.host_id = o.id AND r.status = 2), " +
+            "pending_review_count = (SELECT COUNT(*) FROM host_reviews jr JOIN review r ON r.id = jr.reviews_id WHERE jr.host_id = o.id AND r.status = 3), " +
+            "visible_rating_sum = (SELECT COALESCE(SUM(r.rating), 0) FROM host_reviews jr JOIN review r ON r.id = jr.reviews_id WHERE jr.host_id = o.id AND r.status IN (0, 2)), " +
+            "rating_sort_key = (SELECT CASE WHEN COUNT(*) > 0 THEN SUM(r.rating) * 1.0 / COUNT(*) ELSE 0 END FROM host_reviews jr JOIN review r ON r.id = jr.reviews_id WHERE jr.host_id = o.id)";
+
+    @Transactional
+    @Modifying
+    @Query(value = REFRESH_REVIEW_STATS, nativeQuery = true)
+    void refreshReviewStats();
+
+    @Transactional
+    @Modifying
+    @Query(value = REFRESH_REVIEW_STATS + " WHERE o.id = :id", nativeQuery = true)
+    void refreshReviewStatsById(@Param("id") Long id);
+
+    // rating_sort_key comes first because MySQL assigns left to right and would otherwise divide the already updated counts
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE host SET rating_sort_key = CASE WHEN review_count + :#{#delta.reviewCount} > 0 " +
+            "THEN (rating_sum + :#{#delta.ratingSum}) * 1.0 / (review_count + :#{#delta.reviewCount}) ELSE 0 END, " +
+            "review_count = review_count + :#{#delta.reviewCount}, rating_sum = rating_sum + :#{#delta.ratingSum}, " +
+            "accepted_review_count = accepted_review_count + :#{#delta.acceptedReviewCount}, declined_review_count = declined_review_count + :#{#delta.declinedReviewCount}, " +
+            "reported_review_count = reported_review_count + :#{#delta.reportedReviewCount}, pending_review_count = pending_review_count + :#{#delta.pendingReviewCount}, " +
+            "visible_rating_sum = visible_rating_sum + :#{#delta.visibleRatingSum} WHERE id = :id", nativeQuery = true)
+    void addReviewStats(@Param("id") Long id, @Param("delta") ReviewStats delta);
+
+    @Query("SELECT h.id FROM Host h JOIN h.reviews r WHERE r.id = :reviewId")
+    Optional<Long> findIdByReviewId(@Param("reviewId") Long reviewId);
 }
@@ -0,0 +1,45 @@
+package com.example.accommodiq.repositories;
+
+import com.example.accommodiq.domain.ReservationHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReservationHoldRepository extends JpaRepository<ReservationHold, Long> {
+    @Query("SELECT COUNT(h) FROM ReservationHold h WHERE h.accommodation.id = :accommodationId AND h.guest.id <> :guestId AND h.expiresAt > :now " +
+            "AND h.startDate < :endDate AND h.endDate > :startDate")
+    long countActiveOverlappingHoldsOfOthers(@Param("accommodationId") Long accommodationId, @Param("guestId") Long guestId, @Param("startDate") Long startDate,
+                                             @Param("endDate") Long endDate, @Param("now") Long now);
+
+    @Query("SELECT h.id FROM ReservationHold h WHERE h.accommodation.id = :accommodationId AND h.guest.id = :guestId")
+    List<Long> findIdsByAccommodationIdAndGuestId(@Param("accommodationId") Long accommodationId, @Param("guestId") Long guestId);
+
+    @Query("SELECT h.accommodation.id FROM ReservationHold h WHERE h.id = :id AND h.guest.id = :guestId")
+    Optional<Long> findAccommodationIdByIdAndGuestId(@Param("id") Long id, @Param("guestId") Long guestId);
+
+    @Query("SELECT h.id, h.accommodation.id, h.guest.id, h.startDate, h.endDate, h.expiresAt FROM ReservationHold h WHERE h.expiresAt > :now")
+    List<Object[]> findAllActive(@Param("now") Long now);
+
+    @Modifying
+    @Query("DELETE FROM ReservationHold h WHERE h.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM ReservationHold h WHERE h.accommodation.id IN :accommodationIds")
+    int deleteByAccommodationIdIn(@Param("accommodationIds") Collection<Long> accommodationIds);
+
+    @Modifying
+    @Query("DELETE FROM ReservationHold h WHERE h.guest.id = :guestId")
+    int deleteByGuestId(@Param("guestId") Long guestId);
+
+    @Modifying
+    @Query("DELETE FROM ReservationHold h WHERE h.expiresAt <= :now")
+    int deleteExpired(@Param("now") Long now);
+}
@@ -1,10 +1,18 @@
 package com.example.accommodiq.repositories;
 
 import com.example.accommodiq.domain.Reservation;
+import com.example.accommodiq.dtos.HostReservationCardDto;
+import com.example.accommodiq.dtos.ReservationCardDto;
 import com.example.accommodiq.enums.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -55,9 +63,77 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>,
 
     Collection<Reservation> findByGuestIdAndAccommodationIdAndStatusNotInAndEndDateLessThan(Long guestId, Long accommodationId, List<ReservationStatus> list, long currentTime);
 
-    Collection<Reservation> findByAccommodationIdAndStartDateBetweenOrEndDateBetweenAndStatus(Long accommodation_id, Long startDate, Long startDate2, Long endDate, Long endDate2, ReservationStatus status);
-
-    Collection<Reservation> findByAccommodationIdAndStartDateBetweenAndStatus(Long accommodationId, Long startDate1, Long startDate2, ReservationStatus status);
+    // reservations sharing at least one night with the range; touching ranges do not overlap
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id FROM Reservation r WHERE r.accommodation.id = :accommodationId AND r.status = :status AND r.id <> :excludedId " +
+            "AND r.startDate < :endDate AND r.endDate > :startDate")
+    List<Long> findOverlappingIdsForUpdate(@Param("accommodationId") Long accommodationId, @Param("startDate") Long startDate, @Param("endDate") Long endDate,
+                                           @Param("status") ReservationStatus status, @Param("excludedId") Long excludedId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Reservation r SET r.status = :newStatus WHERE r.accommodation.id = :accommodationId AND r.status = :status AND r.id <> :excludedId " +
+            "AND r.startDate < :endDate AND r.endDate > :startDate")
+    int updateOverlappingStatus(@Param("accommodationId") Long accommodationId, @Param("startDate") Long startDate, @Param("endDate") Long endDate,
+                                @Param("status") ReservationStatus status, @Param("excludedId") Long excludedId, @Param("newStatus") ReservationStatus newStatus);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.accommodation.id IN :accommodationIds AND r.status IN :statuses")
+    List<Reservation> findByAccommodationIdInAndStatusInForUpdate(@Param("accommodationIds") Collection<Long> accommodationIds, @Param("statuses") Collection<ReservationStatus> statuses);
+
+    @Query("SELECT DISTINCT r.accommodation.id FROM Reservation r WHERE r.id IN :ids")
+    List<Long> findAccommodationIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.guest WHERE r.id IN :ids")
+    List<Reservation> findWithGuestByIdIn(@Param("ids") Collection<Long> ids);
+
+    // keyset page of stale reservations as (id, guest id); rows locked by a concurrent status change are skipped (lock timeout -2)
+    // and picked up by a later sweep
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r.id, r.guest.id FROM Reservation r WHERE r.status = :status AND r.id > :afterId " +
+            "AND (r.createdAt < :createdBefore OR r.startDate < :startsBefore) ORDER BY r.id")
+    List<Object[]> findStaleIdsForUpdate(@Param("status") ReservationStatus status, @Param("afterId") Long afterId, @Param("createdBefore") Long createdBefore,
+                                         @Param("startsBefore") Long startsBefore, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Reservation r SET r.createdAt = :createdAt WHERE r.createdAt IS NULL AND r.status = :status")
+    int backfillCreatedAt(@Param("status") ReservationStatus status, @Param("createdAt") Long createdAt);
+
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :newStatus WHERE r.id IN :ids AND r.status = :status")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") ReservationStatus status, @Param("newStatus") ReservationStatus newStatus);
+
+    @Query("SELECT new com.example.accommodiq.dtos.ReservationCardDto(r.id, a.id, a.title, a.reviewStats.ratingSum, a.reviewStats.reviewCount, a.location, " +
+            "r.numberOfGuests, r.startDate, r.endDate, r.status, r.totalPrice) " +
+            "FROM Reservation r JOIN r.accommodation a WHERE r.guest.id = :guestId " +
+            "AND (:title IS NULL OR LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%'))) " +
+            "AND (:startDate IS NULL OR :endDate IS NULL OR (r.startDate >= :startDate AND r.endDate <= :endDate)) " +
+            "AND (:status IS NULL OR r.status = :status) ORDER BY r.startDate DESC, r.id DESC")
+    List<ReservationCardDto> findGuestReservationCards(@Param("guestId") Long guestId, @Param("title") String title, @Param("startDate") Long startDate,
+                                                       @Param("endDate") Long endDate, @Param("status") ReservationStatus status, Pageable pageable);
+
+    @Query("SELECT new com.example.accommodiq.dtos.HostReservationCardDto(r.id, a.id, a.title, a.reviewStats.ratingSum, a.reviewStats.reviewCount, a.location, " +
+            "r.numberOfGuests, r.startDate, r.endDate, r.status, r.totalPrice, g.firstName, g.lastName, " +
+            "(SELECT COUNT(c) FROM Reservation c WHERE c.guest = g AND c.status = com.example.accommodiq.enums.ReservationStatus.CANCELLED AND c.accommodation.host.id = :hostId)) " +
+            "FROM Reservation r JOIN r.accommodation a JOIN r.guest g WHERE a.host.id = :hostId " +
+            "AND (:title IS NULL OR LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%'))) " +
+            "AND (:startDate IS NULL OR :endDate IS NULL OR (r.startDate >= :startDate AND r.endDate <= :endDate)) " +
+            "AND (:status IS NULL OR r.status = :status) ORDER BY r.startDate DESC, r.id DESC")
+    List<HostReservationCardDto> findHostReservationCards(@Param("hostId") Long hostId, @Param("title") String title, @Param("startDate") Long startDate,
+                                                          @Param("endDate") Long endDate, @Param("status") ReservationStatus status, Pageable pageable);
+
+    Collection<Reservation> findByAccommodationIdAndStatus(Long accommodationId, ReservationStatus status);
+
+    // rows of (UTC day number, reservations created that day)
+    @Query("SELECT FLOOR(r.createdAt / 86400000), COUNT(r) FROM Reservation r WHERE r.createdAt >= :since GROUP BY FLOOR(r.createdAt / 86400000)")
+    List<Object[]> countCreatedPerDaySince(@Param("since") Long since);
+
+    @Query("SELECT r.accommodation.id, r.startDate, r.endDate, r.totalPrice, r.createdAt FROM Reservation r WHERE r.accommodation.id IN :accommodationIds " +
+            "AND r.status = :status AND r.endDate > :fromDate AND r.startDate < :toDate")
+    List<Object[]> findStaysOverlapping(@Param("accommodationIds") Collection<Long> accommodationIds, @Param("status") ReservationStatus status,
+                                        @Param("fromDate") Long fromDate, @Param("toDate") Long toDate);
+
+    boolean existsByStatus(ReservationStatus status);
 
     void deleteByAccommodation_HostId(Long id);
 }
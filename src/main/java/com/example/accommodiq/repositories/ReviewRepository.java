@@ -2,16 +2,22 @@ package com.example.accommodiq.repositories;
 
 import com.example.accommodiq.domain.Review;
 import com.example.accommodiq.enums.ReviewStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
+    @Query("SELECT r.status, COUNT(r) FROM Review r GROUP BY r.status")
+    List<Object[]> countByStatus();
+
     @Transactional
     void deleteByGuestId(Long id);
 
@@ -27,6 +33,20 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     List<Review> findByGuestId(Long guestId);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Review r WHERE r.id = :id")
+    Optional<Review> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Review r WHERE r.guest.id = :guestId ORDER BY r.id")
+    List<Review> findByGuestIdForUpdate(@Param("guestId") Long guestId);
+
+    // only matches while the review still has the status it was read with
+    @Transactional
+    @Modifying
+    @Query("UPDATE Review r SET r.status = :newStatus WHERE r.id = :id AND r.status = :oldStatus")
+    int updateStatus(@Param("id") Long id, @Param("oldStatus") ReviewStatus oldStatus, @Param("newStatus") ReviewStatus newStatus);
+
     @Query(value = "SELECT * FROM review WHERE guest_id = :guestId AND id IN (SELECT reviews_id FROM host_reviews WHERE host_id = :hostId)", nativeQuery = true)
     Set<Review> findReviewsByGuestIdAndHostId(@Param("guestId") Long guestId, @Param("hostId") Long hostId);
 
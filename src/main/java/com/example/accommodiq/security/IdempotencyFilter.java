@@ -0,0 +1,182 @@
+package com.example.accommodiq.security;
+
+import com.example.accommodiq.utilities.BoundedTtlCache;
+import com.example.accommodiq.utilities.ErrorUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Replays the stored response of a POST retried with the same Idempotency-Key instead of executing it again.
+// Keys are scoped to the caller and the path. A duplicate arriving while the first request still runs waits for its outcome.
+// Only successful responses are kept, with their status, headers and body: a failed attempt changed nothing, so its retry runs again.
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final List<String> IDEMPOTENT_PATHS = List.of("/guests", "/reservations", "/hosts");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final BoundedTtlCache<String, CompletableFuture<StoredResponse>> responses;
+    private final long waitTimeoutMillis;
+
+    @Autowired
+    public IdempotencyFilter(@Value("${idempotency.max-entries:5000}") int maxEntries, @Value("${idempotency.ttl-seconds:3600}") long ttlSeconds,
+                             @Value("${idempotency.wait-timeout-ms:30000}") long waitTimeoutMillis) {
+        this.responses = new BoundedTtlCache<>(maxEntries, ttlSeconds * 1000);
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || IDEMPOTENT_PATHS.stream().noneMatch(prefix -> path.equals(prefix) || path.startsWith(prefix + "/"));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            sendError(response, ErrorUtils.generateBadRequest("invalidIdempotencyKey"));
+            return;
+        }
+
+        String key = getCaller() + " " + request.getRequestURI() + " " + idempotencyKey;
+        while (true) {
+            CompletableFuture<StoredResponse> inFlight = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> existing;
+            synchronized (responses) {
+                existing = responses.get(key);
+                if (existing == null) {
+                    responses.put(key, inFlight);
+                }
+            }
+
+            if (existing == null) {
+                execute(request, response, chain, key, inFlight);
+                return;
+            }
+
+            StoredResponse stored;
+            try {
+                stored = existing.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                sendError(response, ErrorUtils.generateException(HttpStatus.CONFLICT, "idempotentRequestInProgress"));
+                return;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                sendError(response, ErrorUtils.generateException(HttpStatus.CONFLICT, "idempotentRequestInProgress"));
+                return;
+            } catch (ExecutionException ex) {
+                throw new ServletException(ex.getCause());
+            }
+
+            // the first attempt failed and gave the key up, so this request tries to claim it
+            if (stored == null) {
+                continue;
+            }
+
+            if (!Arrays.equals(stored.requestHash(), hash(request.getInputStream().readAllBytes()))) {
+                sendError(response, ErrorUtils.generateException(HttpStatus.UNPROCESSABLE_ENTITY, "idempotencyKeyReused"));
+                return;
+            }
+            replay(stored, response);
+            return;
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain, String key, CompletableFuture<StoredResponse> inFlight)
+            throws ServletException, IOException {
+        ContentCachingRequestWrapper cachingRequest = new ContentCachingRequestWrapper(request);
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        StoredResponse stored = null;
+        try {
+            chain.doFilter(cachingRequest, cachingResponse);
+            if (HttpStatus.valueOf(cachingResponse.getStatus()).is2xxSuccessful()) {
+                stored = new StoredResponse(cachingResponse.getStatus(), cachingResponse.getContentType(), headersOf(cachingResponse),
+                        cachingResponse.getContentAsByteArray(), hash(cachingRequest.getContentAsByteArray()));
+            }
+        } finally {
+            if (stored == null) {
+                synchronized (responses) {
+                    responses.remove(key);
+                }
+            }
+            inFlight.complete(stored);
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    // the body's type and length are kept apart, since the length is set from the stored body on replay
+    private static Map<String, List<String>> headersOf(HttpServletResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name) && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                headers.put(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+
+    // headers written by filters that already ran for this request are replaced rather than repeated
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        stored.headers().forEach((name, values) -> {
+            response.setHeader(name, values.get(0));
+            values.stream().skip(1).forEach(value -> response.addHeader(name, value));
+        });
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static void sendError(HttpServletResponse response, ResponseStatusException ex) throws IOException {
+        response.sendError(ex.getStatusCode().value(), ex.getReason());
+    }
+
+    private static String getCaller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return (authentication != null && authentication.isAuthenticated()) ? authentication.getName() : "anonymous";
+    }
+
+    private static byte[] hash(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private record StoredResponse(int status, String contentType, Map<String, List<String>> headers, byte[] body, byte[] requestHash) {
+    }
+}
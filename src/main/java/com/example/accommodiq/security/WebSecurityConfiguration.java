@@ -24,17 +24,19 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableMethodSecurity(securedEnabled = true, jsr250Enabled = true)
 public class WebSecurityConfiguration {
     private final JwtRequestFilter jwtRequestFilter;
+    private final IdempotencyFilter idempotencyFilter;
 
     @Autowired
-    public WebSecurityConfiguration(JwtRequestFilter jwtRequestFilter) {
+    public WebSecurityConfiguration(JwtRequestFilter jwtRequestFilter, IdempotencyFilter idempotencyFilter) {
         this.jwtRequestFilter = jwtRequestFilter;
+        this.idempotencyFilter = idempotencyFilter;
     }
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(requests -> requests
-                        .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
+                        .dispatcherTypeMatchers(DispatcherType.ERROR, DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/accommodations/**").permitAll()
                         .requestMatchers("/sessions").permitAll()
                         .requestMatchers("/v3/api-docs").permitAll()
@@ -52,6 +54,7 @@ public class WebSecurityConfiguration {
                 .exceptionHandling((exception) -> exception.authenticationEntryPoint(new Http403ForbiddenEntryPoint()))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
         http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(idempotencyFilter, JwtRequestFilter.class);
 
         return http.build();
     }
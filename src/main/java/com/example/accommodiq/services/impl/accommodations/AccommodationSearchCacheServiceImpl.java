@@ -0,0 +1,105 @@
+package com.example.accommodiq.services.impl.accommodations;
+
+import com.example.accommodiq.dtos.AccommodationCardDto;
+import com.example.accommodiq.dtos.SearchCacheStatsDto;
+import com.example.accommodiq.enums.AccommodationChangeType;
+import com.example.accommodiq.events.AccommodationChangedEvent;
+import com.example.accommodiq.services.interfaces.accommodations.IAccommodationSearchCacheService;
+import com.example.accommodiq.utilities.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+@Service
+public class AccommodationSearchCacheServiceImpl implements IAccommodationSearchCacheService {
+    // changes that can only drop the accommodation from results or change its own card; anything else may add it to other results
+    private static final Set<AccommodationChangeType> LOCAL_CHANGES = EnumSet.of(
+            AccommodationChangeType.CREATED, AccommodationChangeType.REVIEWED, AccommodationChangeType.RESERVATION_ACCEPTED, AccommodationChangeType.DELETED);
+
+    private final BoundedTtlCache<SearchKey, Collection<AccommodationCardDto>> cache;
+    private final Map<Long, Set<SearchKey>> keysByAccommodation = new HashMap<>();
+    private long generation;
+
+    @Autowired
+    public AccommodationSearchCacheServiceImpl(@Value("${accommodation.search-cache.max-entries:500}") int maxEntries, @Value("${accommodation.search-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = new BoundedTtlCache<>(maxEntries, ttlSeconds * 1000, this::unindex);
+    }
+
+    @Override
+    public Collection<AccommodationCardDto> getOrLoad(String title, String location, Long availableFrom, Long availableTo, Integer priceFrom, Integer priceTo, Integer guests, String type, Set<String> benefits,
+                                                      Supplier<Collection<AccommodationCardDto>> loader) {
+        SearchKey key = new SearchKey(lowerCase(title), lowerCase(location), availableFrom, availableTo, priceFrom, priceTo, guests, lowerCase(type), (benefits != null) ? new TreeSet<>(benefits) : null);
+
+        long loadedAtGeneration;
+        synchronized (this) {
+            Collection<AccommodationCardDto> cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            loadedAtGeneration = generation;
+        }
+
+        Collection<AccommodationCardDto> result = loader.get();
+
+        synchronized (this) {
+            // something was invalidated while loading, so the result may already be stale
+            if (loadedAtGeneration == generation) {
+                cache.put(key, result);
+                result.forEach(card -> keysByAccommodation.computeIfAbsent(card.getId(), id -> new HashSet<>()).add(key));
+            }
+        }
+
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccommodationChanged(AccommodationChangedEvent event) {
+        if (LOCAL_CHANGES.contains(event.getChangeType())) {
+            evict(event.getAccommodationId());
+        } else {
+            evictAll();
+        }
+    }
+
+    @Override
+    public synchronized void evict(Long accommodationId) {
+        generation++;
+        Set<SearchKey> keys = keysByAccommodation.get(accommodationId);
+        if (keys != null) {
+            new ArrayList<>(keys).forEach(cache::remove);
+        }
+    }
+
+    @Override
+    public synchronized void evictAll() {
+        generation++;
+        cache.clear();
+    }
+
+    @Override
+    public SearchCacheStatsDto getStats() {
+        return new SearchCacheStatsDto(cache.getHits(), cache.getMisses(), cache.getEvictions(), cache.size(), cache.getMaxEntries());
+    }
+
+    // called by the cache while this service holds its own lock
+    private void unindex(SearchKey key, Collection<AccommodationCardDto> result) {
+        for (AccommodationCardDto card : result) {
+            Set<SearchKey> keys = keysByAccommodation.get(card.getId());
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByAccommodation.remove(card.getId());
+            }
+        }
+    }
+
+    private static String lowerCase(String value) {
+        return (value != null) ? value.toLowerCase() : null;
+    }
+
+    // title, location and type are matched case-insensitively by the search, benefits are not
+    private record SearchKey(String title, String location, Long availableFrom, Long availableTo, Integer priceFrom, Integer priceTo, Integer guests, String type, SortedSet<String> benefits) {
+    }
+}
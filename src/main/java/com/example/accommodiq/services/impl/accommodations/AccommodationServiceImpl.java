@@ -3,10 +3,26 @@ package com.example.accommodiq.services.impl.accommodations;
 import com.example.accommodiq.domain.*;
 import com.example.accommodiq.dtos.*;
 import com.example.accommodiq.enums.*;
+import com.example.accommodiq.events.AccommodationChangedEvent;
+import com.example.accommodiq.events.StatusChangedEvent;
+import com.example.accommodiq.indexes.AvailabilityIndex;
+import com.example.accommodiq.indexes.BenefitIndex;
+import com.example.accommodiq.indexes.GeoGridIndex;
+import com.example.accommodiq.indexes.TextIndex;
 import com.example.accommodiq.repositories.AccommodationRepository;
+import com.example.accommodiq.repositories.DailyRevenueRepository;
 import com.example.accommodiq.repositories.ReservationRepository;
 import com.example.accommodiq.repositories.ReviewRepository;
+import com.example.accommodiq.services.interfaces.accommodations.IAccommodationSearchCacheService;
 import com.example.accommodiq.services.interfaces.accommodations.IAccommodationService;
+import com.example.accommodiq.services.interfaces.accommodations.IAvailabilityIndexService;
+import com.example.accommodiq.services.interfaces.accommodations.IBenefitIndexService;
+import com.example.accommodiq.services.interfaces.accommodations.IBookingLockService;
+import com.example.accommodiq.services.interfaces.accommodations.IGeoIndexService;
+import com.example.accommodiq.services.interfaces.accommodations.IReservationHoldService;
+import com.example.accommodiq.services.interfaces.accommodations.IRevenueRollupService;
+import com.example.accommodiq.services.interfaces.accommodations.ITextIndexService;
+import com.example.accommodiq.services.interfaces.feedback.IReviewService;
 import com.example.accommodiq.services.interfaces.notifications.INotificationService;
 import com.example.accommodiq.services.interfaces.users.IAccountService;
 import com.example.accommodiq.services.interfaces.users.IGuestService;
@@ -15,7 +31,10 @@ import com.example.accommodiq.utilities.ErrorUtils;
 import jakarta.persistence.EntityNotFoundException;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -24,8 +43,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
 
 import static com.example.accommodiq.utilities.ErrorUtils.generateBadRequest;
 import static com.example.accommodiq.utilities.ErrorUtils.generateNotFound;
@@ -34,21 +59,49 @@ import static com.example.accommodiq.utilities.ErrorUtils.generateNotFound;
 @Service
 public class AccommodationServiceImpl implements IAccommodationService {
     private final static int DEFAULT_CANCELLATION_DEADLINE_VALUE_DAYS = 1;
+    private final static int MAP_SEARCH_BATCH_SIZE = 500;
+    private final static int INDEX_MATCHES_MAX_IN_LIST = 1000;
+    private final static int MAX_REPORT_MONTHS = 120;
     AccommodationRepository accommodationRepository;
     ReservationRepository reservationRepository;
+    DailyRevenueRepository dailyRevenueRepository;
     IGuestService guestService;
     IAccountService accountService;
     ReviewRepository reviewRepository;
     INotificationService notificationService;
+    IAvailabilityIndexService availabilityIndexService;
+    IReviewService reviewService;
+    IAccommodationSearchCacheService searchCacheService;
+    IGeoIndexService geoIndexService;
+    ITextIndexService textIndexService;
+    IBenefitIndexService benefitIndexService;
+    IReservationHoldService reservationHoldService;
+    IRevenueRollupService revenueRollupService;
+    IBookingLockService bookingLockService;
+    ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public AccommodationServiceImpl(AccommodationRepository accommodationRepository, ReservationRepository reservationRepository, IGuestService guestService, IAccountService accountService, ReviewRepository reviewRepository, INotificationService notificationService) {
+    public AccommodationServiceImpl(AccommodationRepository accommodationRepository, ReservationRepository reservationRepository, DailyRevenueRepository dailyRevenueRepository, IGuestService guestService, IAccountService accountService, ReviewRepository reviewRepository, INotificationService notificationService,
+                                    IAvailabilityIndexService availabilityIndexService, IReviewService reviewService, IAccommodationSearchCacheService searchCacheService, IGeoIndexService geoIndexService,
+                                    ITextIndexService textIndexService, IBenefitIndexService benefitIndexService, IReservationHoldService reservationHoldService,
+                                    IRevenueRollupService revenueRollupService, IBookingLockService bookingLockService, ApplicationEventPublisher eventPublisher) {
         this.accommodationRepository = accommodationRepository;
         this.reservationRepository = reservationRepository;
+        this.dailyRevenueRepository = dailyRevenueRepository;
         this.guestService = guestService;
         this.accountService = accountService;
         this.reviewRepository = reviewRepository;
         this.notificationService = notificationService;
+        this.availabilityIndexService = availabilityIndexService;
+        this.reviewService = reviewService;
+        this.searchCacheService = searchCacheService;
+        this.geoIndexService = geoIndexService;
+        this.textIndexService = textIndexService;
+        this.benefitIndexService = benefitIndexService;
+        this.reservationHoldService = reservationHoldService;
+        this.revenueRollupService = revenueRollupService;
+        this.bookingLockService = bookingLockService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -60,6 +113,8 @@ public class AccommodationServiceImpl implements IAccommodationService {
         try {
             accommodationRepository.save(accommodation);
             accommodationRepository.flush();
+            eventPublisher.publishEvent(new AccommodationChangedEvent(accommodation.getId(), AccommodationChangeType.CREATED));
+            eventPublisher.publishEvent(new StatusChangedEvent(null, AccommodationStatus.PENDING));
             return accommodation;
         } catch (ConstraintViolationException ex) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Validation error: " + ex.getMessage());
@@ -83,52 +138,325 @@ public class AccommodationServiceImpl implements IAccommodationService {
     @Override
     @Transactional
     public Collection<AccommodationCardDto> findByFilter(String title, String location, Long availableFrom, Long availableTo, Integer priceFrom, Integer priceTo, Integer guests, String type, Set<String> benefits) {
-        List<Accommodation> searchedAccommodations = accommodationRepository.findAll(AccommodationSpecification.searchAndFilter(title, location, guests, type, benefits)).stream().filter(accommodation -> !accommodation.getAvailable().isEmpty()).toList();
-        boolean dateRangeSpecified = availableFrom != null && availableTo != null;
-        boolean priceRangeSpecified = priceFrom != null && priceTo != null;
+        validateSearchFilter(availableFrom, availableTo, priceFrom, priceTo);
+
+        return searchCacheService.getOrLoad(title, location, availableFrom, availableTo, priceFrom, priceTo, guests, type, benefits, () -> {
+            Map<Long, Double> indexMatches = findIndexMatches(title, location, benefits);
+            if (indexMatches != null && indexMatches.isEmpty()) {
+                return List.of();
+            }
+
+            Specification<Accommodation> specification = withIndexMatches(AccommodationSpecification.searchAndFilter(availableFrom, availableTo, guests, type), indexMatches);
+            Comparator<Accommodation> relevance = (indexMatches == null) ? (first, second) -> 0 : Comparator.comparingDouble(accommodation -> -indexMatches.get(accommodation.getId()));
+            return accommodationRepository.findAll(specification).stream()
+                    .filter(accommodation -> matchesIndexes(accommodation, indexMatches) && isInPriceRange(accommodation, availableFrom, availableTo, priceFrom, priceTo, guests))
+                    .sorted(relevance)
+                    .map(accommodation -> toCard(accommodation, availableFrom, availableTo, guests))
+                    .toList();
+        });
+    }
+
+    @Override
+    public AccommodationCardPageDto searchAccommodations(String title, String location, Long availableFrom, Long availableTo, Integer priceFrom, Integer priceTo, Integer guests, String type, Set<String> benefits,
+                                                         AccommodationSortType sort, String cursor, int size) {
+        validateSearchFilter(availableFrom, availableTo, priceFrom, priceTo);
+
+        SortKey after = (cursor != null) ? decodeCursor(cursor, sort) : null;
+        Map<Long, Double> indexMatches = findIndexMatches(title, location, benefits);
+        if (indexMatches != null && indexMatches.isEmpty()) {
+            return new AccommodationCardPageDto(List.of(), null);
+        }
+
+        Specification<Accommodation> specification = withIndexMatches(AccommodationSpecification.searchAndFilter(availableFrom, availableTo, guests, type), indexMatches);
+        Predicate<Accommodation> filter = accommodation -> matchesIndexes(accommodation, indexMatches) && isInPriceRange(accommodation, availableFrom, availableTo, priceFrom, priceTo, guests);
+
+        // one extra row tells whether there is a next page
+        List<SortKey> page = switch (sort) {
+            case NEWEST -> findNewest(specification, after, filter, size + 1);
+            case RATING_DESC -> findTopRated(specification, after, filter, size + 1);
+            default -> findTopBySortKey(specification, after, filter, sort, indexMatches, availableFrom, availableTo, guests, size + 1);
+        };
+
+        String nextCursor = null;
+        if (page.size() > size) {
+            page = page.subList(0, size);
+            nextCursor = encodeCursor(sort, page.get(size - 1));
+        }
+
+        return new AccommodationCardPageDto(page.stream().map(key -> toCard(key.accommodation(), availableFrom, availableTo, guests)).toList(), nextCursor);
+    }
+
+    @Override
+    public List<AccommodationMapCardDto> findOnMap(Double latitude, Double longitude, Double radiusKm, Double minLatitude, Double minLongitude, Double maxLatitude, Double maxLongitude,
+                                                   String title, String location, Long availableFrom, Long availableTo, Integer priceFrom, Integer priceTo, Integer guests, String type, Set<String> benefits, int size) {
+        validateSearchFilter(availableFrom, availableTo, priceFrom, priceTo);
+        List<GeoGridIndex.Hit> hits;
+        if (latitude != null && longitude != null && radiusKm != null) {
+            if (!isLatitude(latitude) || !isLongitude(longitude) || radiusKm <= 0) {
+                throw generateBadRequest("invalidGeoQuery");
+            }
+            hits = geoIndexService.findWithinRadius(latitude, longitude, radiusKm);
+        } else if (minLatitude != null && minLongitude != null && maxLatitude != null && maxLongitude != null) {
+            if (!isLatitude(minLatitude) || !isLatitude(maxLatitude) || !isLongitude(minLongitude) || !isLongitude(maxLongitude) || minLatitude > maxLatitude) {
+                throw generateBadRequest("invalidGeoQuery");
+            }
+            hits = geoIndexService.findWithinBox(minLatitude, minLongitude, maxLatitude, maxLongitude);
+        } else {
+            throw generateBadRequest("invalidGeoQuery");
+        }
+
+        Map<Long, Double> indexMatches = findIndexMatches(title, location, benefits);
+        if (indexMatches != null) {
+            hits = hits.stream().filter(hit -> indexMatches.containsKey(hit.id())).toList();
+        }
+
+        // hits are ordered by distance, so the remaining filters run on batches of the nearest candidates until the page is full
+        Specification<Accommodation> specification = AccommodationSpecification.searchAndFilter(availableFrom, availableTo, guests, type);
+        List<AccommodationMapCardDto> cards = new ArrayList<>();
+        for (int from = 0; from < hits.size() && cards.size() < size; from += MAP_SEARCH_BATCH_SIZE) {
+            List<GeoGridIndex.Hit> batch = hits.subList(from, Math.min(from + MAP_SEARCH_BATCH_SIZE, hits.size()));
+            Map<Long, Accommodation> matches = new HashMap<>();
+            accommodationRepository.findAll(specification.and(AccommodationSpecification.idIn(batch.stream().map(GeoGridIndex.Hit::id).toList())))
+                    .forEach(accommodation -> matches.put(accommodation.getId(), accommodation));
+
+            for (GeoGridIndex.Hit hit : batch) {
+                Accommodation accommodation = matches.get(hit.id());
+                if (accommodation != null && cards.size() < size && isInPriceRange(accommodation, availableFrom, availableTo, priceFrom, priceTo, guests)) {
+                    cards.add((availableFrom != null && availableTo != null)
+                            ? new AccommodationMapCardDto(accommodation, availableFrom, availableTo, guests, hit.distanceKm())
+                            : new AccommodationMapCardDto(accommodation, hit.distanceKm()));
+                }
+            }
+        }
+
+        return cards;
+    }
+
+    @Override
+    public AccommodationFacetsDto findFacets(String title, String location, Long availableFrom, Long availableTo, Integer priceFrom, Integer priceTo, Integer guests, String type, Set<String> benefits) {
+        validateSearchFilter(availableFrom, availableTo, priceFrom, priceTo);
+        Map<Long, Double> indexMatches = findIndexMatches(title, location, benefits);
+        if (indexMatches != null && indexMatches.isEmpty()) {
+            return new AccommodationFacetsDto(0, Map.of(), Map.of());
+        }
+
+        Specification<Accommodation> specification = withIndexMatches(AccommodationSpecification.searchAndFilter(availableFrom, availableTo, guests, type), indexMatches);
+        BenefitIndex.Counter benefitCounter = benefitIndexService.benefitCounter();
+        Map<String, Long> types = new TreeMap<>();
+        long total = 0;
+        for (Accommodation accommodation : accommodationRepository.findAll(specification)) {
+            if (matchesIndexes(accommodation, indexMatches) && isInPriceRange(accommodation, availableFrom, availableTo, priceFrom, priceTo, guests)) {
+                total++;
+                benefitCounter.add(accommodation.getId());
+                if (accommodation.getType() != null) {
+                    types.merge(accommodation.getType(), 1L, Long::sum);
+                }
+            }
+        }
+
+        return new AccommodationFacetsDto(total, benefitCounter.toMap(), types);
+    }
+
+    private static boolean isLatitude(double latitude) {
+        return latitude >= -90 && latitude <= 90;
+    }
+
+    private static boolean isLongitude(double longitude) {
+        return longitude >= -180 && longitude <= 180;
+    }
+
+    // title is matched against title and description, location against the address, benefits against the benefit bitsets;
+    // maps matching ids to their text relevance, null when none of them narrows the search
+    private Map<Long, Double> findIndexMatches(String title, String location, Set<String> benefits) {
+        Map<Long, Double> matches = null;
+        if (!TextIndex.tokenize(title).isEmpty()) {
+            matches = addScores(textIndexService.searchContent(title), null);
+        }
+        if (!TextIndex.tokenize(location).isEmpty()) {
+            matches = addScores(textIndexService.searchAddress(location), matches);
+        }
+        if (benefits != null && !benefits.isEmpty()) {
+            Set<Long> withBenefits = benefitIndexService.findWithAllBenefits(benefits);
+            if (matches == null) {
+                matches = new HashMap<>();
+                for (Long id : withBenefits) {
+                    matches.put(id, 0.0);
+                }
+            } else {
+                matches.keySet().retainAll(withBenefits);
+            }
+        }
+        return matches;
+    }
+
+    private static Map<Long, Double> addScores(List<TextIndex.Hit> hits, Map<Long, Double> matches) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (TextIndex.Hit hit : hits) {
+            if (matches == null) {
+                scores.put(hit.id(), hit.score());
+            } else if (matches.containsKey(hit.id())) {
+                scores.put(hit.id(), hit.score() + matches.get(hit.id()));
+            }
+        }
+        return scores;
+    }
+
+    // small match sets are pushed into the query, larger ones are only checked in memory
+    private static Specification<Accommodation> withIndexMatches(Specification<Accommodation> specification, Map<Long, Double> indexMatches) {
+        return (indexMatches == null || indexMatches.size() > INDEX_MATCHES_MAX_IN_LIST) ? specification : specification.and(AccommodationSpecification.idIn(indexMatches.keySet()));
+    }
+
+    private static boolean matchesIndexes(Accommodation accommodation, Map<Long, Double> indexMatches) {
+        return indexMatches == null || indexMatches.containsKey(accommodation.getId());
+    }
+
+    private List<SortKey> findNewest(Specification<Accommodation> specification, SortKey after, Predicate<Accommodation> filter, int limit) {
+        List<SortKey> page = new ArrayList<>();
+        Long beforeId = (after != null) ? after.id() : null;
+
+        // the price and index filters are applied in memory, so keep reading keyset batches until the page is full
+        while (page.size() < limit) {
+            Specification<Accommodation> batchSpecification = (beforeId != null) ? specification.and(AccommodationSpecification.idLessThan(beforeId)) : specification;
+            List<Accommodation> batch = accommodationRepository.findBy(batchSpecification, query -> query.sortBy(Sort.by(Sort.Direction.DESC, "id")).limit(limit).all());
+
+            for (Accommodation accommodation : batch) {
+                if (page.size() < limit && filter.test(accommodation)) {
+                    page.add(new SortKey(accommodation, accommodation.getId(), accommodation.getId()));
+                }
+            }
+
+            if (batch.size() < limit) {
+                break;
+            }
+            beforeId = batch.get(batch.size() - 1).getId();
+        }
+
+        return page;
+    }
+
+    // same batching as findNewest, with the database ordering by the rating sort key stored with the review stats
+    private List<SortKey> findTopRated(Specification<Accommodation> specification, SortKey after, Predicate<Accommodation> filter, int limit) {
+        List<SortKey> page = new ArrayList<>();
+        SortKey last = after;
+
+        while (page.size() < limit) {
+            Specification<Accommodation> batchSpecification = specification.and(AccommodationSpecification.orderByRatingDesc());
+            if (last != null) {
+                batchSpecification = batchSpecification.and(AccommodationSpecification.ratedAfter(last.value(), last.id()));
+            }
+            List<Accommodation> batch = accommodationRepository.findBy(batchSpecification, query -> query.limit(limit).all());
+
+            for (Accommodation accommodation : batch) {
+                if (page.size() < limit && filter.test(accommodation)) {
+                    page.add(new SortKey(accommodation, accommodation.getReviewStats().getRatingSortKey(), accommodation.getId()));
+                }
+            }
+
+            if (batch.size() < limit) {
+                break;
+            }
+            Accommodation lastInBatch = batch.get(batch.size() - 1);
+            last = new SortKey(lastInBatch, lastInBatch.getReviewStats().getRatingSortKey(), lastInBatch.getId());
+        }
+
+        return page;
+    }
+
+    private List<SortKey> findTopBySortKey(Specification<Accommodation> specification, SortKey after, Predicate<Accommodation> filter, AccommodationSortType sort, Map<Long, Double> indexMatches,
+                                           Long availableFrom, Long availableTo, Integer guests, int limit) {
+        Comparator<SortKey> order = sortOrder(sort);
+        PriorityQueue<SortKey> worstFirst = new PriorityQueue<>(limit + 1, order.reversed());
+
+        for (Accommodation accommodation : accommodationRepository.findAll(specification)) {
+            if (!filter.test(accommodation)) {
+                continue;
+            }
+
+            double value = switch (sort) {
+                case RELEVANCE -> (indexMatches != null) ? indexMatches.get(accommodation.getId()) : 0;
+                default -> priceOf(accommodation, availableFrom, availableTo, guests);
+            };
+            SortKey key = new SortKey(accommodation, value, accommodation.getId());
+            if (after != null && order.compare(key, after) <= 0) {
+                continue;
+            }
+
+            worstFirst.add(key);
+            if (worstFirst.size() > limit) {
+                worstFirst.poll();
+            }
+        }
+
+        List<SortKey> page = new ArrayList<>(worstFirst);
+        page.sort(order);
+        return page;
+    }
+
+    private static Comparator<SortKey> sortOrder(AccommodationSortType sort) {
+        Comparator<SortKey> byValue = Comparator.comparingDouble(SortKey::value);
+        if (sort != AccommodationSortType.PRICE_ASC) {
+            byValue = byValue.reversed();
+        }
+        return byValue.thenComparingLong(SortKey::id);
+    }
+
+    private static String encodeCursor(AccommodationSortType sort, SortKey last) {
+        String cursor = sort.name() + ":" + last.value() + ":" + last.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SortKey decodeCursor(String cursor, AccommodationSortType sort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3 || !parts[0].equals(sort.name())) {
+                throw generateBadRequest("invalidCursor");
+            }
+            return new SortKey(null, Double.parseDouble(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException ex) {
+            throw generateBadRequest("invalidCursor");
+        }
+    }
 
-        if (dateRangeSpecified && (availableFrom >= availableTo || availableFrom <= Instant.now().toEpochMilli())) {
+    private static void validateSearchFilter(Long availableFrom, Long availableTo, Integer priceFrom, Integer priceTo) {
+        if (availableFrom != null && availableTo != null && (availableFrom >= availableTo || availableFrom <= Instant.now().toEpochMilli())) {
             throw ErrorUtils.generateException(HttpStatus.BAD_REQUEST, "invalidDateRange");
         }
 
-        if (priceRangeSpecified && (priceFrom > priceTo || priceFrom < 0)) {
+        if (priceFrom != null && priceTo != null && (priceFrom > priceTo || priceFrom < 0)) {
             throw ErrorUtils.generateException(HttpStatus.BAD_REQUEST, "invalidPriceRange");
         }
+    }
 
-        if (dateRangeSpecified) {
-            searchedAccommodations = searchedAccommodations.stream().filter(accommodation -> accommodation.isAvailable(availableFrom, availableTo)).toList();
+    private static boolean isInPriceRange(Accommodation accommodation, Long availableFrom, Long availableTo, Integer priceFrom, Integer priceTo, Integer guests) {
+        if (priceFrom == null || priceTo == null) {
+            return true;
         }
 
-        List<AccommodationCardDto> accommodations;
-        if (!dateRangeSpecified && priceRangeSpecified) {
-            accommodations = searchedAccommodations.stream()
-                    .map(AccommodationCardDto::new)
-                    .filter(accommodationListDto -> accommodationListDto.getMinPrice() != 0 && accommodationListDto.getMinPrice() >= priceFrom && accommodationListDto.getMinPrice() <= priceTo)
-                    .toList();
-        } else if (dateRangeSpecified && priceRangeSpecified) {
-            accommodations = searchedAccommodations.stream()
-                    .map(accommodation -> new AccommodationCardDto(accommodation, availableFrom, availableTo, guests))
-                    .filter(accommodationListDto -> accommodationListDto.getTotalPrice() >= priceFrom && accommodationListDto.getTotalPrice() <= priceTo)
-                    .toList();
-        } else if (dateRangeSpecified) {
-            accommodations = searchedAccommodations.stream()
-                    .map(accommodation -> new AccommodationCardDto(accommodation, availableFrom, availableTo, guests))
-                    .toList();
-        } else {
-            accommodations = searchedAccommodations.stream()
-                    .map(AccommodationCardDto::new)
-                    .toList();
-        }
+        double price = priceOf(accommodation, availableFrom, availableTo, guests);
+        boolean dateRangeSpecified = availableFrom != null && availableTo != null;
+        return (dateRangeSpecified || price != 0) && price >= priceFrom && price <= priceTo;
+    }
 
-        return accommodations;
+    private static double priceOf(Accommodation accommodation, Long availableFrom, Long availableTo, Integer guests) {
+        return (availableFrom != null && availableTo != null) ? accommodation.getTotalPrice(availableFrom, availableTo, guests) : accommodation.getMinPrice();
+    }
+
+    private static AccommodationCardDto toCard(Accommodation accommodation, Long availableFrom, Long availableTo, Integer guests) {
+        return (availableFrom != null && availableTo != null) ? new AccommodationCardDto(accommodation, availableFrom, availableTo, guests) : new AccommodationCardDto(accommodation);
+    }
+
+    private record SortKey(Accommodation accommodation, double value, long id) {
     }
 
     @Override
     @Transactional
     public AccommodationCardWithStatusDto changeAccommodationStatus(Long accommodationId, AccommodationStatusDto statusDto) {
         Accommodation accommodation = findAccommodation(accommodationId);
+        AccommodationStatus oldStatus = accommodation.getStatus();
         accommodation.setStatus(statusDto.getStatus());
         update(accommodation);
+        eventPublisher.publishEvent(new AccommodationChangedEvent(accommodationId, AccommodationChangeType.STATUS_CHANGED));
+        eventPublisher.publishEvent(new StatusChangedEvent(oldStatus, statusDto.getStatus()));
         return new AccommodationCardWithStatusDto(accommodation);
     }
 
@@ -160,6 +488,7 @@ public class AccommodationServiceImpl implements IAccommodationService {
         Accommodation accommodation = findAccommodation(updateDto.getId());
         accommodation.applyChanges(updateDto);
         update(accommodation);
+        eventPublisher.publishEvent(new AccommodationChangedEvent(accommodation.getId(), AccommodationChangeType.UPDATED));
         return new AccommodationCardDto(accommodation);
     }
 
@@ -169,16 +498,15 @@ public class AccommodationServiceImpl implements IAccommodationService {
         Accommodation accommodation = findAccommodation(accommodationId);
         Availability newAvailability = new Availability(availabilityDto);
 
-        for (Availability existingAvailability : accommodation.getAvailable()) {
-            if (isOverlapping(existingAvailability, newAvailability)) {
-                return ResponseEntity
-                        .status(HttpStatus.CONFLICT)
-                        .build();
-            }
+        if (accommodation.getAvailabilityIndex().overlapsSlot(newAvailability.getFromDate(), newAvailability.getToDate())) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .build();
         }
 
-        accommodation.getAvailable().add(newAvailability);
+        accommodation.addAvailability(newAvailability);
         Accommodation updatedAccommodation = update(accommodation);
+        eventPublisher.publishEvent(new AccommodationChangedEvent(accommodationId, AccommodationChangeType.AVAILABILITY_CHANGED));
 
         return ResponseEntity
                 .ok(updatedAccommodation.getAvailable().stream().toList());
@@ -191,26 +519,32 @@ public class AccommodationServiceImpl implements IAccommodationService {
         accommodation.setCancellationDeadline(accommodationBookingDetailsDto.getCancellationDeadline());
         accommodation.setPricingType(accommodationBookingDetailsDto.getPricingType());
         Accommodation updatedAccommodation = update(accommodation);
+        eventPublisher.publishEvent(new AccommodationChangedEvent(accommodationId, AccommodationChangeType.UPDATED));
         return ResponseEntity.ok(new AccommodationBookingDetailsDto(updatedAccommodation));
     }
 
+    // runs under the booking lock like accepting a reservation, so no stay can be accepted between the check and the removal
     @Override
-    @Transactional
     public MessageDto removeAccommodationAvailability(Long accommodationId, Long availabilityId) {
-        Accommodation accommodation = findAccommodation(accommodationId);
-        Optional<Availability> availability = accommodation.getAvailable().stream().filter(a -> a.getId().equals(availabilityId)).findFirst();
-        if (availability.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Availability not found");
-        }
+        bookingLockService.executeLocked(accommodationId, () -> {
+            Accommodation accommodation = accommodationRepository.findByIdForUpdate(accommodationId)
+                    .orElseThrow(() -> generateNotFound("accommodationNotFound"));
+            Optional<Availability> availability = accommodation.getAvailable().stream().filter(a -> a.getId().equals(availabilityId)).findFirst();
+            if (availability.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Availability not found");
+            }
 
-        Availability availabilityToRemove = availability.get();
+            Availability availabilityToRemove = availability.get();
 
-        if (hasActiveReservations(accommodation, availabilityToRemove)) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot remove availability as there are active reservations in this period.");
-        }
+            if (hasActiveReservations(accommodation, availabilityToRemove)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot remove availability as there are active reservations in this period.");
+            }
 
-        accommodation.getAvailable().remove(availability.get());
-        update(accommodation);
+            accommodation.removeAvailability(availabilityToRemove);
+            update(accommodation);
+            eventPublisher.publishEvent(new AccommodationChangedEvent(accommodationId, AccommodationChangeType.AVAILABILITY_CHANGED));
+            return null;
+        });
 
         return new MessageDto("Availability removed");
     }
@@ -224,28 +558,75 @@ public class AccommodationServiceImpl implements IAccommodationService {
             throw ErrorUtils.generateException(HttpStatus.FORBIDDEN, "hostNotOwner");
         }
 
-        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
-        calendar.clear();
-        calendar.set(year, Calendar.JANUARY, 1, 0, 0, 0);
+        return getMonthlyRevenues(List.of(accommodationId), YearMonth.of(year, 1), YearMonth.of(year, 12)).get(accommodationId);
+    }
+
+    @Override
+    public List<AccommodationMonthlyRevenueDto> getMonthlyRevenueReport(Set<Long> accommodationIds, YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw ErrorUtils.generateBadRequest("invalidDateRange");
+        }
+        if (from.plusMonths(MAX_REPORT_MONTHS).isBefore(to.plusMonths(1))) {
+            throw ErrorUtils.generateBadRequest("reportRangeTooLong");
+        }
+
+        List<Long> hostAccommodationIds = accommodationRepository.findIdsByHostId(getHostId());
+        List<Long> ids = (accommodationIds == null || accommodationIds.isEmpty()) ? hostAccommodationIds : accommodationIds.stream().sorted().toList();
+        if (!new HashSet<>(hostAccommodationIds).containsAll(ids)) {
+            throw ErrorUtils.generateException(HttpStatus.FORBIDDEN, "hostNotOwner");
+        }
+
+        Map<Long, List<FinancialReportMonthlyRevenueDto>> revenues = getMonthlyRevenues(ids, from, to);
+        return ids.stream().map(id -> new AccommodationMonthlyRevenueDto(id, revenues.get(id))).toList();
+    }
 
-        List<FinancialReportMonthlyRevenueDto> monthlyRevenues = new ArrayList<>();
-        for (int month = Calendar.JANUARY; month <= Calendar.DECEMBER; month++) {
-            calendar.set(Calendar.MONTH, month);
-            calendar.set(Calendar.DAY_OF_MONTH, 1);
-            long monthStart = calendar.getTimeInMillis();
+    // One grouped query over the daily revenue rollup for every accommodation and month of the range. Months that have not
+    // started yet are left out, and months without reservations report zero. Months are UTC calendar months.
+    private Map<Long, List<FinancialReportMonthlyRevenueDto>> getMonthlyRevenues(Collection<Long> accommodationIds, YearMonth from, YearMonth to) {
+        long now = Instant.now().toEpochMilli();
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to) && startOf(month) < now; month = month.plusMonths(1)) {
+            months.add(month);
+        }
 
-            if (monthStart >= Instant.now().toEpochMilli()) {
-                return monthlyRevenues;
-            }
+        long[] boundaries = new long[months.size() + 1];
+        for (int i = 0; i < months.size(); i++) {
+            boundaries[i] = startOf(months.get(i));
+        }
+        if (!months.isEmpty()) {
+            boundaries[months.size()] = startOf(months.get(months.size() - 1).plusMonths(1));
+        }
 
-            calendar.set(Calendar.DAY_OF_MONTH, calendar.getActualMaximum(Calendar.DAY_OF_MONTH));
-            long monthEnd = calendar.getTimeInMillis();
+        Map<Long, double[]> revenues = new HashMap<>();
+        Map<Long, int[]> counts = new HashMap<>();
+        Map<Long, int[]> nights = new HashMap<>();
+        accommodationIds.forEach(id -> {
+            revenues.put(id, new double[months.size()]);
+            counts.put(id, new int[months.size()]);
+            nights.put(id, new int[months.size()]);
+        });
+        for (Object[] row : dailyRevenueRepository.sumByPeriod(accommodationIds, boundaries)) {
+            int period = ((Number) row[1]).intValue();
+            revenues.get((Long) row[0])[period] = ((Number) row[2]).doubleValue();
+            counts.get((Long) row[0])[period] = ((Number) row[3]).intValue();
+            nights.get((Long) row[0])[period] = ((Number) row[4]).intValue();
+        }
 
-            Collection<Reservation> reservations = reservationRepository.findByAccommodationIdAndStartDateBetweenAndStatus(accommodationId, monthStart, monthEnd, ReservationStatus.ACCEPTED);
-            monthlyRevenues.add(new FinancialReportMonthlyRevenueDto(getMonth(month), reservations));
+        Map<Long, List<FinancialReportMonthlyRevenueDto>> report = new HashMap<>();
+        for (Long id : accommodationIds) {
+            List<FinancialReportMonthlyRevenueDto> monthlyRevenues = new ArrayList<>(months.size());
+            for (int i = 0; i < months.size(); i++) {
+                YearMonth month = months.get(i);
+                monthlyRevenues.add(new FinancialReportMonthlyRevenueDto(getMonth(month.getMonthValue() - 1), month.getYear(), revenues.get(id)[i], counts.get(id)[i],
+                        nights.get(id)[i]));
+            }
+            report.put(id, monthlyRevenues);
         }
+        return report;
+    }
 
-        return monthlyRevenues;
+    private static long startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
     }
 
     @Override
@@ -262,14 +643,18 @@ public class AccommodationServiceImpl implements IAccommodationService {
     }
 
     @Override
+    @Transactional
     public ReviewDto addReview(Long accommodationId, ReviewRequestDto reviewDto) {
         Long guestId = getGuestId();
         canGuestCommentAndRateAccommodation(guestId, accommodationId); // this will throw ResponseStatusException if guest cannot comment and rate accommodation
         Accommodation accommodation = findAccommodation(accommodationId);
         Guest guest = guestService.findGuest(guestId);
         Review review = new Review(reviewDto, guest, ReviewStatus.PENDING);
-        accommodation.getReviews().add(review);
+        accommodation.addReview(review);
         update(accommodation);
+        accommodationRepository.addReviewStats(accommodationId, ReviewStats.delta(null, review.getStatus(), review.getRating()));
+        eventPublisher.publishEvent(new AccommodationChangedEvent(accommodationId, AccommodationChangeType.REVIEWED));
+        eventPublisher.publishEvent(new StatusChangedEvent(null, ReviewStatus.PENDING));
         return new ReviewDto(review, guestId);
     }
 
@@ -294,11 +679,12 @@ public class AccommodationServiceImpl implements IAccommodationService {
             throw ErrorUtils.generateException(HttpStatus.BAD_REQUEST, "invalidDateRange");
         }
 
-        boolean hasOverlappingReservations = reservationRepository.countOverlappingReservationsOrGuestOverlappingReservations(null, accommodationId, dateFrom, dateTo, List.of(ReservationStatus.ACCEPTED)) > 0;
-
-        if (hasOverlappingReservations) {
+        if (availabilityIndexService.getIndex(accommodation.getId()).overlapsBooking(dateFrom, dateTo)) {
             throw ErrorUtils.generateException(HttpStatus.BAD_REQUEST, "accommodationUnavailable");
         }
+        if (reservationHoldService.isHeldByOthers(accommodationId, dateFrom, dateTo, this::getLoggedInAccountId)) {
+            throw ErrorUtils.generateException(HttpStatus.BAD_REQUEST, "datesOnHold");
+        }
 
         return new AccommodationPriceDto(accommodation.getTotalPrice(dateFrom, dateTo, guests));
     }
@@ -314,9 +700,52 @@ public class AccommodationServiceImpl implements IAccommodationService {
             throw ErrorUtils.generateException(HttpStatus.BAD_REQUEST, "invalidDateRange");
         }
 
-        boolean hasOverlappingReservations = reservationRepository.countOverlappingReservationsOrGuestOverlappingReservations(null, accommodationId, dateFrom, dateTo, List.of(ReservationStatus.ACCEPTED)) > 0;
+        return new AccommodationAvailabilityDto(availabilityIndexService.getIndex(accommodation.getId()).isBookable(dateFrom, dateTo)
+                && !reservationHoldService.isHeldByOthers(accommodationId, dateFrom, dateTo, this::getLoggedInAccountId));
+    }
 
-        return new AccommodationAvailabilityDto(accommodation.isAvailable(dateFrom, dateTo) && !hasOverlappingReservations);
+    // Nights run from midnight to midnight UTC. Nights that already started are never bookable, and holds are left out
+    // because they last minutes; booking held dates is still refused. The version is a checksum of the content and serves as the ETag.
+    @Override
+    public AccommodationCalendarDto getCalendar(long accommodationId, int year, int month) {
+        return getCalendar(accommodationId, year, month, Instant.now().toEpochMilli());
+    }
+
+    AccommodationCalendarDto getCalendar(long accommodationId, int year, int month, long now) {
+        Accommodation accommodation = findAccommodation(accommodationId);
+        YearMonth yearMonth = YearMonth.of(year, month);
+        long firstNight = yearMonth.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        int nights = yearMonth.lengthOfMonth();
+
+        double[] prices = new double[nights];
+        long bookable = availabilityIndexService.getIndex(accommodation.getId()).bookableNights(firstNight, nights, prices);
+        long started = now - firstNight;
+        if (started >= 0) {
+            bookable &= -1L << Math.min(nights, started / AvailabilityIndex.ONE_DAY + 1);
+        }
+
+        List<Integer> runLengths = new ArrayList<>();
+        List<Double> runValues = new ArrayList<>();
+        for (int night = 0; night < nights; night++) {
+            Double price = Double.isNaN(prices[night]) ? null : prices[night];
+            if (night > 0 && Objects.equals(runValues.get(runValues.size() - 1), price)) {
+                runLengths.set(runLengths.size() - 1, runLengths.get(runLengths.size() - 1) + 1);
+            } else {
+                runLengths.add(1);
+                runValues.add(price);
+            }
+        }
+
+        CRC32 checksum = new CRC32();
+        ByteBuffer content = ByteBuffer.allocate(Long.BYTES * 2 + Integer.BYTES + runLengths.size() * (Integer.BYTES + Double.BYTES));
+        content.putLong(firstNight).putLong(bookable).putInt(accommodation.getPricingType() == null ? -1 : accommodation.getPricingType().ordinal());
+        for (int run = 0; run < runLengths.size(); run++) {
+            content.putInt(runLengths.get(run)).putDouble(runValues.get(run) == null ? Double.NaN : runValues.get(run));
+        }
+        checksum.update(content.array());
+
+        return new AccommodationCalendarDto(accommodationId, year, month, firstNight, nights, bookable, accommodation.getPricingType(),
+                runLengths.stream().mapToInt(Integer::intValue).toArray(), runValues.toArray(Double[]::new), Long.toHexString(checksum.getValue()));
     }
 
     @Override
@@ -327,14 +756,24 @@ public class AccommodationServiceImpl implements IAccommodationService {
     }
 
     @Override
+    @Transactional
     public AccommodationCardDto deleteAccommodation(Long accommodationId) {
         Accommodation accommodation = findAccommodation(accommodationId);
         reservationRepository.deleteByAccommodationId(accommodationId);
+        reservationHoldService.deleteByAccommodationIds(List.of(accommodationId));
+        revenueRollupService.deleteByAccommodationIds(List.of(accommodationId));
         accommodationRepository.delete(accommodation);
         accommodationRepository.flush();
+        eventPublisher.publishEvent(new AccommodationChangedEvent(accommodationId, AccommodationChangeType.DELETED));
+        eventPublisher.publishEvent(new StatusChangedEvent(accommodation.getStatus(), null));
         return new AccommodationCardDto(accommodation);
     }
 
+    @Override
+    public SearchCacheStatsDto getSearchCacheStats() {
+        return searchCacheService.getStats();
+    }
+
     @Override
     public Collection<ReviewCardDto> getReviewsByStatus(ReviewStatus status) {
         Collection<Review> reviews = reviewRepository.findByStatus(status);
@@ -351,12 +790,11 @@ public class AccommodationServiceImpl implements IAccommodationService {
     }
 
     @Override
+    @Transactional
     public MessageDto changeReviewStatus(Long reviewId, ReviewStatusDto body) {
         Review review = reviewRepository.findById(reviewId).orElseThrow();
         ReviewStatus oldStatus = review.getStatus();
-        review.setStatus(body.getStatus());
-        reviewRepository.save(review);
-        reviewRepository.flush();
+        reviewService.changeStatus(review, body.getStatus());
         if (oldStatus == ReviewStatus.PENDING && body.getStatus() == ReviewStatus.ACCEPTED) {
             Accommodation accommodation = accommodationRepository.findAccommodationByReviewsContaining(review);
             Notification notification = new Notification("Your accommodation has a new review", NotificationType.ACCOMMODATION_RATING, accommodation.getHost());
@@ -366,24 +804,8 @@ public class AccommodationServiceImpl implements IAccommodationService {
     }
 
     private boolean hasActiveReservations(Accommodation accommodation, Availability availability) {
-
-        Long count = reservationRepository.countOverlappingReservationsOrGuestOverlappingReservations(
-                null,
-                accommodation.getId(),
-                availability.getFromDate(),
-                availability.getToDate(),
-                List.of(ReservationStatus.ACCEPTED)
-        );
-        return count != null && count > 0;
-    }
-
-    private boolean isOverlapping(Availability existing, Availability newAvailability) {
-        long existingStart = existing.getFromDate();
-        long existingEnd = existing.getToDate();
-        long newStart = newAvailability.getFromDate();
-        long newEnd = newAvailability.getToDate();
-
-        return newStart < existingEnd && newEnd > existingStart;
+        return reservationRepository.countOverlappingReservationsOrGuestOverlappingReservations(null, accommodation.getId(), availability.getFromDate(),
+                availability.getToDate(), List.of(ReservationStatus.ACCEPTED)) > 0;
     }
 
     private void canGuestCommentAndRateAccommodation(Long guestId, Long accommodationId) {
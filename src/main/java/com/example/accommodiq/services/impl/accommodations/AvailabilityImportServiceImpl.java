@@ -0,0 +1,258 @@
+package com.example.accommodiq.services.impl.accommodations;
+
+import com.example.accommodiq.domain.Accommodation;
+import com.example.accommodiq.domain.Account;
+import com.example.accommodiq.dtos.AvailabilityImportResultDto;
+import com.example.accommodiq.enums.AccommodationChangeType;
+import com.example.accommodiq.events.AccommodationChangedEvent;
+import com.example.accommodiq.repositories.AccommodationRepository;
+import com.example.accommodiq.services.interfaces.accommodations.IAvailabilityImportService;
+import com.example.accommodiq.services.interfaces.users.IAccountService;
+import com.example.accommodiq.utilities.ErrorUtils;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.*;
+
+// Bulk import of availability slots for channel managers that push a whole season of nightly prices at once.
+// The body is read as a stream, the slots of every accommodation are checked against each other and the existing slots
+// with one sort and sweep, touching slots with the same price are merged, and the rest is inserted with batched JDBC.
+@Service
+public class AvailabilityImportServiceImpl implements IAvailabilityImportService {
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private final AccommodationRepository accommodationRepository;
+    private final IAccountService accountService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxSlots;
+
+    @Autowired
+    public AvailabilityImportServiceImpl(AccommodationRepository accommodationRepository, IAccountService accountService, ApplicationEventPublisher eventPublisher,
+                                         ObjectMapper objectMapper, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                         @Value("${availability.import.max-slots:50000}") int maxSlots) {
+        this.accommodationRepository = accommodationRepository;
+        this.accountService = accountService;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxSlots = maxSlots;
+    }
+
+    // [{"accommodationId": 1, "fromDate": 1704067200000, "toDate": 1704153600000, "price": 80.0}, ...]
+    @Override
+    public AvailabilityImportResultDto importJson(InputStream body) {
+        Long hostId = getHostId();
+        List<Slot> slots = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw ErrorUtils.generateBadRequest("invalidAvailabilityImport");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                Long accommodationId = null;
+                Long fromDate = null;
+                Long toDate = null;
+                Double price = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    boolean isNumber = value == JsonToken.VALUE_NUMBER_INT || value == JsonToken.VALUE_NUMBER_FLOAT;
+                    switch (field) {
+                        case "accommodationId" -> accommodationId = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : null;
+                        case "fromDate" -> fromDate = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : null;
+                        case "toDate" -> toDate = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : null;
+                        case "price" -> price = isNumber ? parser.getDoubleValue() : null;
+                        default -> parser.skipChildren();
+                    }
+                }
+                add(slots, accommodationId, fromDate, toDate, price);
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw ErrorUtils.generateBadRequest("invalidAvailabilityImport");
+            }
+        } catch (JsonProcessingException ex) {
+            throw ErrorUtils.generateBadRequest("invalidAvailabilityImport");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return importSlots(hostId, slots);
+    }
+
+    // accommodationId,fromDate,toDate,price with an optional header line
+    @Override
+    public AvailabilityImportResultDto importCsv(InputStream body) {
+        Long hostId = getHostId();
+        List<Slot> slots = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            boolean firstLine = true;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                boolean header = firstLine && !line.isEmpty() && !Character.isDigit(line.charAt(0));
+                firstLine = false;
+                if (line.isEmpty() || header) {
+                    continue;
+                }
+
+                String[] fields = line.split(",", -1);
+                if (fields.length != 4) {
+                    throw ErrorUtils.generateBadRequest("invalidAvailabilityImport");
+                }
+                try {
+                    add(slots, Long.parseLong(fields[0].strip()), Long.parseLong(fields[1].strip()), Long.parseLong(fields[2].strip()), Double.parseDouble(fields[3].strip()));
+                } catch (NumberFormatException ex) {
+                    throw ErrorUtils.generateBadRequest("invalidAvailabilityImport");
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return importSlots(hostId, slots);
+    }
+
+    private void add(List<Slot> slots, Long accommodationId, Long fromDate, Long toDate, Double price) {
+        if (accommodationId == null || fromDate == null || toDate == null || price == null || fromDate <= 0 || fromDate >= toDate || price < 0 || price.isNaN()) {
+            throw ErrorUtils.generateBadRequest("invalidAvailabilityImport");
+        }
+        if (slots.size() == maxSlots) {
+            throw ErrorUtils.generateException(HttpStatus.PAYLOAD_TOO_LARGE, "availabilityImportTooLarge");
+        }
+        slots.add(new Slot(accommodationId, fromDate, toDate, price, false));
+    }
+
+    private AvailabilityImportResultDto importSlots(Long hostId, List<Slot> imported) {
+        if (imported.isEmpty()) {
+            return new AvailabilityImportResultDto(0, 0, 0);
+        }
+
+        Set<Long> accommodationIds = new TreeSet<>();
+        imported.forEach(slot -> accommodationIds.add(slot.accommodationId()));
+        return transactionTemplate.execute(status -> {
+            // locking the accommodations keeps two imports for the same listing from passing the overlap check together
+            List<Accommodation> accommodations = accommodationRepository.findAllByIdInForUpdate(accommodationIds);
+            if (accommodations.size() != accommodationIds.size()) {
+                throw ErrorUtils.generateNotFound("accommodationNotFound");
+            }
+            for (Accommodation accommodation : accommodations) {
+                if (!Objects.equals(accommodation.getHost().getId(), hostId)) {
+                    throw ErrorUtils.generateException(HttpStatus.FORBIDDEN, "hostNotOwner");
+                }
+            }
+
+            List<Slot> slots = new ArrayList<>(imported);
+            for (Object[] row : accommodationRepository.findAvailabilityRangesByIdIn(accommodationIds)) {
+                slots.add(new Slot((Long) row[0], (Long) row[1], (Long) row[2], 0, true));
+            }
+            List<Slot> merged = sweep(slots);
+            insert(merged);
+            accommodationIds.forEach(id -> eventPublisher.publishEvent(new AccommodationChangedEvent(id, AccommodationChangeType.AVAILABILITY_CHANGED)));
+            return new AvailabilityImportResultDto(accommodationIds.size(), imported.size(), merged.size());
+        });
+    }
+
+    // Existing slots are only checked against imported ones, so overlaps that are already stored do not block an import.
+    // Imported slots that touch and share a price become one slot; slots are never merged with stored ones.
+    private static List<Slot> sweep(List<Slot> slots) {
+        slots.sort(Comparator.comparingLong(Slot::accommodationId).thenComparingLong(Slot::fromDate));
+
+        List<Slot> merged = new ArrayList<>();
+        Long accommodationId = null;
+        long importedMaxTo = Long.MIN_VALUE;
+        long existingMaxTo = Long.MIN_VALUE;
+        Slot last = null;
+        for (Slot slot : slots) {
+            if (!Objects.equals(slot.accommodationId(), accommodationId)) {
+                accommodationId = slot.accommodationId();
+                importedMaxTo = Long.MIN_VALUE;
+                existingMaxTo = Long.MIN_VALUE;
+                last = null;
+            }
+
+            if (slot.existing()) {
+                if (slot.fromDate() < importedMaxTo) {
+                    throw ErrorUtils.generateException(HttpStatus.CONFLICT, "overlappingAvailabilityImport");
+                }
+                existingMaxTo = Math.max(existingMaxTo, slot.toDate());
+                last = null;
+                continue;
+            }
+
+            if (slot.fromDate() < Math.max(importedMaxTo, existingMaxTo)) {
+                throw ErrorUtils.generateException(HttpStatus.CONFLICT, "overlappingAvailabilityImport");
+            }
+            importedMaxTo = slot.toDate();
+            if (last != null && last.toDate() == slot.fromDate() && last.price() == slot.price()) {
+                last = new Slot(accommodationId, last.fromDate(), slot.toDate(), last.price(), false);
+                merged.set(merged.size() - 1, last);
+            } else {
+                last = slot;
+                merged.add(slot);
+            }
+        }
+        return merged;
+    }
+
+    // the slot rows and their join rows are written in batches; the generated ids of a batch come back in insert order
+    private void insert(List<Slot> slots) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement slotInsert = connection.prepareStatement("INSERT INTO availability (from_date, to_date, price) VALUES (?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement linkInsert = connection.prepareStatement("INSERT INTO accommodation_available (accommodation_id, available_id) VALUES (?, ?)")) {
+                for (int from = 0; from < slots.size(); from += INSERT_BATCH_SIZE) {
+                    List<Slot> batch = slots.subList(from, Math.min(from + INSERT_BATCH_SIZE, slots.size()));
+                    for (Slot slot : batch) {
+                        slotInsert.setLong(1, slot.fromDate());
+                        slotInsert.setLong(2, slot.toDate());
+                        slotInsert.setDouble(3, slot.price());
+                        slotInsert.addBatch();
+                    }
+                    slotInsert.executeBatch();
+
+                    try (ResultSet keys = slotInsert.getGeneratedKeys()) {
+                        for (Slot slot : batch) {
+                            if (!keys.next()) {
+                                throw new IllegalStateException("Missing generated availability id");
+                            }
+                            linkInsert.setLong(1, slot.accommodationId());
+                            linkInsert.setLong(2, keys.getLong(1));
+                            linkInsert.addBatch();
+                        }
+                    }
+                    linkInsert.executeBatch();
+                }
+            }
+            return null;
+        });
+    }
+
+    private Long getHostId() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return ((Account) accountService.loadUserByUsername(email)).getId();
+    }
+
+    private record Slot(Long accommodationId, long fromDate, long toDate, double price, boolean existing) {
+    }
+}
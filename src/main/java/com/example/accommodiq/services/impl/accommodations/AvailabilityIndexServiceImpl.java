@@ -0,0 +1,86 @@
+package com.example.accommodiq.services.impl.accommodations;
+
+import com.example.accommodiq.enums.ReservationStatus;
+import com.example.accommodiq.events.AccommodationChangedEvent;
+import com.example.accommodiq.indexes.AvailabilityIndex;
+import com.example.accommodiq.repositories.AccommodationRepository;
+import com.example.accommodiq.repositories.ReservationRepository;
+import com.example.accommodiq.services.interfaces.accommodations.IAvailabilityIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Indexes are loaded in a transaction of their own, so neither the caller's persistence context nor its snapshot leaks
+// into them. Every invalidation bumps the generation of the accommodation, and an index whose load started at an older
+// generation is returned to its caller but not cached.
+@Service
+public class AvailabilityIndexServiceImpl implements IAvailabilityIndexService {
+    final AccommodationRepository accommodationRepository;
+    final ReservationRepository reservationRepository;
+
+    private final Map<Long, AvailabilityIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+    private final TransactionTemplate loadTemplate;
+
+    @Autowired
+    public AvailabilityIndexServiceImpl(AccommodationRepository accommodationRepository, ReservationRepository reservationRepository, PlatformTransactionManager transactionManager) {
+        this.accommodationRepository = accommodationRepository;
+        this.reservationRepository = reservationRepository;
+        this.loadTemplate = new TransactionTemplate(transactionManager);
+        this.loadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public AvailabilityIndex getIndex(Long accommodationId) {
+        AvailabilityIndex cached = indexes.get(accommodationId);
+        if (cached != null) {
+            return cached;
+        }
+
+        Long generation = generations.getOrDefault(accommodationId, 0L);
+        AvailabilityIndex index = loadTemplate.execute(status -> AvailabilityIndex.of(accommodationRepository.findAvailabilitiesById(accommodationId),
+                reservationRepository.findByAccommodationIdAndStatus(accommodationId, ReservationStatus.ACCEPTED)));
+        generations.compute(accommodationId, (id, current) -> {
+            if (Objects.equals(Objects.requireNonNullElse(current, 0L), generation)) {
+                indexes.put(id, index);
+            }
+            return current;
+        });
+        return index;
+    }
+
+    @EventListener
+    public void onAccommodationChanged(AccommodationChangedEvent event) {
+        invalidate(event.getAccommodationId());
+    }
+
+    @Override
+    public void invalidate(Long accommodationId) {
+        evict(accommodationId);
+
+        // a load running before the surrounding transaction completes still reads the old rows, so evict again afterwards
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(accommodationId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long accommodationId) {
+        generations.merge(accommodationId, 1L, Long::sum);
+        indexes.remove(accommodationId);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.accommodiq.services.impl.accommodations;
+
+import com.example.accommodiq.enums.AccommodationChangeType;
+import com.example.accommodiq.events.AccommodationChangedEvent;
+import com.example.accommodiq.indexes.BenefitIndex;
+import com.example.accommodiq.repositories.AccommodationRepository;
+import com.example.accommodiq.services.interfaces.accommodations.IBenefitIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+@Service
+public class BenefitIndexServiceImpl implements IBenefitIndexService {
+    final AccommodationRepository accommodationRepository;
+
+    private final BenefitIndex index = new BenefitIndex();
+
+    @Autowired
+    public BenefitIndexServiceImpl(AccommodationRepository accommodationRepository) {
+        this.accommodationRepository = accommodationRepository;
+    }
+
+    @Override
+    public Set<Long> findWithAllBenefits(Collection<String> benefits) {
+        return index.findWithAll(benefits);
+    }
+
+    @Override
+    public BenefitIndex.Counter benefitCounter() {
+        return index.counter();
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        index.clear();
+        Map<Long, List<String>> benefitsById = new HashMap<>();
+        for (Object[] benefit : accommodationRepository.findAllBenefits()) {
+            benefitsById.computeIfAbsent((Long) benefit[0], id -> new ArrayList<>()).add((String) benefit[1]);
+        }
+        benefitsById.forEach(index::put);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccommodationChanged(AccommodationChangedEvent event) {
+        if (event.getChangeType() == AccommodationChangeType.DELETED) {
+            index.remove(event.getAccommodationId());
+        } else if (event.getChangeType() == AccommodationChangeType.CREATED || event.getChangeType() == AccommodationChangeType.UPDATED) {
+            index.put(event.getAccommodationId(), accommodationRepository.findBenefitsById(event.getAccommodationId()));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.accommodiq.services.impl.accommodations;
+
+import com.example.accommodiq.services.interfaces.accommodations.IBookingLockService;
+import com.example.accommodiq.utilities.ErrorUtils;
+import com.example.accommodiq.utilities.StripedLocks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Serializes the check-then-write of bookings per accommodation. The lock is taken before the transaction starts
+// and released after it commits, so the next booking for the same accommodation always sees the previous one.
+// Bookings for accommodations on different stripes run in parallel.
+@Service
+public class BookingLockServiceImpl implements IBookingLockService {
+    private final StripedLocks locks;
+    private final long timeoutMillis;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public BookingLockServiceImpl(PlatformTransactionManager transactionManager, @Value("${accommodation.booking-lock.stripes:256}") int stripes,
+                                  @Value("${accommodation.booking-lock.timeout-ms:5000}") long timeoutMillis) {
+        this.locks = new StripedLocks(stripes);
+        this.timeoutMillis = timeoutMillis;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public <T> T executeLocked(Long accommodationId, Supplier<T> booking) {
+        return executeLocked(List.of(accommodationId), booking);
+    }
+
+    // stripes are always taken in ascending order, so batches sharing stripes cannot deadlock
+    @Override
+    public <T> T executeLocked(Collection<Long> accommodationIds, Supplier<T> booking) {
+        int[] stripes = accommodationIds.stream().mapToInt(locks::stripeOf).distinct().sorted().toArray();
+        int locked = 0;
+        try {
+            for (; locked < stripes.length; locked++) {
+                if (!locks.tryLock(stripes[locked], timeoutMillis)) {
+                    throw ErrorUtils.generateException(HttpStatus.SERVICE_UNAVAILABLE, "bookingBusy");
+                }
+            }
+            return transactionTemplate.execute(status -> booking.get());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw ErrorUtils.generateException(HttpStatus.SERVICE_UNAVAILABLE, "bookingBusy");
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                locks.unlock(stripes[i]);
+            }
+        }
+    }
+}
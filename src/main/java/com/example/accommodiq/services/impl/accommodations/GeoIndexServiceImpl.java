@@ -0,0 +1,68 @@
+package com.example.accommodiq.services.impl.accommodations;
+
+import com.example.accommodiq.enums.AccommodationChangeType;
+import com.example.accommodiq.events.AccommodationChangedEvent;
+import com.example.accommodiq.indexes.GeoGridIndex;
+import com.example.accommodiq.repositories.AccommodationRepository;
+import com.example.accommodiq.services.interfaces.accommodations.IGeoIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+@Service
+public class GeoIndexServiceImpl implements IGeoIndexService {
+    final AccommodationRepository accommodationRepository;
+
+    private final GeoGridIndex index;
+
+    @Autowired
+    public GeoIndexServiceImpl(AccommodationRepository accommodationRepository, @Value("${accommodation.geo-index.cell-degrees:0.25}") double cellDegrees) {
+        this.accommodationRepository = accommodationRepository;
+        this.index = new GeoGridIndex(cellDegrees);
+    }
+
+    @Override
+    public List<GeoGridIndex.Hit> findWithinRadius(double latitude, double longitude, double radiusKm) {
+        return index.withinRadius(latitude, longitude, radiusKm);
+    }
+
+    @Override
+    public List<GeoGridIndex.Hit> findWithinBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        double centerLatitude = (minLatitude + maxLatitude) / 2;
+        double centerLongitude = minLongitude <= maxLongitude ? (minLongitude + maxLongitude) / 2 : (minLongitude + maxLongitude + 360) / 2;
+        if (centerLongitude > 180) {
+            centerLongitude -= 360;
+        }
+        return index.withinBox(minLatitude, minLongitude, maxLatitude, maxLongitude, centerLatitude, centerLongitude);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        index.clear();
+        for (Object[] location : accommodationRepository.findAllCoordinates()) {
+            index(location);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccommodationChanged(AccommodationChangedEvent event) {
+        if (event.getChangeType() == AccommodationChangeType.DELETED) {
+            index.remove(event.getAccommodationId());
+        } else if (event.getChangeType() == AccommodationChangeType.CREATED || event.getChangeType() == AccommodationChangeType.UPDATED) {
+            index.remove(event.getAccommodationId());
+            accommodationRepository.findCoordinatesById(event.getAccommodationId()).forEach(this::index);
+        }
+    }
+
+    private void index(Object[] location) {
+        if (location[1] != null && location[2] != null) {
+            index.put((Long) location[0], (Double) location[1], (Double) location[2]);
+        }
+    }
+}
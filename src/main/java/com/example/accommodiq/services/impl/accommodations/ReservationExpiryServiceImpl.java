@@ -0,0 +1,149 @@
+package com.example.accommodiq.services.impl.accommodations;
+
+import com.example.accommodiq.domain.Notification;
+import com.example.accommodiq.dtos.ReservationExpiryStatsDto;
+import com.example.accommodiq.enums.NotificationType;
+import com.example.accommodiq.enums.ReservationStatus;
+import com.example.accommodiq.repositories.GuestRepository;
+import com.example.accommodiq.repositories.ReservationRepository;
+import com.example.accommodiq.services.interfaces.accommodations.IReservationExpiryService;
+import com.example.accommodiq.services.interfaces.notifications.INotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+// Declines pending reservations the host did not answer within the response window, or whose stay is about to start.
+// Each batch is a keyset page of ids followed by one set-based UPDATE in its own short transaction,
+// and every guest gets a single notification per sweep no matter how many of their requests expired.
+@Service
+public class ReservationExpiryServiceImpl implements IReservationExpiryService {
+    private static final long ONE_HOUR = 60 * 60 * 1000L;
+
+    private final ReservationRepository reservationRepository;
+    private final GuestRepository guestRepository;
+    private final INotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final long responseWindowMillis;
+    private final long startLeadMillis;
+    private final int batchSize;
+
+    private long runs;
+    private long expiredTotal;
+    private long notificationsSent;
+    private Long lastRunAt;
+    private int lastRunExpired;
+    private int lastRunBatches;
+    private long lastRunDurationMillis;
+
+    @Autowired
+    public ReservationExpiryServiceImpl(ReservationRepository reservationRepository, GuestRepository guestRepository, INotificationService notificationService,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${reservation.pending-expiry.response-window-hours:72}") long responseWindowHours,
+                                        @Value("${reservation.pending-expiry.start-lead-hours:24}") long startLeadHours,
+                                        @Value("${reservation.pending-expiry.batch-size:500}") int batchSize) {
+        this.reservationRepository = reservationRepository;
+        this.guestRepository = guestRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.responseWindowMillis = responseWindowHours * ONE_HOUR;
+        this.startLeadMillis = startLeadHours * ONE_HOUR;
+        this.batchSize = batchSize;
+    }
+
+    // pending rows saved before createdAt was set on every insert are given the startup time, so they get a full
+    // response window instead of only expiring by start date. Other rows keep an unknown creation time.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillCreatedAt() {
+        long now = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> reservationRepository.backfillCreatedAt(ReservationStatus.PENDING, now));
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.pending-expiry.interval-ms:600000}", initialDelayString = "${reservation.pending-expiry.interval-ms:600000}")
+    public void sweep() {
+        expireStaleReservations();
+    }
+
+    @Override
+    public int expireStaleReservations() {
+        long startedAt = System.currentTimeMillis();
+        long createdBefore = startedAt - responseWindowMillis;
+        long startsBefore = startedAt + startLeadMillis;
+
+        Map<Long, Integer> expiredByGuest = new HashMap<>();
+        int expired = 0;
+        int batches = 0;
+        long afterId = 0;
+        while (true) {
+            long pageAfterId = afterId;
+            List<Object[]> page = transactionTemplate.execute(status -> expireBatch(pageAfterId, createdBefore, startsBefore, expiredByGuest));
+            if (page.isEmpty()) {
+                break;
+            }
+
+            batches++;
+            expired += page.size();
+            afterId = (Long) page.get(page.size() - 1)[0];
+            if (page.size() < batchSize) {
+                break;
+            }
+        }
+
+        recordRun(startedAt, expired, batches);
+        sendNotifications(expiredByGuest);
+        return expired;
+    }
+
+    // rows that changed status between the select and the update are left alone by the status check in the UPDATE
+    private List<Object[]> expireBatch(long afterId, long createdBefore, long startsBefore, Map<Long, Integer> expiredByGuest) {
+        List<Object[]> page = reservationRepository.findStaleIdsForUpdate(ReservationStatus.PENDING, afterId, createdBefore, startsBefore, PageRequest.of(0, batchSize));
+        if (page.isEmpty()) {
+            return page;
+        }
+
+        List<Long> ids = page.stream().map(row -> (Long) row[0]).toList();
+        reservationRepository.updateStatusByIdIn(ids, ReservationStatus.PENDING, ReservationStatus.DECLINED);
+        page.forEach(row -> expiredByGuest.merge((Long) row[1], 1, Integer::sum));
+        return page;
+    }
+
+    private void sendNotifications(Map<Long, Integer> expiredByGuest) {
+        if (expiredByGuest.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Notification> notifications = new ArrayList<>(expiredByGuest.size());
+            expiredByGuest.forEach((guestId, count) -> notifications.add(new Notification(count == 1
+                    ? "Your reservation request expired without a response from the host"
+                    : count + " of your reservation requests expired without a response from the host",
+                    NotificationType.HOST_REPLY_TO_REQUEST, guestRepository.getReferenceById(guestId))));
+            notificationService.createAndSendNotifications(notifications);
+        });
+
+        synchronized (this) {
+            notificationsSent += expiredByGuest.size();
+        }
+    }
+
+    private synchronized void recordRun(long startedAt, int expired, int batches) {
+        runs++;
+        expiredTotal += expired;
+        lastRunAt = startedAt;
+        lastRunExpired = expired;
+        lastRunBatches = batches;
+        lastRunDurationMillis = System.currentTimeMillis() - startedAt;
+    }
+
+    @Override
+    public synchronized ReservationExpiryStatsDto getStats() {
+        return new ReservationExpiryStatsDto(runs, expiredTotal, notificationsSent, lastRunAt, lastRunExpired, lastRunBatches, lastRunDurationMillis);
+    }
+}
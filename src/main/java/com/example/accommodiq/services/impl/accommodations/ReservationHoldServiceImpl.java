@@ -0,0 +1,269 @@
+package com.example.accommodiq.services.impl.accommodations;
+
+import com.example.accommodiq.domain.Accommodation;
+import com.example.accommodiq.domain.Account;
+import com.example.accommodiq.domain.ReservationHold;
+import com.example.accommodiq.dtos.MessageDto;
+import com.example.accommodiq.dtos.ReservationHoldDto;
+import com.example.accommodiq.dtos.ReservationHoldRequestDto;
+import com.example.accommodiq.enums.AccountStatus;
+import com.example.accommodiq.enums.ReservationStatus;
+import com.example.accommodiq.repositories.AccommodationRepository;
+import com.example.accommodiq.repositories.AccountRepository;
+import com.example.accommodiq.repositories.GuestRepository;
+import com.example.accommodiq.repositories.ReservationHoldRepository;
+import com.example.accommodiq.repositories.ReservationRepository;
+import com.example.accommodiq.services.interfaces.accommodations.IBookingLockService;
+import com.example.accommodiq.services.interfaces.accommodations.IReservationHoldService;
+import com.example.accommodiq.utilities.ErrorUtils;
+import com.example.accommodiq.utilities.TimerWheel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Holds keep dates for a guest between quoting and booking. They are stored in the database so they survive a restart,
+// mirrored in memory for the availability checks of quotes, and expired by a timer wheel that releases them in bulk.
+// Hold changes go through the booking lock, and the booking and hold paths check the database, so they cannot race each other.
+@Service
+public class ReservationHoldServiceImpl implements IReservationHoldService {
+    private static final int WHEEL_SLOTS = 64;
+    private static final int WHEEL_LEVELS = 3;
+    private static final int RELEASE_BATCH_SIZE = 500;
+
+    private final ReservationHoldRepository holdRepository;
+    private final AccommodationRepository accommodationRepository;
+    private final ReservationRepository reservationRepository;
+    private final GuestRepository guestRepository;
+    private final AccountRepository accountRepository;
+    private final IBookingLockService bookingLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final long holdMillis;
+    private final TimerWheel<Long> expiryWheel;
+    private final Map<Long, ActiveHold> activeHolds = new HashMap<>();
+    private final Map<Long, List<ActiveHold>> activeHoldsByAccommodation = new HashMap<>();
+
+    @Autowired
+    public ReservationHoldServiceImpl(ReservationHoldRepository holdRepository, AccommodationRepository accommodationRepository, ReservationRepository reservationRepository,
+                                      GuestRepository guestRepository, AccountRepository accountRepository, IBookingLockService bookingLockService,
+                                      PlatformTransactionManager transactionManager, @Value("${reservation.hold.minutes:15}") long holdMinutes,
+                                      @Value("${reservation.hold.tick-ms:1000}") long tickMillis) {
+        this.holdRepository = holdRepository;
+        this.accommodationRepository = accommodationRepository;
+        this.reservationRepository = reservationRepository;
+        this.guestRepository = guestRepository;
+        this.accountRepository = accountRepository;
+        this.bookingLockService = bookingLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.holdMillis = holdMinutes * 60 * 1000;
+        this.expiryWheel = new TimerWheel<>(tickMillis, WHEEL_SLOTS, WHEEL_LEVELS, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreHolds() {
+        long now = System.currentTimeMillis();
+        List<Object[]> rows = transactionTemplate.execute(status -> {
+            holdRepository.deleteExpired(now);
+            return holdRepository.findAllActive(now);
+        });
+        for (Object[] row : rows) {
+            activate(new ActiveHold((Long) row[0], (Long) row[1], (Long) row[2], (Long) row[3], (Long) row[4], (Long) row[5]));
+        }
+    }
+
+    @Override
+    public ReservationHoldDto createHold(ReservationHoldRequestDto holdDto) {
+        if (holdDto.getStartDate() >= holdDto.getEndDate()) {
+            throw ErrorUtils.generateException(HttpStatus.BAD_REQUEST, "invalidDateRange");
+        }
+
+        Account account = getLoggedInAccount();
+        if (account.getStatus() == AccountStatus.BLOCKED) {
+            throw ErrorUtils.generateException(HttpStatus.FORBIDDEN, "accountBlocked");
+        }
+
+        return bookingLockService.executeLocked(holdDto.getAccommodationId(), () -> hold(account.getId(), holdDto));
+    }
+
+    // a guest keeps at most one hold per accommodation, so a new hold replaces the previous one
+    private ReservationHoldDto hold(Long guestId, ReservationHoldRequestDto holdDto) {
+        Accommodation accommodation = accommodationRepository.findByIdForUpdate(holdDto.getAccommodationId())
+                .orElseThrow(() -> ErrorUtils.generateNotFound("accommodationNotFound"));
+
+        boolean hasOverlappingReservations = reservationRepository.countOverlappingReservationsOrGuestOverlappingReservations(null, accommodation.getId(),
+                holdDto.getStartDate(), holdDto.getEndDate(), List.of(ReservationStatus.ACCEPTED)) > 0;
+        if (hasOverlappingReservations || !accommodation.isAvailable(holdDto.getStartDate(), holdDto.getEndDate())) {
+            throw ErrorUtils.generateBadRequest("accommodationUnavailable");
+        }
+        if (isHeldByOthersForUpdate(accommodation.getId(), holdDto.getStartDate(), holdDto.getEndDate(), guestId)) {
+            throw ErrorUtils.generateBadRequest("datesOnHold");
+        }
+
+        releaseHolds(accommodation.getId(), guestId);
+        ReservationHold hold = new ReservationHold(holdDto.getStartDate(), holdDto.getEndDate(), System.currentTimeMillis() + holdMillis,
+                guestRepository.getReferenceById(guestId), accommodation);
+        holdRepository.saveAndFlush(hold);
+
+        ActiveHold activeHold = new ActiveHold(hold.getId(), accommodation.getId(), guestId, hold.getStartDate(), hold.getEndDate(), hold.getExpiresAt());
+        afterCommit(() -> activate(activeHold));
+        return new ReservationHoldDto(hold);
+    }
+
+    @Override
+    public MessageDto releaseHold(Long holdId) {
+        // the hold may have been created on another node, so it is looked up in the database rather than in memory
+        Long guestId = getLoggedInAccount().getId();
+        Long accommodationId = holdRepository.findAccommodationIdByIdAndGuestId(holdId, guestId)
+                .orElseThrow(() -> ErrorUtils.generateNotFound("holdNotFound"));
+
+        bookingLockService.executeLocked(accommodationId, () -> {
+            holdRepository.deleteAllByIdIn(List.of(holdId));
+            afterCommit(() -> deactivate(List.of(holdId)));
+            return null;
+        });
+        return new MessageDto("Hold released");
+    }
+
+    // the guest is only resolved when a hold overlaps the dates, so quotes for dates nobody holds never look up the account
+    @Override
+    public boolean isHeldByOthers(Long accommodationId, long startDate, long endDate, Supplier<Long> guestId) {
+        long now = System.currentTimeMillis();
+        List<Long> holders;
+        synchronized (this) {
+            holders = activeHoldsByAccommodation.getOrDefault(accommodationId, List.of()).stream()
+                    .filter(hold -> hold.expiresAt() > now && hold.startDate() < endDate && hold.endDate() > startDate)
+                    .map(ActiveHold::guestId)
+                    .toList();
+        }
+        if (holders.isEmpty()) {
+            return false;
+        }
+
+        Long requesterId = guestId.get();
+        return holders.stream().anyMatch(holder -> !holder.equals(requesterId));
+    }
+
+    // callers hold the accommodation's booking lock, so the database is the authoritative answer
+    @Override
+    public boolean isHeldByOthersForUpdate(Long accommodationId, long startDate, long endDate, Long guestId) {
+        return holdRepository.countActiveOverlappingHoldsOfOthers(accommodationId, guestId, startDate, endDate, System.currentTimeMillis()) > 0;
+    }
+
+    @Override
+    public void releaseHolds(Long accommodationId, Long guestId) {
+        List<Long> ids = holdRepository.findIdsByAccommodationIdAndGuestId(accommodationId, guestId);
+        if (!ids.isEmpty()) {
+            holdRepository.deleteAllByIdIn(ids);
+            afterCommit(() -> deactivate(ids));
+        }
+    }
+
+    // holds are never read past their expiry, so deleting them is cleanup and does not need the booking lock
+    @Override
+    @Scheduled(fixedDelayString = "${reservation.hold.tick-ms:1000}")
+    public void releaseExpiredHolds() {
+        long now = System.currentTimeMillis();
+        List<Long> expired = new ArrayList<>();
+        synchronized (this) {
+            for (Long id : expiryWheel.advance(now)) {
+                ActiveHold hold = activeHolds.get(id);
+                if (hold != null && hold.expiresAt() <= now) {
+                    expired.add(id);
+                }
+            }
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        for (int from = 0; from < expired.size(); from += RELEASE_BATCH_SIZE) {
+            List<Long> batch = expired.subList(from, Math.min(from + RELEASE_BATCH_SIZE, expired.size()));
+            transactionTemplate.executeWithoutResult(status -> holdRepository.deleteAllByIdIn(batch));
+        }
+        deactivate(expired);
+    }
+
+    // called by the accommodation and account delete paths, since hold rows reference both
+    @Override
+    @Transactional
+    public void deleteByAccommodationIds(Collection<Long> accommodationIds) {
+        if (accommodationIds.isEmpty()) {
+            return;
+        }
+
+        Set<Long> ids = new HashSet<>(accommodationIds);
+        holdRepository.deleteByAccommodationIdIn(ids);
+        afterCommit(() -> deactivateWhere(hold -> ids.contains(hold.accommodationId())));
+    }
+
+    @Override
+    @Transactional
+    public void deleteByGuestId(Long guestId) {
+        holdRepository.deleteByGuestId(guestId);
+        afterCommit(() -> deactivateWhere(hold -> hold.guestId().equals(guestId)));
+    }
+
+    private synchronized void activate(ActiveHold hold) {
+        activeHolds.put(hold.id(), hold);
+        activeHoldsByAccommodation.computeIfAbsent(hold.accommodationId(), id -> new ArrayList<>()).add(hold);
+        expiryWheel.schedule(hold.id(), hold.expiresAt());
+    }
+
+    private synchronized void deactivate(Collection<Long> ids) {
+        for (Long id : ids) {
+            ActiveHold hold = activeHolds.remove(id);
+            if (hold == null) {
+                continue;
+            }
+
+            List<ActiveHold> holds = activeHoldsByAccommodation.get(hold.accommodationId());
+            holds.remove(hold);
+            if (holds.isEmpty()) {
+                activeHoldsByAccommodation.remove(hold.accommodationId());
+            }
+        }
+    }
+
+    private synchronized void deactivateWhere(Predicate<ActiveHold> condition) {
+        deactivate(activeHolds.values().stream().filter(condition).map(ActiveHold::id).toList());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Account getLoggedInAccount() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        Account account = accountRepository.findAccountByEmail(email);
+        if (account == null) {
+            throw ErrorUtils.generateNotFound("userNotFound");
+        }
+        return account;
+    }
+
+    private record ActiveHold(Long id, Long accommodationId, Long guestId, Long startDate, Long endDate, Long expiresAt) {
+    }
+}
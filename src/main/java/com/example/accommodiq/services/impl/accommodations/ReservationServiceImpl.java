@@ -2,25 +2,35 @@ package com.example.accommodiq.services.impl.accommodations;
 
 import com.example.accommodiq.domain.*;
 import com.example.accommodiq.dtos.*;
+import com.example.accommodiq.enums.AccommodationChangeType;
 import com.example.accommodiq.enums.AccountRole;
 import com.example.accommodiq.enums.NotificationType;
 import com.example.accommodiq.enums.ReservationStatus;
+import com.example.accommodiq.events.AccommodationChangedEvent;
+import com.example.accommodiq.events.StatusChangedEvent;
 import com.example.accommodiq.repositories.AccommodationRepository;
 import com.example.accommodiq.repositories.ReservationRepository;
 import com.example.accommodiq.repositories.ReviewRepository;
+import com.example.accommodiq.services.interfaces.accommodations.IBookingLockService;
 import com.example.accommodiq.services.interfaces.accommodations.IReservationService;
+import com.example.accommodiq.services.interfaces.accommodations.IRevenueRollupService;
 import com.example.accommodiq.services.interfaces.notifications.INotificationService;
 import com.example.accommodiq.services.interfaces.users.IUserService;
 import com.example.accommodiq.specifications.HostReservationSpecification;
 import com.example.accommodiq.utilities.ErrorUtils;
 import jakarta.persistence.EntityNotFoundException;
 import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
@@ -36,15 +46,25 @@ public class ReservationServiceImpl implements IReservationService {
     final IUserService userService;
     final ReviewRepository reviewRepository;
     final INotificationService notificationService;
+    final ApplicationEventPublisher eventPublisher;
+    final IBookingLockService bookingLockService;
+    final IRevenueRollupService revenueRollupService;
+    final TransactionTemplate transactionTemplate;
 
     ResourceBundle bundle = ResourceBundle.getBundle("ValidationMessages", LocaleContextHolder.getLocale());
 
-    public ReservationServiceImpl(ReservationRepository allReservations, AccommodationRepository accommodationRepository, IUserService userService, ReviewRepository reviewRepository, INotificationService notificationService) {
+    public ReservationServiceImpl(ReservationRepository allReservations, AccommodationRepository accommodationRepository, IUserService userService, ReviewRepository reviewRepository, INotificationService notificationService,
+                                  ApplicationEventPublisher eventPublisher, IBookingLockService bookingLockService, IRevenueRollupService revenueRollupService,
+                                  PlatformTransactionManager transactionManager) {
         this.allReservations = allReservations;
         this.accommodationRepository = accommodationRepository;
         this.userService = userService;
         this.reviewRepository = reviewRepository;
         this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.bookingLockService = bookingLockService;
+        this.revenueRollupService = revenueRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -74,11 +94,14 @@ public class ReservationServiceImpl implements IReservationService {
     }
 
     @Override
+    @Transactional
     public Reservation insert(ReservationRequestDto reservationDto) {
         Reservation reservation = convertToReservation(reservationDto);
         try {
             allReservations.save(reservation);
             allReservations.flush();
+            revenueRollupService.statusChanged(reservation, null);
+            eventPublisher.publishEvent(new StatusChangedEvent(null, reservation.getStatus()));
             return reservation;
         } catch (ConstraintViolationException ex) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Validation error: " + ex.getMessage());
@@ -86,8 +109,12 @@ public class ReservationServiceImpl implements IReservationService {
     }
 
     @Override
+    @Transactional
     public ReservationDto update(ReservationDto reservationDto) {
         Reservation existingReservation = findReservation(reservationDto.getId());
+        ReservationStatus oldStatus = existingReservation.getStatus();
+        Reservation previousStay = new Reservation(null, existingReservation.getStartDate(), existingReservation.getEndDate(), existingReservation.getNumberOfGuests(),
+                oldStatus, null, existingReservation.getAccommodation(), existingReservation.getTotalPrice());
 
         existingReservation.setStartDate(reservationDto.getStartDate());
         existingReservation.setEndDate(reservationDto.getEndDate());
@@ -98,6 +125,21 @@ public class ReservationServiceImpl implements IReservationService {
             findReservation(existingReservation.getId()); // this will throw ResponseStatusException if reservation is not found
             allReservations.save(existingReservation);
             allReservations.flush();
+            publishReservationChange(existingReservation, oldStatus);
+            if (oldStatus == ReservationStatus.ACCEPTED && existingReservation.getStatus() == ReservationStatus.ACCEPTED
+                    && (!Objects.equals(previousStay.getStartDate(), existingReservation.getStartDate()) || !Objects.equals(previousStay.getEndDate(), existingReservation.getEndDate()))) {
+                // an accepted stay moved to other dates frees the old nights and takes the new ones
+                Long accommodationId = existingReservation.getAccommodation().getId();
+                eventPublisher.publishEvent(new AccommodationChangedEvent(accommodationId, AccommodationChangeType.RESERVATION_RELEASED));
+                eventPublisher.publishEvent(new AccommodationChangedEvent(accommodationId, AccommodationChangeType.RESERVATION_ACCEPTED));
+            }
+            // the dates may have moved as well, so the old stay is taken out and the new one put in
+            if (oldStatus == ReservationStatus.ACCEPTED) {
+                revenueRollupService.remove(List.of(previousStay));
+            }
+            if (existingReservation.getStatus() == ReservationStatus.ACCEPTED) {
+                revenueRollupService.add(List.of(existingReservation));
+            }
             return new ReservationDto(existingReservation);
         } catch (DataIntegrityViolationException ex) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Data integrity violation");
@@ -107,6 +149,7 @@ public class ReservationServiceImpl implements IReservationService {
     }
 
     @Override
+    @Transactional
     public MessageDto delete(Long reservationId) {
         Reservation found = findReservation(reservationId);
         long loggedInUserId = getLoggedInUserId();
@@ -117,22 +160,142 @@ public class ReservationServiceImpl implements IReservationService {
 
         allReservations.delete(found);
         allReservations.flush();
+        publishReservationChange(found, found.getStatus());
+        if (found.getStatus() == ReservationStatus.ACCEPTED) {
+            revenueRollupService.remove(List.of(found));
+        }
         return new MessageDto("Reservation deleted successfully");
     }
 
     @Override
+    @Transactional
     public void deleteAll() {
+        Collection<Reservation> reservations = allReservations.findAll();
         allReservations.deleteAll();
         allReservations.flush();
+        publishReleasedAccommodations(reservations);
+        revenueRollupService.remove(accepted(reservations));
     }
 
     @Override
     public ReservationCardDto changeReservationStatus(Long reservationId, ReservationStatus status) {
         validateUserChangingStatusEligibility(status);
-        Reservation reservation = findReservation(reservationId);
+        if (status != ReservationStatus.ACCEPTED) {
+            // the status, the rollup and the guest's notification commit together or not at all
+            return transactionTemplate.execute(transactionStatus -> applyReservationStatus(findReservation(reservationId), status));
+        }
+
+        // accepting competes with guest bookings for the same dates, so it runs under the same booking lock
+        Long accommodationId = findReservation(reservationId).getAccommodation().getId();
+        return bookingLockService.executeLocked(accommodationId, () -> {
+            accommodationRepository.findByIdForUpdate(accommodationId);
+            Reservation reservation = findReservation(reservationId);
+            if (reservation.getStatus() != ReservationStatus.ACCEPTED && allReservations.countOverlappingReservationsOrGuestOverlappingReservations(null, accommodationId,
+                    reservation.getStartDate(), reservation.getEndDate(), List.of(ReservationStatus.ACCEPTED)) > 0) {
+                throw ErrorUtils.generateBadRequest("accommodationUnavailable");
+            }
+            return applyReservationStatus(reservation, status);
+        });
+    }
+
+    @Override
+    public List<ReservationCardDto> changeReservationStatuses(ReservationStatusBatchDto batchDto) {
+        Map<Long, ReservationStatus> statuses = new LinkedHashMap<>();
+        for (ReservationStatusChangeDto change : batchDto.getChanges()) {
+            validateUserChangingStatusEligibility(change.getStatus());
+            if (statuses.put(change.getReservationId(), change.getStatus()) != null) {
+                throw ErrorUtils.generateBadRequest("duplicateReservationInBatch");
+            }
+        }
+
+        List<Long> accommodationIds = allReservations.findAccommodationIdsByIdIn(statuses.keySet());
+        return bookingLockService.executeLocked(accommodationIds, () -> applyReservationStatuses(statuses, accommodationIds));
+    }
+
+    // All changes commit together with one flush. Overlaps are resolved once for the whole batch: accepted stays may not overlap
+    // each other or stays accepted earlier, and pending stays overlapping any newly accepted one are declined.
+    private List<ReservationCardDto> applyReservationStatuses(Map<Long, ReservationStatus> statuses, List<Long> accommodationIds) {
+        accommodationRepository.findAllByIdInForUpdate(accommodationIds);
+        List<Reservation> reservations = allReservations.findAllById(statuses.keySet());
+        if (reservations.size() != statuses.size()) {
+            throw ErrorUtils.generateNotFound("reservationNotFound");
+        }
+        validateHostOwnsReservations(reservations);
+
+        Map<Long, List<Reservation>> acceptedByAccommodation = new HashMap<>();
+        List<Reservation> pendingOutsideBatch = new ArrayList<>();
+        for (Reservation reservation : allReservations.findByAccommodationIdInAndStatusInForUpdate(accommodationIds, List.of(ReservationStatus.ACCEPTED, ReservationStatus.PENDING))) {
+            if (statuses.containsKey(reservation.getId())) {
+                continue;
+            }
+            if (reservation.getStatus() == ReservationStatus.ACCEPTED) {
+                acceptedByAccommodation.computeIfAbsent(reservation.getAccommodation().getId(), id -> new ArrayList<>()).add(reservation);
+            } else {
+                pendingOutsideBatch.add(reservation);
+            }
+        }
+
+        Map<Long, List<Reservation>> newlyAcceptedByAccommodation = new HashMap<>();
+        for (Reservation reservation : reservations) {
+            if (statuses.get(reservation.getId()) == ReservationStatus.ACCEPTED) {
+                acceptedByAccommodation.computeIfAbsent(reservation.getAccommodation().getId(), id -> new ArrayList<>()).add(reservation);
+                if (reservation.getStatus() != ReservationStatus.ACCEPTED) {
+                    newlyAcceptedByAccommodation.computeIfAbsent(reservation.getAccommodation().getId(), id -> new ArrayList<>()).add(reservation);
+                }
+            }
+        }
+        for (List<Reservation> accepted : acceptedByAccommodation.values()) {
+            accepted.sort(Comparator.comparing(Reservation::getStartDate));
+            for (int i = 1; i < accepted.size(); i++) {
+                if (accepted.get(i - 1).getEndDate() > accepted.get(i).getStartDate()) {
+                    throw ErrorUtils.generateBadRequest("accommodationUnavailable");
+                }
+            }
+        }
+
+        List<Notification> notifications = new ArrayList<>();
+        for (Reservation reservation : reservations) {
+            ReservationStatus oldStatus = reservation.getStatus();
+            reservation.setStatus(statuses.get(reservation.getId()));
+            publishReservationChange(reservation, oldStatus);
+            revenueRollupService.statusChanged(reservation, oldStatus);
+            Optional.ofNullable(notificationFor(reservation)).ifPresent(notifications::add);
+        }
+        for (Reservation pending : pendingOutsideBatch) {
+            List<Reservation> newlyAccepted = newlyAcceptedByAccommodation.getOrDefault(pending.getAccommodation().getId(), List.of());
+            if (newlyAccepted.stream().anyMatch(accepted -> accepted.getStartDate() < pending.getEndDate() && accepted.getEndDate() > pending.getStartDate())) {
+                pending.setStatus(ReservationStatus.DECLINED);
+                notifications.add(notificationFor(pending));
+            }
+        }
+
+        allReservations.flush();
+        notificationService.createAndSendNotifications(notifications);
+
+        return statuses.keySet().stream()
+                .map(id -> reservations.stream().filter(reservation -> reservation.getId().equals(id)).findFirst().orElseThrow())
+                .map(ReservationCardDto::new)
+                .toList();
+    }
+
+    private void validateHostOwnsReservations(Collection<Reservation> reservations) {
+        if (getLoggedInUserRole() != AccountRole.HOST) {
+            return;
+        }
+
+        Long hostId = getLoggedInUserId();
+        if (reservations.stream().anyMatch(reservation -> !Objects.equals(reservation.getAccommodation().getHost().getId(), hostId))) {
+            throw ErrorUtils.generateException(HttpStatus.FORBIDDEN, "hostNotOwner");
+        }
+    }
+
+    private ReservationCardDto applyReservationStatus(Reservation reservation, ReservationStatus status) {
+        ReservationStatus oldStatus = reservation.getStatus();
         reservation.setStatus(status);
         allReservations.save(reservation);
         allReservations.flush();
+        publishReservationChange(reservation, oldStatus);
+        revenueRollupService.statusChanged(reservation, oldStatus);
         if (reservation.getStatus() == ReservationStatus.ACCEPTED) {
             cancelReservationsThatOverlapWithNewlyAccepted(reservation);
         }
@@ -142,46 +305,59 @@ public class ReservationServiceImpl implements IReservationService {
         return new ReservationCardDto(reservation);
     }
 
+    // Declines every overlapping pending reservation with one UPDATE. The ids are read first with the same predicate under
+    // row locks, since MySQL cannot return them from the UPDATE, and new bookings for the accommodation wait on the booking lock.
     private void cancelReservationsThatOverlapWithNewlyAccepted(Reservation reservation) {
-        Collection<Reservation> overlappingPendingReservations = allReservations.findByAccommodationIdAndStartDateBetweenOrEndDateBetweenAndStatus(
-                reservation.getAccommodation().getId(),
-                reservation.getStartDate(),
-                reservation.getEndDate(),
-                reservation.getStartDate(),
-                reservation.getEndDate(),
-                ReservationStatus.PENDING);
-
-        overlappingPendingReservations.remove(reservation);
-        for (Reservation overlappingPendingReservation : overlappingPendingReservations) {
-            if (Objects.equals(overlappingPendingReservation.getStartDate(), reservation.getEndDate()) ||
-                    Objects.equals(overlappingPendingReservation.getEndDate(), reservation.getStartDate())) {
-                continue;
-            }
+        Long accommodationId = reservation.getAccommodation().getId();
+        List<Long> declinedIds = allReservations.findOverlappingIdsForUpdate(accommodationId, reservation.getStartDate(), reservation.getEndDate(), ReservationStatus.PENDING, reservation.getId());
+        if (declinedIds.isEmpty()) {
+            return;
+        }
 
-            if (overlappingPendingReservation.getStatus() == ReservationStatus.PENDING) {
-                overlappingPendingReservation.setStatus(ReservationStatus.DECLINED);
-                trySendNotification(overlappingPendingReservation);
-                allReservations.save(overlappingPendingReservation);
-                allReservations.flush();
-            }
+        String text = "Your reservation for accommodation " + reservation.getAccommodation().getTitle() + " has been declined";
+        allReservations.updateOverlappingStatus(accommodationId, reservation.getStartDate(), reservation.getEndDate(), ReservationStatus.PENDING, reservation.getId(), ReservationStatus.DECLINED);
+        notificationService.createAndSendNotifications(allReservations.findWithGuestByIdIn(declinedIds).stream()
+                .map(declined -> new Notification(text, NotificationType.HOST_REPLY_TO_REQUEST, declined.getGuest()))
+                .toList());
+    }
+
+    // search results and availability only depend on accepted reservations
+    private void publishReservationChange(Reservation reservation, ReservationStatus oldStatus) {
+        if (reservation.getStatus() == ReservationStatus.ACCEPTED && oldStatus != ReservationStatus.ACCEPTED) {
+            eventPublisher.publishEvent(new AccommodationChangedEvent(reservation.getAccommodation().getId(), AccommodationChangeType.RESERVATION_ACCEPTED));
+        } else if (oldStatus == ReservationStatus.ACCEPTED && reservation.getStatus() != ReservationStatus.ACCEPTED) {
+            eventPublisher.publishEvent(new AccommodationChangedEvent(reservation.getAccommodation().getId(), AccommodationChangeType.RESERVATION_RELEASED));
         }
     }
 
+    private static List<Reservation> accepted(Collection<Reservation> reservations) {
+        return reservations.stream().filter(reservation -> reservation.getStatus() == ReservationStatus.ACCEPTED).toList();
+    }
+
+    private void publishReleasedAccommodations(Collection<Reservation> deletedReservations) {
+        deletedReservations.stream()
+                .filter(reservation -> reservation.getStatus() == ReservationStatus.ACCEPTED)
+                .map(reservation -> reservation.getAccommodation().getId())
+                .distinct()
+                .forEach(accommodationId -> eventPublisher.publishEvent(new AccommodationChangedEvent(accommodationId, AccommodationChangeType.RESERVATION_RELEASED)));
+    }
+
     private void trySendNotification(Reservation reservation) {
-        if (reservation.getStatus() == ReservationStatus.ACCEPTED) {
-            Notification notification = new Notification("Your reservation for accommodation " + reservation.getAccommodation().getTitle() + " has been accepted", NotificationType.HOST_REPLY_TO_REQUEST, reservation.getGuest());
-            notificationService.createAndSendNotification(notification);
-        }
-        if (reservation.getStatus() == ReservationStatus.DECLINED) {
-            Notification notification = new Notification("Your reservation for accommodation " + reservation.getAccommodation().getTitle() + " has been declined", NotificationType.HOST_REPLY_TO_REQUEST, reservation.getGuest());
-            notificationService.createAndSendNotification(notification);
-        }
-        if (reservation.getStatus() == ReservationStatus.CANCELLED) {
-            Notification notification = new Notification("Reservation for accommodation " + reservation.getAccommodation().getTitle() + " has been cancelled", NotificationType.RESERVATION_CANCEL, reservation.getAccommodation().getHost());
+        Notification notification = notificationFor(reservation);
+        if (notification != null) {
             notificationService.createAndSendNotification(notification);
         }
     }
 
+    private static Notification notificationFor(Reservation reservation) {
+        return switch (reservation.getStatus()) {
+            case ACCEPTED -> new Notification("Your reservation for accommodation " + reservation.getAccommodation().getTitle() + " has been accepted", NotificationType.HOST_REPLY_TO_REQUEST, reservation.getGuest());
+            case DECLINED -> new Notification("Your reservation for accommodation " + reservation.getAccommodation().getTitle() + " has been declined", NotificationType.HOST_REPLY_TO_REQUEST, reservation.getGuest());
+            case CANCELLED -> new Notification("Reservation for accommodation " + reservation.getAccommodation().getTitle() + " has been cancelled", NotificationType.RESERVATION_CANCEL, reservation.getAccommodation().getHost());
+            default -> null;
+        };
+    }
+
     private void validateUserChangingStatusEligibility(ReservationStatus status) {
         if (getLoggedInUserRole() == AccountRole.GUEST && status != ReservationStatus.CANCELLED) {
             throw ErrorUtils.generateException(HttpStatus.FORBIDDEN, "guestCannotChangeReservationStatus");
@@ -194,9 +370,13 @@ public class ReservationServiceImpl implements IReservationService {
     }
 
     @Override
+    @Transactional
     public void deleteByGuestId(Long guestId) {
+        Collection<Reservation> reservations = allReservations.findByGuestId(guestId);
         allReservations.deleteByGuestId(guestId);
         allReservations.flush();
+        publishReleasedAccommodations(reservations);
+        revenueRollupService.remove(accepted(reservations));
     }
 
     @Override
@@ -226,6 +406,31 @@ public class ReservationServiceImpl implements IReservationService {
         return allReservations.findAll(HostReservationSpecification.searchAndFilter(hostId, title, startDate, endDate, status));
     }
 
+    @Override
+    public List<ReservationCardDto> findGuestReservationCards(Long guestId, String title, Long startDate, Long endDate, ReservationStatus status, int page, int size) {
+        return withAccommodationImages(allReservations.findGuestReservationCards(guestId, title, startDate, endDate, status, PageRequest.of(page, size)));
+    }
+
+    @Override
+    public List<HostReservationCardDto> findHostReservationCards(Long hostId, String title, Long startDate, Long endDate, ReservationStatus status, int page, int size) {
+        return withAccommodationImages(allReservations.findHostReservationCards(hostId, title, startDate, endDate, status, PageRequest.of(page, size)));
+    }
+
+    // cards come from a projection, so the cover images of all their accommodations are loaded in one extra query
+    private <T extends ReservationCardDto> List<T> withAccommodationImages(List<T> cards) {
+        if (cards.isEmpty()) {
+            return cards;
+        }
+
+        Set<Long> accommodationIds = cards.stream().map(ReservationCardDto::getAccommodationId).collect(Collectors.toSet());
+        Map<Long, String> coverImages = new HashMap<>();
+        for (Object[] row : accommodationRepository.findImagesByIdIn(accommodationIds)) {
+            coverImages.putIfAbsent((Long) row[0], (String) row[1]);
+        }
+        cards.forEach(card -> card.setAccommodationImage(coverImages.getOrDefault(card.getAccommodationId(), "")));
+        return cards;
+    }
+
     @Override
     public void cancelGuestReservations(Long id) {
         allReservations.findByGuestId(id).stream().filter(reservation -> reservation.getStartDate() > Instant.now().toEpochMilli()).forEach(reservation -> {
@@ -236,9 +441,11 @@ public class ReservationServiceImpl implements IReservationService {
     }
 
     @Override
+    @Transactional
     public void deleteByAccommodationHostId(Long id) {
         allReservations.deleteByAccommodation_HostId(id);
         allReservations.flush();
+        revenueRollupService.deleteByAccommodationIds(accommodationRepository.findIdsByHostId(id));
     }
 
     private Reservation convertToReservation(ReservationRequestDto reservationDto) {
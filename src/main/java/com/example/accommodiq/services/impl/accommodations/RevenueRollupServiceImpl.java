@@ -0,0 +1,167 @@
+package com.example.accommodiq.services.impl.accommodations;
+
+import com.example.accommodiq.domain.Reservation;
+import com.example.accommodiq.dtos.RevenueRollupRebuildDto;
+import com.example.accommodiq.enums.ReservationStatus;
+import com.example.accommodiq.repositories.AccommodationRepository;
+import com.example.accommodiq.repositories.DailyRevenueRepository;
+import com.example.accommodiq.repositories.ReservationRepository;
+import com.example.accommodiq.services.interfaces.accommodations.IRevenueRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+import static com.example.accommodiq.indexes.AvailabilityIndex.ONE_DAY;
+
+// Keeps the daily revenue rollup in step with reservations entering and leaving ACCEPTED. Every change is a set of
+// per-day deltas applied with one batched upsert in the caller's transaction, so concurrent changes to the same day add up
+// instead of overwriting each other. Days are upserted in (accommodation, day) order, so two writers cannot deadlock on them.
+@Service
+public class RevenueRollupServiceImpl implements IRevenueRollupService {
+    private static final int REBUILD_BATCH_SIZE = 100;
+    private static final String UPSERT = "INSERT INTO daily_revenue (accommodation_id, day_start, revenue, reservation_count, booked_nights) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE revenue = revenue + VALUES(revenue), reservation_count = reservation_count + VALUES(reservation_count), " +
+            "booked_nights = booked_nights + VALUES(booked_nights)";
+
+    private final DailyRevenueRepository dailyRevenueRepository;
+    private final AccommodationRepository accommodationRepository;
+    private final ReservationRepository reservationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public RevenueRollupServiceImpl(DailyRevenueRepository dailyRevenueRepository, AccommodationRepository accommodationRepository, ReservationRepository reservationRepository,
+                                    JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.dailyRevenueRepository = dailyRevenueRepository;
+        this.accommodationRepository = accommodationRepository;
+        this.reservationRepository = reservationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // the first start after the rollup was introduced fills it from the existing reservations
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (dailyRevenueRepository.count() == 0 && reservationRepository.existsByStatus(ReservationStatus.ACCEPTED)) {
+            rebuild();
+        }
+    }
+
+    @Override
+    @Transactional
+    public void statusChanged(Reservation reservation, ReservationStatus oldStatus) {
+        if (reservation.getStatus() == ReservationStatus.ACCEPTED && oldStatus != ReservationStatus.ACCEPTED) {
+            upsert(deltas(List.of(reservation), 1));
+        } else if (reservation.getStatus() != ReservationStatus.ACCEPTED && oldStatus == ReservationStatus.ACCEPTED) {
+            upsert(deltas(List.of(reservation), -1));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void add(Collection<Reservation> reservations) {
+        upsert(deltas(reservations, 1));
+    }
+
+    @Override
+    @Transactional
+    public void remove(Collection<Reservation> reservations) {
+        upsert(deltas(reservations, -1));
+    }
+
+    @Override
+    @Transactional
+    public void deleteByAccommodationIds(Collection<Long> accommodationIds) {
+        if (!accommodationIds.isEmpty()) {
+            dailyRevenueRepository.deleteAllByAccommodationIdIn(accommodationIds);
+        }
+    }
+
+    // Recomputes the rollup a batch of accommodations at a time. The accommodations and their accepted reservations are
+    // locked while a batch is rebuilt, so bookings and status changes for them wait instead of being lost in the rebuild.
+    @Override
+    public RevenueRollupRebuildDto rebuild() {
+        long startedAt = System.currentTimeMillis();
+        int accommodations = 0;
+        int reservations = 0;
+        int days = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = accommodationRepository.findIdsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            int[] rebuilt = transactionTemplate.execute(status -> rebuildBatch(ids));
+            accommodations += ids.size();
+            reservations += rebuilt[0];
+            days += rebuilt[1];
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> dailyRevenueRepository.deleteOrphaned());
+        return new RevenueRollupRebuildDto(accommodations, reservations, days, System.currentTimeMillis() - startedAt);
+    }
+
+    private int[] rebuildBatch(List<Long> accommodationIds) {
+        accommodationRepository.findAllByIdInForUpdate(accommodationIds);
+        List<Reservation> accepted = reservationRepository.findByAccommodationIdInAndStatusInForUpdate(accommodationIds, List.of(ReservationStatus.ACCEPTED));
+        dailyRevenueRepository.deleteAllByAccommodationIdIn(accommodationIds);
+        SortedMap<DayKey, Delta> deltas = deltas(accepted, 1);
+        upsert(deltas);
+        return new int[]{accepted.size(), deltas.size()};
+    }
+
+    // revenue and the reservation count go to the day the stay starts, and each night to the day it begins on
+    private static SortedMap<DayKey, Delta> deltas(Collection<Reservation> reservations, int sign) {
+        SortedMap<DayKey, Delta> deltas = new TreeMap<>();
+        for (Reservation reservation : reservations) {
+            if (reservation.getStartDate() == null || reservation.getEndDate() == null) {
+                continue;
+            }
+
+            Long accommodationId = reservation.getAccommodation().getId();
+            long firstDay = Math.floorDiv(reservation.getStartDate(), ONE_DAY) * ONE_DAY;
+            long lastDay = Math.floorDiv(reservation.getEndDate(), ONE_DAY) * ONE_DAY;
+            Delta start = deltas.computeIfAbsent(new DayKey(accommodationId, firstDay), key -> new Delta());
+            start.revenue += sign * reservation.getTotalPrice();
+            start.reservations += sign;
+            for (long day = firstDay; day < lastDay; day += ONE_DAY) {
+                deltas.computeIfAbsent(new DayKey(accommodationId, day), key -> new Delta()).nights += sign;
+            }
+        }
+        return deltas;
+    }
+
+    private void upsert(SortedMap<DayKey, Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> rows.add(new Object[]{key.accommodationId(), key.dayStart(), delta.revenue, delta.reservations, delta.nights}));
+        jdbcTemplate.batchUpdate(UPSERT, rows);
+    }
+
+    private record DayKey(Long accommodationId, long dayStart) implements Comparable<DayKey> {
+        @Override
+        public int compareTo(DayKey other) {
+            int byAccommodation = accommodationId.compareTo(other.accommodationId);
+            return byAccommodation != 0 ? byAccommodation : Long.compare(dayStart, other.dayStart);
+        }
+    }
+
+    private static class Delta {
+        private double revenue;
+        private int reservations;
+        private int nights;
+    }
+}
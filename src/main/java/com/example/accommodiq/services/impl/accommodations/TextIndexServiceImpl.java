@@ -0,0 +1,70 @@
+package com.example.accommodiq.services.impl.accommodations;
+
+import com.example.accommodiq.enums.AccommodationChangeType;
+import com.example.accommodiq.events.AccommodationChangedEvent;
+import com.example.accommodiq.indexes.TextIndex;
+import com.example.accommodiq.repositories.AccommodationRepository;
+import com.example.accommodiq.services.interfaces.accommodations.ITextIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+@Service
+public class TextIndexServiceImpl implements ITextIndexService {
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int ADDRESS_WEIGHT = 1;
+
+    final AccommodationRepository accommodationRepository;
+
+    private final TextIndex contentIndex = new TextIndex();
+    private final TextIndex addressIndex = new TextIndex();
+
+    @Autowired
+    public TextIndexServiceImpl(AccommodationRepository accommodationRepository) {
+        this.accommodationRepository = accommodationRepository;
+    }
+
+    @Override
+    public List<TextIndex.Hit> searchContent(String query) {
+        return contentIndex.search(query);
+    }
+
+    @Override
+    public List<TextIndex.Hit> searchAddress(String query) {
+        return addressIndex.search(query);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        contentIndex.clear();
+        addressIndex.clear();
+        for (Object[] texts : accommodationRepository.findAllSearchableTexts()) {
+            index(texts);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccommodationChanged(AccommodationChangedEvent event) {
+        if (event.getChangeType() == AccommodationChangeType.DELETED) {
+            contentIndex.remove(event.getAccommodationId());
+            addressIndex.remove(event.getAccommodationId());
+        } else if (event.getChangeType() == AccommodationChangeType.CREATED || event.getChangeType() == AccommodationChangeType.UPDATED) {
+            contentIndex.remove(event.getAccommodationId());
+            addressIndex.remove(event.getAccommodationId());
+            accommodationRepository.findSearchableTextsById(event.getAccommodationId()).forEach(this::index);
+        }
+    }
+
+    // id, title, description, address
+    private void index(Object[] texts) {
+        Long id = (Long) texts[0];
+        contentIndex.put(id, new TextIndex.WeightedText((String) texts[1], TITLE_WEIGHT), new TextIndex.WeightedText((String) texts[2], DESCRIPTION_WEIGHT));
+        addressIndex.put(id, new TextIndex.WeightedText((String) texts[3], ADDRESS_WEIGHT));
+    }
+}
@@ -2,10 +2,12 @@ package com.example.accommodiq.services.impl.email;
 
 import com.example.accommodiq.domain.Account;
 import com.example.accommodiq.enums.AccountStatus;
+import com.example.accommodiq.events.StatusChangedEvent;
 import com.example.accommodiq.services.interfaces.email.IEmailVerificationService;
 import com.example.accommodiq.services.interfaces.email.IVerificationTokenService;
 import com.example.accommodiq.services.interfaces.users.IAccountService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
@@ -16,11 +18,13 @@ public class EmailVerificationServiceImpl implements IEmailVerificationService {
 
     final IAccountService accountService;
     final IVerificationTokenService verificationTokenService;
+    final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public EmailVerificationServiceImpl(IAccountService accountService, IVerificationTokenService verificationTokenService) {
+    public EmailVerificationServiceImpl(IAccountService accountService, IVerificationTokenService verificationTokenService, ApplicationEventPublisher eventPublisher) {
         this.accountService = accountService;
         this.verificationTokenService = verificationTokenService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -39,6 +43,7 @@ public class EmailVerificationServiceImpl implements IEmailVerificationService {
         if(isActivationLinkActive(account)) {
             account.setStatus(AccountStatus.ACTIVE);
             accountService.update(account);
+            eventPublisher.publishEvent(new StatusChangedEvent(AccountStatus.INACTIVE, AccountStatus.ACTIVE));
             return ResponseEntity.ok("Activation successful");
         }
 
@@ -9,6 +9,7 @@ import com.example.accommodiq.dtos.ReportCardDto;
 import com.example.accommodiq.dtos.ReportDto;
 import com.example.accommodiq.dtos.ReportModificationDto;
 import com.example.accommodiq.enums.AccountRole;
+import com.example.accommodiq.events.ReportCountChangedEvent;
 import com.example.accommodiq.repositories.ReportRepository;
 import com.example.accommodiq.services.interfaces.accommodations.IReservationService;
 import com.example.accommodiq.services.interfaces.feedback.IReportService;
@@ -16,6 +17,7 @@ import com.example.accommodiq.services.interfaces.users.IAccountService;
 import com.example.accommodiq.services.interfaces.users.IUserService;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
@@ -37,12 +39,16 @@ public class ReportServiceImpl implements IReportService {
 
     final IAccountService accountService;
 
+    final ApplicationEventPublisher eventPublisher;
+
     @Autowired
-    public ReportServiceImpl(ReportRepository allReports, IUserService userService, IReservationService reservationService, IAccountService accountService) {
+    public ReportServiceImpl(ReportRepository allReports, IUserService userService, IReservationService reservationService, IAccountService accountService,
+                             ApplicationEventPublisher eventPublisher) {
         this.allReports = allReports;
         this.userService = userService;
         this.reservationService = reservationService;
         this.accountService = accountService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -70,6 +76,7 @@ public class ReportServiceImpl implements IReportService {
         try {
             allReports.save(report);
             allReports.flush();
+            eventPublisher.publishEvent(new ReportCountChangedEvent(1));
             return report;
         } catch (ConstraintViolationException ex) {
             throw generateBadRequest("reportInsertFailed");
@@ -82,6 +89,7 @@ public class ReportServiceImpl implements IReportService {
         try {
             allReports.save(report);
             allReports.flush();
+            eventPublisher.publishEvent(new ReportCountChangedEvent(1));
             return new ReportModificationDto(report);
         } catch (ConstraintViolationException ex) {
             throw generateBadRequest("reportInsertFailed");
@@ -110,6 +118,7 @@ public class ReportServiceImpl implements IReportService {
         Report report = findReport(reportId);
         allReports.delete(report);
         allReports.flush();
+        eventPublisher.publishEvent(new ReportCountChangedEvent(-1));
         return new MessageDto("Report deleted successfully");
     }
 
@@ -1,19 +1,31 @@
 package com.example.accommodiq.services.impl.feedback;
 
 import com.example.accommodiq.domain.Review;
+import com.example.accommodiq.domain.ReviewStats;
 import com.example.accommodiq.dtos.MessageDto;
 import com.example.accommodiq.dtos.ReviewDto;
+import com.example.accommodiq.enums.AccommodationChangeType;
 import com.example.accommodiq.enums.ReviewStatus;
+import com.example.accommodiq.events.AccommodationChangedEvent;
+import com.example.accommodiq.events.StatusChangedEvent;
+import com.example.accommodiq.repositories.AccommodationRepository;
+import com.example.accommodiq.repositories.HostRepository;
 import com.example.accommodiq.repositories.ReviewRepository;
 import com.example.accommodiq.services.interfaces.feedback.IReviewService;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import static com.example.accommodiq.utilities.ErrorUtils.generateException;
 import static com.example.accommodiq.utilities.ErrorUtils.generateNotFound;
 
 @Service
@@ -21,9 +33,18 @@ public class ReviewServiceImpl implements IReviewService {
 
     final ReviewRepository allReviews;
 
+    final AccommodationRepository allAccommodations;
+
+    final HostRepository allHosts;
+
+    final ApplicationEventPublisher eventPublisher;
+
     @Autowired
-    public ReviewServiceImpl(ReviewRepository allReviews) {
+    public ReviewServiceImpl(ReviewRepository allReviews, AccommodationRepository allAccommodations, HostRepository allHosts, ApplicationEventPublisher eventPublisher) {
         this.allReviews = allReviews;
+        this.allAccommodations = allAccommodations;
+        this.allHosts = allHosts;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -45,6 +66,7 @@ public class ReviewServiceImpl implements IReviewService {
         try {
             allReviews.save(review);
             allReviews.flush();
+            eventPublisher.publishEvent(new StatusChangedEvent(null, review.getStatus()));
             return review;
         } catch (ConstraintViolationException ex) {
             throw generateNotFound("reviewInsertFailed");
@@ -52,11 +74,13 @@ public class ReviewServiceImpl implements IReviewService {
     }
 
     @Override
+    @Transactional
     public Review update(Review review) {
         try {
             findReview(review.getId());
             allReviews.save(review);
             allReviews.flush();
+            refreshOwnerStats(review.getId());
             return review;
         } catch (ConstraintViolationException ex) {
             throw generateNotFound("reviewUpdateFailed");
@@ -64,12 +88,15 @@ public class ReviewServiceImpl implements IReviewService {
     }
 
     @Override
+    @Transactional
     public MessageDto delete(Long reviewId) {
-        Review review = findReview(reviewId);
+        Review review = allReviews.findByIdForUpdate(reviewId).orElseThrow(() -> generateNotFound("reviewNotFound"));
+        addOwnerStats(reviewId, ReviewStats.delta(review.getStatus(), null, review.getRating()));
         allReviews.deleteFromAccommodationReviews(reviewId);
         allReviews.deleteFromHostReviews(reviewId);
         allReviews.delete(review);
         allReviews.flush();
+        eventPublisher.publishEvent(new StatusChangedEvent(review.getStatus(), null));
         return new MessageDto("Review successfully deleted.");
     }
 
@@ -77,21 +104,34 @@ public class ReviewServiceImpl implements IReviewService {
     public void deleteAll() {
         allReviews.deleteAll();
         allReviews.flush();
+        reconcileReviewStats();
     }
 
     @Override
+    @Transactional
     public MessageDto setReviewStatus(Long reviewId, ReviewStatus reviewStatus) {
-        Review review = findReview(reviewId);
-        review.setStatus(reviewStatus);
-        allReviews.save(review);
-        allReviews.flush();
+        changeStatus(findReview(reviewId), reviewStatus);
         return new MessageDto("Review status updated successfully");
     }
 
     @Override
+    @Transactional
+    public void changeStatus(Review review, ReviewStatus reviewStatus) {
+        ReviewStatus oldStatus = review.getStatus();
+        if (allReviews.updateStatus(review.getId(), oldStatus, reviewStatus) == 0) {
+            throw generateException(HttpStatus.CONFLICT, "reviewStatusChanged");
+        }
+        review.setStatus(reviewStatus);
+        addOwnerStats(review.getId(), ReviewStats.delta(oldStatus, reviewStatus, review.getRating()));
+        eventPublisher.publishEvent(new StatusChangedEvent(oldStatus, reviewStatus));
+    }
+
+    @Override
+    @Transactional
     public void deleteByGuestId(Long id) {
-        List<Review> reviews = allReviews.findByGuestId(id);
+        List<Review> reviews = allReviews.findByGuestIdForUpdate(id);
         for (Review review : reviews) {
+            addOwnerStats(review.getId(), ReviewStats.delta(review.getStatus(), null, review.getRating()));
             allReviews.deleteFromAccommodationReviews(review.getId());
             allReviews.deleteFromHostReviews(review.getId());
         }
@@ -108,4 +148,30 @@ public class ReviewServiceImpl implements IReviewService {
     public Collection<ReviewDto> getPendingReviews() {
         return allReviews.findByStatus(ReviewStatus.PENDING).stream().map(ReviewDto::new).toList();
     }
+
+    // stats are kept up to date incrementally, this only catches rows written before they existed or by hand
+    @Override
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileReviewStats() {
+        allAccommodations.refreshReviewStats();
+        allHosts.refreshReviewStats();
+    }
+
+    // the counters are incremented in place, so concurrent reviews of the same owner add up instead of overwriting each other
+    private void addOwnerStats(Long reviewId, ReviewStats delta) {
+        allAccommodations.findIdByReviewId(reviewId).ifPresent(accommodationId -> {
+            allAccommodations.addReviewStats(accommodationId, delta);
+            eventPublisher.publishEvent(new AccommodationChangedEvent(accommodationId, AccommodationChangeType.REVIEWED));
+        });
+        allHosts.findIdByReviewId(reviewId).ifPresent(hostId -> allHosts.addReviewStats(hostId, delta));
+    }
+
+    private void refreshOwnerStats(Long reviewId) {
+        allAccommodations.findIdByReviewId(reviewId).ifPresent(accommodationId -> {
+            allAccommodations.refreshReviewStatsById(accommodationId);
+            eventPublisher.publishEvent(new AccommodationChangedEvent(accommodationId, AccommodationChangeType.REVIEWED));
+        });
+        allHosts.findIdByReviewId(reviewId).ifPresent(allHosts::refreshReviewStatsById);
+    }
 }
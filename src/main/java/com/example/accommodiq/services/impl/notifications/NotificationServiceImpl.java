@@ -7,16 +7,11 @@ import com.example.accommodiq.enums.NotificationType;
 import com.example.accommodiq.repositories.NotificationRepository;
 import com.example.accommodiq.services.interfaces.notifications.INotificationService;
 import com.example.accommodiq.services.interfaces.notifications.INotificationSettingService;
+import com.example.accommodiq.services.interfaces.notifications.IOutboxService;
 import com.example.accommodiq.services.interfaces.users.IUserService;
-import com.google.firebase.messaging.FirebaseMessaging;
-import com.google.firebase.messaging.FirebaseMessagingException;
-import com.google.firebase.messaging.Message;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatusCode;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Collection;
 import java.util.List;
@@ -26,7 +21,6 @@ import static com.example.accommodiq.utilities.ErrorUtils.generateNotFound;
 
 @Service
 public class NotificationServiceImpl implements INotificationService {
-
     final
     NotificationRepository allNotifications;
 
@@ -34,17 +28,14 @@ public class NotificationServiceImpl implements INotificationService {
 
     final INotificationSettingService notificationSettingService;
 
-    final SimpMessagingTemplate messagingTemplate;
-
-    final FirebaseMessaging firebaseMessaging;
+    final IOutboxService outboxService;
 
     @Autowired
-    public NotificationServiceImpl(NotificationRepository allNotifications, IUserService userService, INotificationSettingService notificationSettingService, SimpMessagingTemplate messagingTemplate, FirebaseMessaging firebaseMessaging) {
+    public NotificationServiceImpl(NotificationRepository allNotifications, IUserService userService, INotificationSettingService notificationSettingService, IOutboxService outboxService) {
         this.allNotifications = allNotifications;
         this.userService = userService;
         this.notificationSettingService = notificationSettingService;
-        this.messagingTemplate = messagingTemplate;
-        this.firebaseMessaging = firebaseMessaging;
+        this.outboxService = outboxService;
     }
 
     @Override
@@ -71,26 +62,25 @@ public class NotificationServiceImpl implements INotificationService {
         return allNotifications.findAllByUserIdAndTypeIsInOrderByTimeDesc(userId, notificationTypes).stream().map(NotificationDto::new).toList();
     }
 
+    // delivery goes through the outbox, so the notification is sent only if the caller's transaction commits
     @Override
+    @Transactional
     public void createAndSendNotification(Notification notification) {
         allNotifications.save(notification);
         allNotifications.flush();
-        NotificationDto notificationDto = new NotificationDto(notification);
-        messagingTemplate.convertAndSend("/socket-publisher/" + notification.getUser().getId(), notificationDto);
-
-        Message message = Message.builder()
-                .setNotification(com.google.firebase.messaging.Notification.builder()
-                        .setTitle(notification.getType().toString())
-                        .setBody(notification.getText())
-                        .build())
-                .setTopic("user-" + notification.getUser().getId())
-                .build();
-
-        try {
-            firebaseMessaging.send(message);
-        } catch (FirebaseMessagingException e) {
-            throw new ResponseStatusException(HttpStatusCode.valueOf(502), "Firebase error");
+        outboxService.enqueueNotifications(List.of(notification));
+    }
+
+    @Override
+    @Transactional
+    public void createAndSendNotifications(Collection<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
         }
+
+        allNotifications.saveAll(notifications);
+        allNotifications.flush();
+        outboxService.enqueueNotifications(notifications);
     }
 
     @Override
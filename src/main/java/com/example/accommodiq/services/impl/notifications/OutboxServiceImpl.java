@@ -0,0 +1,209 @@
+package com.example.accommodiq.services.impl.notifications;
+
+import com.example.accommodiq.domain.Notification;
+import com.example.accommodiq.domain.OutboxMessage;
+import com.example.accommodiq.dtos.NotificationDto;
+import com.example.accommodiq.enums.OutboxChannel;
+import com.example.accommodiq.repositories.NotificationRepository;
+import com.example.accommodiq.repositories.OutboxMessageRepository;
+import com.example.accommodiq.services.interfaces.email.IEmailService;
+import com.example.accommodiq.services.interfaces.notifications.IOutboxService;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.SendResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Transactional outbox. Messages are stored with the change that caused them and delivered later by the relay,
+// so a slow or failing push provider neither delays nor fails the request. The relay claims due messages for a lease,
+// delivers them outside any transaction, deletes what went through and reschedules failures with exponential backoff.
+// Delivery is at least once: a crash after sending but before completing the batch sends those messages again.
+@Service
+public class OutboxServiceImpl implements IOutboxService {
+    private static final int FIREBASE_BATCH_SIZE = 500;
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final OutboxMessageRepository outboxRepository;
+    private final NotificationRepository notificationRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final FirebaseMessaging firebaseMessaging;
+    private final IEmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long leaseMillis;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+    private final int maxAttempts;
+
+    @Autowired
+    public OutboxServiceImpl(OutboxMessageRepository outboxRepository, NotificationRepository notificationRepository, SimpMessagingTemplate messagingTemplate,
+                             FirebaseMessaging firebaseMessaging, IEmailService emailService, PlatformTransactionManager transactionManager,
+                             @Value("${outbox.relay.batch-size:200}") int batchSize, @Value("${outbox.relay.lease-ms:60000}") long leaseMillis,
+                             @Value("${outbox.relay.backoff-base-ms:1000}") long backoffBaseMillis, @Value("${outbox.relay.backoff-max-ms:600000}") long backoffMaxMillis,
+                             @Value("${outbox.relay.max-attempts:12}") int maxAttempts) {
+        this.outboxRepository = outboxRepository;
+        this.notificationRepository = notificationRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.firebaseMessaging = firebaseMessaging;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.leaseMillis = leaseMillis;
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    @Transactional
+    public void enqueueNotifications(Collection<Notification> notifications) {
+        List<OutboxMessage> messages = new ArrayList<>(notifications.size() * 2);
+        for (Notification notification : notifications) {
+            messages.add(new OutboxMessage(OutboxChannel.WEBSOCKET, notification.getId(), null));
+            messages.add(new OutboxMessage(OutboxChannel.PUSH, notification.getId(), null));
+        }
+        outboxRepository.saveAll(messages);
+    }
+
+    @Override
+    @Transactional
+    public void enqueueVerificationEmail(Long accountId, String email) {
+        outboxRepository.save(new OutboxMessage(OutboxChannel.VERIFICATION_EMAIL, accountId, email));
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public void scheduledRelay() {
+        relay();
+    }
+
+    @Override
+    public int relay() {
+        int delivered = 0;
+        while (true) {
+            List<OutboxMessage> claimed = transactionTemplate.execute(status -> claim());
+            if (claimed.isEmpty()) {
+                return delivered;
+            }
+
+            Map<Long, String> failures = deliver(claimed);
+            transactionTemplate.executeWithoutResult(status -> complete(claimed, failures));
+            delivered += claimed.size() - failures.size();
+            if (claimed.size() < batchSize) {
+                return delivered;
+            }
+        }
+    }
+
+    // the lease makes the messages invisible to other relays and brings them back if this one dies mid-delivery
+    private List<OutboxMessage> claim() {
+        long now = System.currentTimeMillis();
+        List<OutboxMessage> due = outboxRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+        due.forEach(message -> message.setNextAttemptAt(now + leaseMillis));
+        return due;
+    }
+
+    // returns the error of every message that could not be delivered, by message id
+    private Map<Long, String> deliver(List<OutboxMessage> messages) {
+        Map<Long, String> failures = new HashMap<>();
+        Map<OutboxChannel, List<OutboxMessage>> byChannel = new EnumMap<>(OutboxChannel.class);
+        messages.forEach(message -> byChannel.computeIfAbsent(message.getChannel(), channel -> new ArrayList<>()).add(message));
+
+        Set<Long> notificationIds = new HashSet<>();
+        byChannel.getOrDefault(OutboxChannel.WEBSOCKET, List.of()).forEach(message -> notificationIds.add(message.getReferenceId()));
+        byChannel.getOrDefault(OutboxChannel.PUSH, List.of()).forEach(message -> notificationIds.add(message.getReferenceId()));
+        Map<Long, NotificationDto> notifications = new HashMap<>();
+        Map<Long, Long> recipients = new HashMap<>();
+        if (!notificationIds.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> notificationRepository.findAllById(notificationIds).forEach(notification -> {
+                notifications.put(notification.getId(), new NotificationDto(notification));
+                recipients.put(notification.getId(), notification.getUser().getId());
+            }));
+        }
+
+        // notifications deleted in the meantime have nobody left to notify, so their messages count as delivered
+        for (OutboxMessage message : byChannel.getOrDefault(OutboxChannel.WEBSOCKET, List.of())) {
+            NotificationDto notification = notifications.get(message.getReferenceId());
+            if (notification == null) {
+                continue;
+            }
+            try {
+                messagingTemplate.convertAndSend("/socket-publisher/" + recipients.get(message.getReferenceId()), notification);
+            } catch (RuntimeException ex) {
+                failures.put(message.getId(), ex.getMessage());
+            }
+        }
+
+        List<OutboxMessage> pushes = byChannel.getOrDefault(OutboxChannel.PUSH, List.of()).stream()
+                .filter(message -> notifications.containsKey(message.getReferenceId())).toList();
+        for (int from = 0; from < pushes.size(); from += FIREBASE_BATCH_SIZE) {
+            List<OutboxMessage> chunk = pushes.subList(from, Math.min(from + FIREBASE_BATCH_SIZE, pushes.size()));
+            List<Message> firebaseMessages = chunk.stream()
+                    .map(message -> toFirebaseMessage(notifications.get(message.getReferenceId()), recipients.get(message.getReferenceId()))).toList();
+            try {
+                BatchResponse response = firebaseMessaging.sendAll(firebaseMessages);
+                for (int i = 0; i < chunk.size(); i++) {
+                    SendResponse sendResponse = response.getResponses().get(i);
+                    if (!sendResponse.isSuccessful()) {
+                        failures.put(chunk.get(i).getId(), sendResponse.getException().getMessage());
+                    }
+                }
+            } catch (FirebaseMessagingException | RuntimeException ex) {
+                chunk.forEach(message -> failures.put(message.getId(), ex.getMessage()));
+            }
+        }
+
+        for (OutboxMessage message : byChannel.getOrDefault(OutboxChannel.VERIFICATION_EMAIL, List.of())) {
+            try {
+                emailService.sendVerificationEmail(message.getReferenceId(), message.getRecipient());
+            } catch (RuntimeException ex) {
+                failures.put(message.getId(), ex.getMessage());
+            }
+        }
+
+        return failures;
+    }
+
+    // messages that keep failing are parked without a next attempt and stay in the table with their last error
+    private void complete(List<OutboxMessage> messages, Map<Long, String> failures) {
+        List<Long> deliveredIds = messages.stream().map(OutboxMessage::getId).filter(id -> !failures.containsKey(id)).toList();
+        if (!deliveredIds.isEmpty()) {
+            outboxRepository.deleteAllByIdIn(deliveredIds);
+        }
+
+        long now = System.currentTimeMillis();
+        for (OutboxMessage message : outboxRepository.findAllById(failures.keySet())) {
+            String error = Objects.toString(failures.get(message.getId()), "");
+            message.setAttempts(message.getAttempts() + 1);
+            message.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            message.setNextAttemptAt(message.getAttempts() < maxAttempts ? now + backoff(message.getAttempts()) : null);
+        }
+    }
+
+    // exponential with equal jitter, so messages that failed together do not all retry at the same moment
+    private long backoff(int attempts) {
+        long delay = Math.min(backoffMaxMillis, backoffBaseMillis << Math.min(attempts - 1, 30));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private static Message toFirebaseMessage(NotificationDto notification, Long userId) {
+        return Message.builder()
+                .setNotification(com.google.firebase.messaging.Notification.builder()
+                        .setTitle(notification.getType().toString())
+                        .setBody(notification.getText())
+                        .build())
+                .setTopic("user-" + userId)
+                .build();
+    }
+}
@@ -5,20 +5,25 @@ import com.example.accommodiq.dtos.AccountDetailsDto;
 import com.example.accommodiq.dtos.MessageDto;
 import com.example.accommodiq.dtos.RegisterDto;
 import com.example.accommodiq.dtos.UpdatePasswordDto;
+import com.example.accommodiq.enums.AccommodationChangeType;
 import com.example.accommodiq.enums.AccountRole;
 import com.example.accommodiq.enums.AccountStatus;
+import com.example.accommodiq.events.AccommodationChangedEvent;
+import com.example.accommodiq.events.StatusChangedEvent;
 import com.example.accommodiq.repositories.AccommodationRepository;
 import com.example.accommodiq.repositories.AccountRepository;
 import com.example.accommodiq.repositories.ReportRepository;
+import com.example.accommodiq.services.interfaces.accommodations.IReservationHoldService;
 import com.example.accommodiq.services.interfaces.accommodations.IReservationService;
-import com.example.accommodiq.services.interfaces.email.IEmailService;
 import com.example.accommodiq.services.interfaces.feedback.IReviewService;
 import com.example.accommodiq.services.interfaces.notifications.INotificationService;
 import com.example.accommodiq.services.interfaces.notifications.INotificationSettingService;
+import com.example.accommodiq.services.interfaces.notifications.IOutboxService;
 import com.example.accommodiq.services.interfaces.users.IAccountService;
 import com.example.accommodiq.utilities.ErrorUtils;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -36,12 +41,14 @@ import java.util.ResourceBundle;
 public class AccountServiceImpl implements IAccountService {
     final AccountRepository allAccounts;
 
-    final IEmailService emailService;
+    final IOutboxService outboxService;
 
     final INotificationSettingService notificationSettingService;
 
     final IReservationService reservationService;
 
+    final IReservationHoldService reservationHoldService;
+
     final AccommodationRepository accommodationRepository;
     final ReportRepository reportRepository;
 
@@ -49,18 +56,23 @@ public class AccountServiceImpl implements IAccountService {
 
     final INotificationService notificationService;
 
+    final ApplicationEventPublisher eventPublisher;
+
     ResourceBundle bundle = ResourceBundle.getBundle("ValidationMessages", LocaleContextHolder.getLocale());
 
     @Autowired
-    public AccountServiceImpl(AccountRepository allAccounts, IEmailService emailService, INotificationSettingService notificationSettingService, IReservationService reservationService, AccommodationRepository accommodationRepository, ReportRepository reportRepository, IReviewService reviewService, INotificationService notificationService) {
+    public AccountServiceImpl(AccountRepository allAccounts, IOutboxService outboxService, INotificationSettingService notificationSettingService, IReservationService reservationService, AccommodationRepository accommodationRepository, ReportRepository reportRepository, IReviewService reviewService, INotificationService notificationService,
+                              ApplicationEventPublisher eventPublisher, IReservationHoldService reservationHoldService) {
         this.allAccounts = allAccounts;
-        this.emailService = emailService;
+        this.outboxService = outboxService;
         this.notificationSettingService = notificationSettingService;
         this.reservationService = reservationService;
         this.accommodationRepository = accommodationRepository;
         this.reportRepository = reportRepository;
         this.reviewService = reviewService;
         this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.reservationHoldService = reservationHoldService;
     }
 
     @Override
@@ -104,7 +116,8 @@ public class AccountServiceImpl implements IAccountService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Account cannot be inserted");
         }
         notificationSettingService.setNotificationSettingsForUser(account.getUser(), account.getRole());
-        emailService.sendVerificationEmail(account.getId(), account.getEmail());
+        outboxService.enqueueVerificationEmail(account.getId(), account.getEmail());
+        eventPublisher.publishEvent(new StatusChangedEvent(null, account.getStatus()));
     }
 
     @Override
@@ -135,9 +148,12 @@ public class AccountServiceImpl implements IAccountService {
             if (!reservations.isEmpty()) {
                 throw ErrorUtils.generateBadRequest("hostHasAcceptedReservations");
             }
+            List<Long> accommodationIds = accommodationRepository.findByHostId(accountId).stream().map(Accommodation::getId).toList();
             reservationService.deleteByAccommodationHostId(found.getUser().getId());
+            reservationHoldService.deleteByAccommodationIds(accommodationIds);
             accommodationRepository.deleteAllByHostId(accountId);
             accommodationRepository.flush();
+            accommodationIds.forEach(accommodationId -> eventPublisher.publishEvent(new AccommodationChangedEvent(accommodationId, AccommodationChangeType.DELETED)));
         }
 
         if (found.getRole() == AccountRole.GUEST) {
@@ -149,6 +165,7 @@ public class AccountServiceImpl implements IAccountService {
             }
 
             reservationService.deleteByGuestId(accountId);
+            reservationHoldService.deleteByGuestId(accountId);
         }
 
         reportRepository.deleteByReportingUserId(accountId);
@@ -162,6 +179,7 @@ public class AccountServiceImpl implements IAccountService {
 
         allAccounts.delete(found);
         allAccounts.flush();
+        eventPublisher.publishEvent(new StatusChangedEvent(found.getStatus(), null));
     }
 
     @Override
@@ -173,9 +191,11 @@ public class AccountServiceImpl implements IAccountService {
     @Override
     public void changeStatusByUserId(Long userId, AccountStatus accountStatus) {
         Account account = findAccountByUserId(userId);
+        AccountStatus oldStatus = account.getStatus();
         account.setStatus(accountStatus);
         allAccounts.save(account);
         allAccounts.flush();
+        eventPublisher.publishEvent(new StatusChangedEvent(oldStatus, accountStatus));
 
         if (accountStatus == AccountStatus.BLOCKED && account.getRole() == AccountRole.GUEST) {
             reservationService.cancelGuestReservations(account.getUser().getId());
@@ -0,0 +1,179 @@
+package com.example.accommodiq.services.impl.users;
+
+import com.example.accommodiq.dtos.AdminDashboardDto;
+import com.example.accommodiq.enums.AccommodationStatus;
+import com.example.accommodiq.enums.AccountStatus;
+import com.example.accommodiq.enums.ReservationStatus;
+import com.example.accommodiq.enums.ReviewStatus;
+import com.example.accommodiq.events.ReportCountChangedEvent;
+import com.example.accommodiq.events.StatusChangedEvent;
+import com.example.accommodiq.repositories.AccommodationRepository;
+import com.example.accommodiq.repositories.AccountRepository;
+import com.example.accommodiq.repositories.ReportRepository;
+import com.example.accommodiq.repositories.ReservationRepository;
+import com.example.accommodiq.repositories.ReviewRepository;
+import com.example.accommodiq.services.interfaces.users.IAdminDashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static com.example.accommodiq.indexes.AvailabilityIndex.ONE_DAY;
+
+// Platform counters for the admin dashboard, kept in memory. Committed status transitions and report changes are applied
+// as deltas, and a periodic reconciliation replaces everything with grouped counts over indexed columns. Bulk deletes
+// publish no events, so their effect shows after the next reconciliation.
+@Service
+public class AdminDashboardServiceImpl implements IAdminDashboardService {
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final AccommodationRepository accommodationRepository;
+    private final ReviewRepository reviewRepository;
+    private final ReportRepository reportRepository;
+    private final AccountRepository accountRepository;
+    private final ReservationRepository reservationRepository;
+    private final int bookingDays;
+
+    private final long[] accommodations = new long[AccommodationStatus.values().length];
+    private final long[] reviews = new long[ReviewStatus.values().length];
+    private final long[] accounts = new long[AccountStatus.values().length];
+    private final TreeMap<Long, Long> bookingsPerDay = new TreeMap<>();
+    private long reports;
+    private long reconciledAt;
+    // bumped by every applied event, so a reconciliation can tell whether deltas arrived while it was counting
+    private long generation;
+
+    @Autowired
+    public AdminDashboardServiceImpl(AccommodationRepository accommodationRepository, ReviewRepository reviewRepository, ReportRepository reportRepository,
+                                     AccountRepository accountRepository, ReservationRepository reservationRepository,
+                                     @Value("${admin.dashboard.booking-days:30}") int bookingDays) {
+        this.accommodationRepository = accommodationRepository;
+        this.reviewRepository = reviewRepository;
+        this.reportRepository = reportRepository;
+        this.accountRepository = accountRepository;
+        this.reservationRepository = reservationRepository;
+        this.bookingDays = bookingDays;
+    }
+
+    @Override
+    public synchronized AdminDashboardDto getDashboard() {
+        Map<ReviewStatus, Long> reviewsByStatus = new EnumMap<>(ReviewStatus.class);
+        for (ReviewStatus status : ReviewStatus.values()) {
+            reviewsByStatus.put(status, reviews[status.ordinal()]);
+        }
+        Map<AccountStatus, Long> accountsByStatus = new EnumMap<>(AccountStatus.class);
+        for (AccountStatus status : AccountStatus.values()) {
+            accountsByStatus.put(status, accounts[status.ordinal()]);
+        }
+
+        // every day of the window is listed, the ones without bookings with zero
+        long today = Math.floorDiv(System.currentTimeMillis(), ONE_DAY);
+        Map<String, Long> bookings = new LinkedHashMap<>();
+        for (long day = today - bookingDays + 1; day <= today; day++) {
+            bookings.put(LocalDate.ofEpochDay(day).toString(), bookingsPerDay.getOrDefault(day, 0L));
+        }
+        return new AdminDashboardDto(accommodations[AccommodationStatus.PENDING.ordinal()], reviewsByStatus, reports, accountsByStatus, bookings, reconciledAt);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onStatusChanged(StatusChangedEvent event) {
+        if (event.getOldStatus() == event.getNewStatus()) {
+            return;
+        }
+        generation++;
+        if (event.getOldStatus() != null) {
+            apply(event.getOldStatus(), -1);
+        }
+        if (event.getNewStatus() != null) {
+            apply(event.getNewStatus(), 1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReportCountChanged(ReportCountChangedEvent event) {
+        generation++;
+        reports += event.getDelta();
+    }
+
+    private void apply(Enum<?> status, int delta) {
+        if (status instanceof AccommodationStatus) {
+            add(accommodations, status, delta);
+        } else if (status instanceof ReviewStatus) {
+            add(reviews, status, delta);
+        } else if (status instanceof AccountStatus) {
+            add(accounts, status, delta);
+        } else if (status instanceof ReservationStatus && delta > 0) {
+            // only creations count as bookings; a status change removes as much as it adds
+            long today = Math.floorDiv(System.currentTimeMillis(), ONE_DAY);
+            bookingsPerDay.merge(today, 1L, Long::sum);
+            bookingsPerDay.headMap(today - bookingDays + 1).clear();
+        }
+    }
+
+    private static void add(long[] counters, Enum<?> status, int delta) {
+        counters[status.ordinal()] += delta;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${admin.dashboard.reconcile-ms:300000}", initialDelayString = "${admin.dashboard.reconcile-ms:300000}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    // The counts are read outside the lock. A delta applied meanwhile may or may not be in them, so the counters are only
+    // overwritten when none arrived; otherwise the counting is retried, and on a busy system left to the next run.
+    @Override
+    public AdminDashboardDto reconcile() {
+        for (int attempt = 0; attempt < RECONCILE_ATTEMPTS; attempt++) {
+            long startGeneration;
+            synchronized (this) {
+                startGeneration = generation;
+            }
+
+            long[] accommodationCounts = countByStatus(accommodationRepository.countByStatus(), AccommodationStatus.values().length);
+            long[] reviewCounts = countByStatus(reviewRepository.countByStatus(), ReviewStatus.values().length);
+            long[] accountCounts = countByStatus(accountRepository.countByStatus(), AccountStatus.values().length);
+            long reportCount = reportRepository.count();
+            long today = Math.floorDiv(System.currentTimeMillis(), ONE_DAY);
+            TreeMap<Long, Long> bookings = new TreeMap<>();
+            for (Object[] row : reservationRepository.countCreatedPerDaySince((today - bookingDays + 1) * ONE_DAY)) {
+                bookings.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+            }
+
+            synchronized (this) {
+                if (generation != startGeneration) {
+                    continue;
+                }
+                System.arraycopy(accommodationCounts, 0, accommodations, 0, accommodations.length);
+                System.arraycopy(reviewCounts, 0, reviews, 0, reviews.length);
+                System.arraycopy(accountCounts, 0, accounts, 0, accounts.length);
+                reports = reportCount;
+                bookingsPerDay.clear();
+                bookingsPerDay.putAll(bookings);
+                reconciledAt = System.currentTimeMillis();
+                return getDashboard();
+            }
+        }
+        return getDashboard();
+    }
+
+    private static long[] countByStatus(List<Object[]> rows, int statuses) {
+        long[] counts = new long[statuses];
+        for (Object[] row : rows) {
+            if (row[0] != null) {
+                counts[((Enum<?>) row[0]).ordinal()] = ((Number) row[1]).longValue();
+            }
+        }
+        return counts;
+    }
+}
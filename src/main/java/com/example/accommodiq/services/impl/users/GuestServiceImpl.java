@@ -2,20 +2,26 @@ package com.example.accommodiq.services.impl.users;
 
 import com.example.accommodiq.domain.*;
 import com.example.accommodiq.dtos.*;
+import com.example.accommodiq.enums.AccommodationChangeType;
 import com.example.accommodiq.enums.AccountRole;
 import com.example.accommodiq.enums.AccountStatus;
 import com.example.accommodiq.enums.NotificationType;
 import com.example.accommodiq.enums.ReservationStatus;
+import com.example.accommodiq.events.AccommodationChangedEvent;
+import com.example.accommodiq.events.StatusChangedEvent;
 import com.example.accommodiq.repositories.AccommodationRepository;
 import com.example.accommodiq.repositories.GuestRepository;
 import com.example.accommodiq.repositories.ReservationRepository;
+import com.example.accommodiq.services.interfaces.accommodations.IBookingLockService;
+import com.example.accommodiq.services.interfaces.accommodations.IReservationHoldService;
+import com.example.accommodiq.services.interfaces.accommodations.IReservationService;
+import com.example.accommodiq.services.interfaces.accommodations.IRevenueRollupService;
 import com.example.accommodiq.services.interfaces.notifications.INotificationService;
 import com.example.accommodiq.services.interfaces.users.IAccountService;
 import com.example.accommodiq.services.interfaces.users.IGuestService;
-import com.example.accommodiq.specifications.GuestReservationSpecification;
 import com.example.accommodiq.utilities.ErrorUtils;
-import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -28,20 +34,33 @@ import java.util.Optional;
 
 @Service
 public class GuestServiceImpl implements IGuestService {
+    private final static int RESERVATIONS_PAGE_SIZE = 20;
     final private GuestRepository guestRepository;
     final private AccommodationRepository accommodationRepository;
     final private IAccountService accountService;
     final private ReservationRepository reservationRepository;
     final private INotificationService notificationService;
+    final private ApplicationEventPublisher eventPublisher;
+    final private IBookingLockService bookingLockService;
+    final private IReservationHoldService reservationHoldService;
+    final private IReservationService reservationService;
+    final private IRevenueRollupService revenueRollupService;
 
     @Autowired
     public GuestServiceImpl(GuestRepository guestRepository, AccommodationRepository accommodationRepository, IAccountService accountService,
-                            ReservationRepository reservationRepository, INotificationService notificationService) {
+                            ReservationRepository reservationRepository, INotificationService notificationService, ApplicationEventPublisher eventPublisher,
+                            IBookingLockService bookingLockService, IReservationHoldService reservationHoldService, IReservationService reservationService,
+                            IRevenueRollupService revenueRollupService) {
         this.guestRepository = guestRepository;
         this.accommodationRepository = accommodationRepository;
         this.accountService = accountService;
         this.reservationRepository = reservationRepository;
         this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.bookingLockService = bookingLockService;
+        this.reservationHoldService = reservationHoldService;
+        this.reservationService = reservationService;
+        this.revenueRollupService = revenueRollupService;
     }
 
     @Override
@@ -68,17 +87,17 @@ public class GuestServiceImpl implements IGuestService {
     @Override
     public Collection<ReservationCardDto> getReservations() {
         Long guestId = getGuestId();
-        return reservationRepository.findByGuestId(guestId).stream().map(ReservationCardDto::new).toList();
+        return reservationService.findGuestReservationCards(guestId, null, null, null, null, 0, RESERVATIONS_PAGE_SIZE);
     }
 
     @Override
-    public Collection<ReservationCardDto> findReservationsByFilter(String title, Long startDate, Long endDate, ReservationStatus status) {
+    public Collection<ReservationCardDto> findReservationsByFilter(String title, Long startDate, Long endDate, ReservationStatus status, int page, int size) {
         if (startDate != null && endDate != null && startDate >= endDate) {
             throw ErrorUtils.generateException(HttpStatus.BAD_REQUEST, "invalidDateRange");
         }
 
         Long guestId = getGuestId();
-        return reservationRepository.findAll(GuestReservationSpecification.searchAndFilter(guestId, title, startDate, endDate, status)).stream().map(ReservationCardDto::new).toList();
+        return reservationService.findGuestReservationCards(guestId, title, startDate, endDate, status, page, size);
     }
 
     @Override
@@ -92,7 +111,6 @@ public class GuestServiceImpl implements IGuestService {
         return reservation.getStartDate() - reservation.getAccommodation().getCancellationDeadline() * 24 * 60 * 60 * 1000L >= Instant.now().toEpochMilli();
     }
 
-    @Transactional
     @Override
     public ReservationRequestDto addReservation(ReservationRequestDto reservationDto) {
         if (reservationDto.getStartDate() >= reservationDto.getEndDate()) {
@@ -106,8 +124,15 @@ public class GuestServiceImpl implements IGuestService {
             throw ErrorUtils.generateException(HttpStatus.FORBIDDEN, "accountBlocked");
         }
 
+        return bookingLockService.executeLocked(reservationDto.getAccommodationId(), () -> book(guestId, reservationDto));
+    }
+
+    // runs under the accommodation's booking lock, so the overlap checks and the insert cannot interleave with another booking.
+    // The accommodation row is locked first, before anything else of the transaction is read.
+    private ReservationRequestDto book(Long guestId, ReservationRequestDto reservationDto) {
+        Accommodation accommodation = accommodationRepository.findByIdForUpdate(reservationDto.getAccommodationId())
+                .orElseThrow(() -> ErrorUtils.generateNotFound("accommodationNotFound"));
         Guest guest = findGuest(guestId);
-        Accommodation accommodation = findAccommodation(reservationDto.getAccommodationId());
 
         if (reservationRepository.countOverlappingReservationsOrGuestOverlappingReservations(guestId, reservationDto.getAccommodationId(), reservationDto.getStartDate(),
                 reservationDto.getEndDate(), List.of(ReservationStatus.ACCEPTED, ReservationStatus.PENDING)) > 0) {
@@ -116,9 +141,12 @@ public class GuestServiceImpl implements IGuestService {
 
         boolean hasOverlappingReservations = reservationRepository.countOverlappingReservationsOrGuestOverlappingReservations(null, reservationDto.getAccommodationId(),
                 reservationDto.getStartDate(), reservationDto.getEndDate(), List.of(ReservationStatus.ACCEPTED)) > 0;
-        if (hasOverlappingReservations || !findAccommodation(reservationDto.getAccommodationId()).isAvailable(reservationDto.getStartDate(), reservationDto.getEndDate())) {
+        if (hasOverlappingReservations || !accommodation.isAvailable(reservationDto.getStartDate(), reservationDto.getEndDate())) {
             throw ErrorUtils.generateBadRequest("accommodationUnavailable");
         }
+        if (reservationHoldService.isHeldByOthersForUpdate(accommodation.getId(), reservationDto.getStartDate(), reservationDto.getEndDate(), guestId)) {
+            throw ErrorUtils.generateBadRequest("datesOnHold");
+        }
 
         Reservation newReservation = new Reservation(reservationDto, guest, accommodation);
         if (accommodation.isAutomaticAcceptance()) {
@@ -128,6 +156,12 @@ public class GuestServiceImpl implements IGuestService {
         guest.getReservations().add(newReservation);
         guestRepository.save(guest);
         guestRepository.flush();
+        reservationHoldService.releaseHolds(accommodation.getId(), guestId);
+        eventPublisher.publishEvent(new StatusChangedEvent(null, newReservation.getStatus()));
+        if (newReservation.getStatus() == ReservationStatus.ACCEPTED) {
+            eventPublisher.publishEvent(new AccommodationChangedEvent(accommodation.getId(), AccommodationChangeType.RESERVATION_ACCEPTED));
+            revenueRollupService.add(List.of(newReservation));
+        }
 
         Notification notification = new Notification("You have a new reservation for " + accommodation.getTitle(), NotificationType.RESERVATION_REQUEST, accommodation.getHost());
         notificationService.createAndSendNotification(notification);
@@ -0,0 +1,171 @@
+package com.example.accommodiq.services.impl.users;
+
+import com.example.accommodiq.dtos.AccommodationOccupancyDto;
+import com.example.accommodiq.dtos.MonthlyOccupancyDto;
+import com.example.accommodiq.dtos.OccupancyReportDto;
+import com.example.accommodiq.enums.AccommodationChangeType;
+import com.example.accommodiq.enums.ReservationStatus;
+import com.example.accommodiq.events.AccommodationChangedEvent;
+import com.example.accommodiq.indexes.OccupancySweep;
+import com.example.accommodiq.repositories.AccommodationRepository;
+import com.example.accommodiq.repositories.ReservationRepository;
+import com.example.accommodiq.services.interfaces.users.IHostAnalyticsService;
+import com.example.accommodiq.utilities.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.*;
+
+// Occupancy, average daily rate and lead times of a host's accommodations per UTC month. The open ranges and accepted
+// stays of all accommodations are read with two queries, every accommodation is then swept on its own in parallel.
+// Reports are cached per host and period until a booking or availability change touches one of the accommodations.
+@Service
+public class HostAnalyticsServiceImpl implements IHostAnalyticsService {
+    private static final Set<AccommodationChangeType> OCCUPANCY_CHANGES = EnumSet.of(AccommodationChangeType.AVAILABILITY_CHANGED,
+            AccommodationChangeType.RESERVATION_ACCEPTED, AccommodationChangeType.RESERVATION_RELEASED, AccommodationChangeType.UPDATED, AccommodationChangeType.DELETED);
+
+    private final AccommodationRepository accommodationRepository;
+    private final ReservationRepository reservationRepository;
+    private final BoundedTtlCache<ReportKey, OccupancyReportDto> cache;
+    private long generation;
+
+    @Autowired
+    public HostAnalyticsServiceImpl(AccommodationRepository accommodationRepository, ReservationRepository reservationRepository,
+                                    @Value("${host.analytics.cache.max-entries:200}") int maxEntries, @Value("${host.analytics.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.accommodationRepository = accommodationRepository;
+        this.reservationRepository = reservationRepository;
+        this.cache = new BoundedTtlCache<>(maxEntries, ttlSeconds * 1000);
+    }
+
+    @Override
+    public OccupancyReportDto getOccupancyReport(Long hostId, YearMonth from, YearMonth to) {
+        // the accommodation ids are part of the key, so a new listing gives a new report instead of a stale one
+        ReportKey key = new ReportKey(hostId, from, to, accommodationRepository.findIdsByHostId(hostId));
+        long loadedAtGeneration;
+        synchronized (this) {
+            OccupancyReportDto cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            loadedAtGeneration = generation;
+        }
+
+        OccupancyReportDto report = compute(key.accommodationIds(), from, to);
+
+        synchronized (this) {
+            if (loadedAtGeneration == generation) {
+                cache.put(key, report);
+            }
+        }
+        return report;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccommodationChanged(AccommodationChangedEvent event) {
+        if (OCCUPANCY_CHANGES.contains(event.getChangeType())) {
+            synchronized (this) {
+                generation++;
+                cache.removeIf(key -> key.accommodationIds().contains(event.getAccommodationId()));
+            }
+        }
+    }
+
+    private OccupancyReportDto compute(List<Long> accommodationIds, YearMonth from, YearMonth to) {
+        List<Integer> buckets = Arrays.stream(OccupancySweep.LEAD_TIME_BUCKET_DAYS).boxed().toList();
+        if (accommodationIds.isEmpty()) {
+            return new OccupancyReportDto(buckets, List.of());
+        }
+
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        long[] boundaries = new long[months.size() + 1];
+        for (int i = 0; i < months.size(); i++) {
+            boundaries[i] = startOf(months.get(i));
+        }
+        boundaries[months.size()] = startOf(to.plusMonths(1));
+
+        Map<Long, Intervals> open = new HashMap<>();
+        for (Object[] row : accommodationRepository.findAvailabilityRangesByIdInOverlapping(accommodationIds, boundaries[0], boundaries[months.size()])) {
+            open.computeIfAbsent((Long) row[0], id -> new Intervals()).add((Long) row[1], (Long) row[2], 0, 0);
+        }
+        Map<Long, Intervals> stays = new HashMap<>();
+        for (Object[] row : reservationRepository.findStaysOverlapping(accommodationIds, ReservationStatus.ACCEPTED, boundaries[0], boundaries[months.size()])) {
+            if (row[1] != null && row[2] != null) {
+                stays.computeIfAbsent((Long) row[0], id -> new Intervals()).add((Long) row[1], (Long) row[2], (Double) row[3], row[4] != null ? (Long) row[4] : 0);
+            }
+        }
+        Map<Long, String> titles = new HashMap<>();
+        accommodationRepository.findTitlesByIdIn(accommodationIds).forEach(row -> titles.put((Long) row[0], (String) row[1]));
+
+        Intervals none = new Intervals();
+        List<AccommodationOccupancyDto> accommodations = accommodationIds.parallelStream().map(id -> {
+            Intervals openRanges = open.getOrDefault(id, none);
+            Intervals accepted = stays.getOrDefault(id, none);
+            OccupancySweep sweep = OccupancySweep.of(boundaries, openRanges.from(), openRanges.to(), accepted.from(), accepted.to(), accepted.price(), accepted.createdAt());
+
+            List<MonthlyOccupancyDto> monthly = new ArrayList<>(months.size());
+            for (int i = 0; i < months.size(); i++) {
+                int available = sweep.availableNights(i);
+                int occupied = sweep.occupiedNights(i);
+                double revenue = sweep.revenue(i);
+                monthly.add(new MonthlyOccupancyDto(months.get(i).getYear(), months.get(i).getMonthValue(), available, occupied,
+                        available == 0 ? 0 : (double) occupied / available, revenue, occupied == 0 ? 0 : revenue / occupied,
+                        Arrays.stream(sweep.leadTimes(i)).boxed().toList()));
+            }
+            return new AccommodationOccupancyDto(id, titles.get(id), monthly);
+        }).toList();
+        return new OccupancyReportDto(buckets, accommodations);
+    }
+
+    private static long startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    private record ReportKey(Long hostId, YearMonth from, YearMonth to, List<Long> accommodationIds) {
+    }
+
+    // growable parallel arrays, so the intervals of an accommodation reach the sweep without boxing
+    private static class Intervals {
+        private long[] from = new long[4];
+        private long[] to = new long[4];
+        private double[] price = new double[4];
+        private long[] createdAt = new long[4];
+        private int size;
+
+        void add(long fromDate, long toDate, double totalPrice, long created) {
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+                price = Arrays.copyOf(price, size * 2);
+                createdAt = Arrays.copyOf(createdAt, size * 2);
+            }
+            from[size] = fromDate;
+            to[size] = toDate;
+            price[size] = totalPrice;
+            createdAt[size] = created;
+            size++;
+        }
+
+        long[] from() {
+            return Arrays.copyOf(from, size);
+        }
+
+        long[] to() {
+            return Arrays.copyOf(to, size);
+        }
+
+        double[] price() {
+            return Arrays.copyOf(price, size);
+        }
+
+        long[] createdAt() {
+            return Arrays.copyOf(createdAt, size);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.accommodiq.services.impl.users;
+
+import com.example.accommodiq.domain.Account;
+import com.example.accommodiq.enums.ReservationStatus;
+import com.example.accommodiq.services.interfaces.users.IAccountService;
+import com.example.accommodiq.services.interfaces.users.IHostExportService;
+import com.example.accommodiq.utilities.CsvWriter;
+import com.example.accommodiq.utilities.ErrorUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.accommodiq.indexes.AvailabilityIndex.ONE_DAY;
+
+// CSV exports for host accounting. Rows go from a forward-only JDBC cursor straight to the response, so neither entities
+// nor a result list are built and memory stays flat however many rows an export has. The default fetch size makes
+// MySQL Connector/J stream rows one at a time instead of buffering the whole result set.
+@Service
+public class HostExportServiceImpl implements IHostExportService {
+    private static final String RESERVATIONS_QUERY = "SELECT r.id, r.accommodation_id, a.title, u.first_name, u.last_name, r.start_date, r.end_date, " +
+            "r.number_of_guests, r.status, r.total_price FROM reservation r JOIN accommodation a ON a.id = r.accommodation_id " +
+            "LEFT JOIN user u ON u.id = r.guest_id WHERE a.host_id = ? AND r.start_date >= ? AND r.start_date < ?";
+    private static final String DAILY_REVENUE_QUERY = "SELECT d.accommodation_id, a.title, d.day_start, d.revenue, d.reservation_count, d.booked_nights " +
+            "FROM daily_revenue d JOIN accommodation a ON a.id = d.accommodation_id WHERE a.host_id = ? AND d.day_start >= ? AND d.day_start < ? " +
+            "AND (d.reservation_count <> 0 OR d.booked_nights <> 0) ORDER BY d.accommodation_id, d.day_start";
+
+    private final IAccountService accountService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public HostExportServiceImpl(IAccountService accountService, DataSource dataSource, @Value("${export.fetch-size:-2147483648}") int fetchSize) {
+        this.accountService = accountService;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Override
+    public StreamingResponseBody exportReservations(long fromDate, long toDate, ReservationStatus status) {
+        validateRange(fromDate, toDate);
+        Long hostId = getHostId();
+
+        List<Object> params = new ArrayList<>(List.of(hostId, fromDate, toDate));
+        String query = RESERVATIONS_QUERY;
+        if (status != null) {
+            query += " AND r.status = ?";
+            params.add(status.ordinal());
+        }
+        String sql = query + " ORDER BY r.start_date, r.id";
+
+        return out -> {
+            CsvWriter csv = new CsvWriter(out);
+            csv.writeRow("reservationId", "accommodationId", "accommodationTitle", "guestName", "startDate", "endDate", "nights", "guests", "status", "totalPrice");
+            stream(sql, params.toArray(), csv, rs -> {
+                long startDate = rs.getLong("start_date");
+                long endDate = rs.getLong("end_date");
+                String firstName = rs.getString("first_name");
+                String lastName = rs.getString("last_name");
+                csv.writeRow(rs.getLong("id"), rs.getLong("accommodation_id"), rs.getString("title"),
+                        firstName == null && lastName == null ? null : (firstName + " " + lastName).strip(),
+                        Instant.ofEpochMilli(startDate), Instant.ofEpochMilli(endDate),
+                        Math.floorDiv(endDate, ONE_DAY) - Math.floorDiv(startDate, ONE_DAY), rs.getInt("number_of_guests"),
+                        ReservationStatus.values()[rs.getInt("status")], rs.getDouble("total_price"));
+            });
+        };
+    }
+
+    // one row per accommodation and UTC day from the daily revenue rollup, with the same attribution as the financial report
+    @Override
+    public StreamingResponseBody exportDailyRevenue(long fromDate, long toDate) {
+        validateRange(fromDate, toDate);
+        Object[] params = {getHostId(), Math.floorDiv(fromDate, ONE_DAY) * ONE_DAY, toDate};
+
+        return out -> {
+            CsvWriter csv = new CsvWriter(out);
+            csv.writeRow("accommodationId", "accommodationTitle", "day", "revenue", "reservations", "bookedNights");
+            stream(DAILY_REVENUE_QUERY, params, csv, rs -> csv.writeRow(rs.getLong("accommodation_id"), rs.getString("title"),
+                    LocalDate.ofInstant(Instant.ofEpochMilli(rs.getLong("day_start")), ZoneOffset.UTC), rs.getDouble("revenue"),
+                    rs.getInt("reservation_count"), rs.getInt("booked_nights")));
+        };
+    }
+
+    private void stream(String sql, Object[] params, CsvWriter csv, CsvRowWriter rowWriter) throws IOException {
+        try {
+            jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                try {
+                    rowWriter.write(rs);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }, params);
+        } catch (UncheckedIOException ex) {
+            // the client went away, the cursor is already closed
+            throw ex.getCause();
+        }
+        csv.flush();
+    }
+
+    private static void validateRange(long fromDate, long toDate) {
+        if (fromDate >= toDate) {
+            throw ErrorUtils.generateException(HttpStatus.BAD_REQUEST, "invalidDateRange");
+        }
+    }
+
+    private Long getHostId() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return ((Account) accountService.loadUserByUsername(email)).getId();
+    }
+
+    @FunctionalInterface
+    private interface CsvRowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+}
@@ -3,18 +3,23 @@ package com.example.accommodiq.services.impl.users;
 import com.example.accommodiq.domain.*;
 import com.example.accommodiq.dtos.*;
 import com.example.accommodiq.enums.*;
+import com.example.accommodiq.events.StatusChangedEvent;
 import com.example.accommodiq.repositories.AccommodationRepository;
+import com.example.accommodiq.repositories.DailyRevenueRepository;
 import com.example.accommodiq.repositories.HostRepository;
 import com.example.accommodiq.repositories.ReviewRepository;
 import com.example.accommodiq.services.interfaces.accommodations.IAccommodationService;
 import com.example.accommodiq.services.interfaces.accommodations.IReservationService;
+import com.example.accommodiq.services.interfaces.feedback.IReviewService;
 import com.example.accommodiq.services.interfaces.notifications.INotificationService;
 import com.example.accommodiq.services.interfaces.users.IAccountService;
 import com.example.accommodiq.services.interfaces.users.IGuestService;
+import com.example.accommodiq.services.interfaces.users.IHostAnalyticsService;
 import com.example.accommodiq.services.interfaces.users.IHostService;
 import com.example.accommodiq.utilities.ErrorUtils;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -23,11 +28,15 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import static com.example.accommodiq.indexes.AvailabilityIndex.ONE_DAY;
+
 @Service
 public class HostServiceImpl implements IHostService {
+    private final static int MAX_REPORT_MONTHS = 120;
 
     final private IAccommodationService accommodationService;
 
@@ -45,9 +54,19 @@ public class HostServiceImpl implements IHostService {
 
     final private ReviewRepository reviewRepository;
 
+    final private IReviewService reviewService;
+
+    final private DailyRevenueRepository dailyRevenueRepository;
+
+    final private IHostAnalyticsService hostAnalyticsService;
+
+    final private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     public HostServiceImpl(IAccommodationService accommodationService, HostRepository hostRepository, AccommodationRepository allAccommodations,
-                           IGuestService guestService, IReservationService reservationService, IAccountService accountService, INotificationService notificationService, ReviewRepository reviewRepository) {
+                           IGuestService guestService, IReservationService reservationService, IAccountService accountService, INotificationService notificationService, ReviewRepository reviewRepository,
+                           IReviewService reviewService, DailyRevenueRepository dailyRevenueRepository, IHostAnalyticsService hostAnalyticsService,
+                           ApplicationEventPublisher eventPublisher) {
         this.accommodationService = accommodationService;
         this.hostRepository = hostRepository;
         this.allAccommodations = allAccommodations;
@@ -56,6 +75,10 @@ public class HostServiceImpl implements IHostService {
         this.accountService = accountService;
         this.notificationService = notificationService;
         this.reviewRepository = reviewRepository;
+        this.reviewService = reviewService;
+        this.dailyRevenueRepository = dailyRevenueRepository;
+        this.hostAnalyticsService = hostAnalyticsService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -127,13 +150,13 @@ public class HostServiceImpl implements IHostService {
     }
 
     @Override
-    public Collection<HostReservationCardDto> getHostAccommodationReservationsByFilter(String title, Long startDate, Long endDate, ReservationStatus status) {
+    public Collection<HostReservationCardDto> getHostAccommodationReservationsByFilter(String title, Long startDate, Long endDate, ReservationStatus status, int page, int size) {
         if (startDate != null && endDate != null && startDate >= endDate) {
             throw ErrorUtils.generateException(HttpStatus.BAD_REQUEST, "invalidDateRange");
         }
 
         Long hostId = getHostId();
-        return reservationService.findHostReservationsByFilter(hostId, title, startDate, endDate, status).stream().map(reservation -> new HostReservationCardDto(reservation, hostId)).toList();
+        return reservationService.findHostReservationCards(hostId, title, startDate, endDate, status, page, size);
     }
 
     @Override
@@ -142,12 +165,35 @@ public class HostServiceImpl implements IHostService {
             throw ErrorUtils.generateException(HttpStatus.BAD_REQUEST, "invalidDateRange");
         }
 
-        Long hostId = getHostId();
-        Map<Long, List<Reservation>> hostPreviousReservations = reservationService
-                .findHostReservationsByFilter(hostId, null, fromDate, toDate, ReservationStatus.ACCEPTED)
-                .stream().collect(Collectors.groupingBy(reservation -> reservation.getAccommodation().getId()));
+        // read from the daily revenue rollup: stays starting in the range and the nights of the range that were booked
+        List<Long> accommodationIds = allAccommodations.findIdsByHostId(getHostId());
+        if (accommodationIds.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> totals = dailyRevenueRepository.sumByAccommodation(accommodationIds, Math.floorDiv(fromDate, ONE_DAY) * ONE_DAY, toDate);
+        if (totals.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> reportedIds = totals.stream().map(row -> (Long) row[0]).toList();
+        Map<Long, String> titles = new HashMap<>();
+        allAccommodations.findTitlesByIdIn(reportedIds).forEach(row -> titles.put((Long) row[0], (String) row[1]));
+        Map<Long, String> coverImages = new HashMap<>();
+        allAccommodations.findImagesByIdIn(reportedIds).forEach(row -> coverImages.putIfAbsent((Long) row[0], (String) row[1]));
 
-        return hostPreviousReservations.values().stream().map(FinancialReportEntryDto::new).toList();
+        return totals.stream().map(row -> new FinancialReportEntryDto((Long) row[0], coverImages.getOrDefault((Long) row[0], ""), titles.get((Long) row[0]),
+                ((Number) row[1]).doubleValue(), ((Number) row[2]).intValue(), ((Number) row[3]).intValue())).toList();
+    }
+
+    @Override
+    public OccupancyReportDto getOccupancyReport(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw ErrorUtils.generateBadRequest("invalidDateRange");
+        }
+        if (from.plusMonths(MAX_REPORT_MONTHS).isBefore(to.plusMonths(1))) {
+            throw ErrorUtils.generateBadRequest("reportRangeTooLong");
+        }
+        return hostAnalyticsService.getOccupancyReport(getHostId(), from, to);
     }
 
     @Override
@@ -172,16 +218,19 @@ public class HostServiceImpl implements IHostService {
     }
 
     @Override
+    @Transactional
     public ReviewDto addReview(Long hostId, ReviewRequestDto reviewDto) {
         Long guestId = getGuestId();
         reservationService.validateGuestReviewEligibility(guestId, hostId); // this will throw ResponseStatusException if guest cannot comment and rate host
         Host host = findHost(hostId);
         Guest guest = guestService.findGuest(guestId);
         Review review = new Review(reviewDto, guest, ReviewStatus.ACCEPTED);
+        host.addReview(review);
+        update(host);
+        hostRepository.addReviewStats(hostId, ReviewStats.delta(null, review.getStatus(), review.getRating()));
         Notification n = new Notification("You've got a new rating!", NotificationType.HOST_RATING, host);
         notificationService.createAndSendNotification(n);
-        host.getReviews().add(review);
-        update(host);
+        eventPublisher.publishEvent(new StatusChangedEvent(null, review.getStatus()));
         return new ReviewDto(review, guestId);
     }
 
@@ -207,9 +256,7 @@ public class HostServiceImpl implements IHostService {
     @Override
     public MessageDto changeReviewStatus(Long reviewId, ReviewStatusDto body) {
         Review review = reviewRepository.findById(reviewId).orElseThrow(() -> ErrorUtils.generateNotFound("reviewNotFound"));
-        review.setStatus(body.getStatus());
-        reviewRepository.save(review);
-        reviewRepository.flush();
+        reviewService.changeStatus(review, body.getStatus());
         return new MessageDto("Review status changed");
     }
 
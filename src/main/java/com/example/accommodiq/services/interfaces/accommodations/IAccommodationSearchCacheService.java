@@ -0,0 +1,19 @@
+package com.example.accommodiq.services.interfaces.accommodations;
+
+import com.example.accommodiq.dtos.AccommodationCardDto;
+import com.example.accommodiq.dtos.SearchCacheStatsDto;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Supplier;
+
+public interface IAccommodationSearchCacheService {
+    Collection<AccommodationCardDto> getOrLoad(String title, String location, Long availableFrom, Long availableTo, Integer priceFrom, Integer priceTo, Integer guests, String type, Set<String> benefits,
+                                               Supplier<Collection<AccommodationCardDto>> loader);
+
+    void evict(Long accommodationId);
+
+    void evictAll();
+
+    SearchCacheStatsDto getStats();
+}
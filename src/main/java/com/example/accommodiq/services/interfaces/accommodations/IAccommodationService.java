@@ -5,9 +5,11 @@ import com.example.accommodiq.domain.Availability;
 import com.example.accommodiq.domain.Host;
 import com.example.accommodiq.domain.Review;
 import com.example.accommodiq.dtos.*;
+import com.example.accommodiq.enums.AccommodationSortType;
 import com.example.accommodiq.enums.ReviewStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.YearMonth;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -19,6 +21,14 @@ public interface IAccommodationService {
 
     Collection<AccommodationCardDto> findByFilter(String title, String location, Long availableFrom, Long availableTo, Integer priceFrom, Integer priceTo, Integer guests, String type, Set<String> benefits);
 
+    AccommodationCardPageDto searchAccommodations(String title, String location, Long availableFrom, Long availableTo, Integer priceFrom, Integer priceTo, Integer guests, String type, Set<String> benefits,
+                                                  AccommodationSortType sort, String cursor, int size);
+
+    List<AccommodationMapCardDto> findOnMap(Double latitude, Double longitude, Double radiusKm, Double minLatitude, Double minLongitude, Double maxLatitude, Double maxLongitude,
+                                            String title, String location, Long availableFrom, Long availableTo, Integer priceFrom, Integer priceTo, Integer guests, String type, Set<String> benefits, int size);
+
+    AccommodationFacetsDto findFacets(String title, String location, Long availableFrom, Long availableTo, Integer priceFrom, Integer priceTo, Integer guests, String type, Set<String> benefits);
+
     AccommodationCardWithStatusDto changeAccommodationStatus(Long accommodationId, AccommodationStatusDto statusDto);
 
     AccommodationDetailsDto findById(Long accommodationId);
@@ -35,6 +45,8 @@ public interface IAccommodationService {
 
     List<FinancialReportMonthlyRevenueDto> getAccommodationReport(Long accommodationId, int year);
 
+    List<AccommodationMonthlyRevenueDto> getMonthlyRevenueReport(Set<Long> accommodationIds, YearMonth from, YearMonth to);
+
     Collection<Review> getAccommodationReviews(Long accommodationId);
 
     ReviewDto addReview(Long accommodationId, ReviewRequestDto reviewDto);
@@ -47,12 +59,16 @@ public interface IAccommodationService {
 
     AccommodationAvailabilityDto getIsAvailable(long accommodationId, long dateFrom, long dateTo);
 
+    AccommodationCalendarDto getCalendar(long accommodationId, int year, int month);
+
     AccommodationModifyDto getAdvancedDetails(Long accommodationId);
 
     Collection<Accommodation> findAccommodationsByHostId(Long hostId);
 
     AccommodationCardDto deleteAccommodation(Long accommodationId);
 
+    SearchCacheStatsDto getSearchCacheStats();
+
     Collection<ReviewCardDto> getReviewsByStatus(ReviewStatus status);
 
     MessageDto changeReviewStatus(Long reviewId, ReviewStatusDto body);
@@ -0,0 +1,11 @@
+package com.example.accommodiq.services.interfaces.accommodations;
+
+import com.example.accommodiq.dtos.AvailabilityImportResultDto;
+
+import java.io.InputStream;
+
+public interface IAvailabilityImportService {
+    AvailabilityImportResultDto importJson(InputStream body);
+
+    AvailabilityImportResultDto importCsv(InputStream body);
+}
@@ -0,0 +1,9 @@
+package com.example.accommodiq.services.interfaces.accommodations;
+
+import com.example.accommodiq.indexes.AvailabilityIndex;
+
+public interface IAvailabilityIndexService {
+    AvailabilityIndex getIndex(Long accommodationId);
+
+    void invalidate(Long accommodationId);
+}
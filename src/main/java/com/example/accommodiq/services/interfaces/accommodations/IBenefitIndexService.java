@@ -0,0 +1,14 @@
+package com.example.accommodiq.services.interfaces.accommodations;
+
+import com.example.accommodiq.indexes.BenefitIndex;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface IBenefitIndexService {
+    Set<Long> findWithAllBenefits(Collection<String> benefits);
+
+    BenefitIndex.Counter benefitCounter();
+
+    void rebuild();
+}
@@ -0,0 +1,10 @@
+package com.example.accommodiq.services.interfaces.accommodations;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+public interface IBookingLockService {
+    <T> T executeLocked(Long accommodationId, Supplier<T> booking);
+
+    <T> T executeLocked(Collection<Long> accommodationIds, Supplier<T> booking);
+}
@@ -0,0 +1,13 @@
+package com.example.accommodiq.services.interfaces.accommodations;
+
+import com.example.accommodiq.indexes.GeoGridIndex;
+
+import java.util.List;
+
+public interface IGeoIndexService {
+    List<GeoGridIndex.Hit> findWithinRadius(double latitude, double longitude, double radiusKm);
+
+    List<GeoGridIndex.Hit> findWithinBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude);
+
+    void rebuild();
+}
@@ -0,0 +1,9 @@
+package com.example.accommodiq.services.interfaces.accommodations;
+
+import com.example.accommodiq.dtos.ReservationExpiryStatsDto;
+
+public interface IReservationExpiryService {
+    int expireStaleReservations();
+
+    ReservationExpiryStatsDto getStats();
+}
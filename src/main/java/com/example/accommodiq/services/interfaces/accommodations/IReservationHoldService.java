@@ -0,0 +1,26 @@
+package com.example.accommodiq.services.interfaces.accommodations;
+
+import com.example.accommodiq.dtos.MessageDto;
+import com.example.accommodiq.dtos.ReservationHoldDto;
+import com.example.accommodiq.dtos.ReservationHoldRequestDto;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+public interface IReservationHoldService {
+    ReservationHoldDto createHold(ReservationHoldRequestDto holdDto);
+
+    MessageDto releaseHold(Long holdId);
+
+    boolean isHeldByOthers(Long accommodationId, long startDate, long endDate, Supplier<Long> guestId);
+
+    boolean isHeldByOthersForUpdate(Long accommodationId, long startDate, long endDate, Long guestId);
+
+    void releaseHolds(Long accommodationId, Long guestId);
+
+    void releaseExpiredHolds();
+
+    void deleteByAccommodationIds(Collection<Long> accommodationIds);
+
+    void deleteByGuestId(Long guestId);
+}
@@ -25,6 +25,8 @@ public interface IReservationService {
 
     ReservationCardDto changeReservationStatus(Long reservationId, ReservationStatus status);
 
+    List<ReservationCardDto> changeReservationStatuses(ReservationStatusBatchDto batchDto);
+
     void validateGuestReviewEligibility(Long guestId, Long hostId);
 
     Collection<Reservation> getPastReservations(Long ownerId, Long guestId);
@@ -37,6 +39,10 @@ public interface IReservationService {
 
     Collection<Reservation> findHostReservationsByFilter(Long hostId, String title, Long startDate, Long endDate, ReservationStatus status);
 
+    List<ReservationCardDto> findGuestReservationCards(Long guestId, String title, Long startDate, Long endDate, ReservationStatus status, int page, int size);
+
+    List<HostReservationCardDto> findHostReservationCards(Long hostId, String title, Long startDate, Long endDate, ReservationStatus status, int page, int size);
+
     void cancelGuestReservations(Long id);
 
     @Transactional
@@ -0,0 +1,19 @@
+package com.example.accommodiq.services.interfaces.accommodations;
+
+import com.example.accommodiq.domain.Reservation;
+import com.example.accommodiq.dtos.RevenueRollupRebuildDto;
+import com.example.accommodiq.enums.ReservationStatus;
+
+import java.util.Collection;
+
+public interface IRevenueRollupService {
+    void statusChanged(Reservation reservation, ReservationStatus oldStatus);
+
+    void add(Collection<Reservation> reservations);
+
+    void remove(Collection<Reservation> reservations);
+
+    void deleteByAccommodationIds(Collection<Long> accommodationIds);
+
+    RevenueRollupRebuildDto rebuild();
+}
@@ -0,0 +1,13 @@
+package com.example.accommodiq.services.interfaces.accommodations;
+
+import com.example.accommodiq.indexes.TextIndex;
+
+import java.util.List;
+
+public interface ITextIndexService {
+    List<TextIndex.Hit> searchContent(String query);
+
+    List<TextIndex.Hit> searchAddress(String query);
+
+    void rebuild();
+}
@@ -23,9 +23,13 @@ public interface IReviewService {
 
     MessageDto setReviewStatus(Long reviewId, ReviewStatus reviewStatusDto);
 
+    void changeStatus(Review review, ReviewStatus reviewStatus);
+
     void deleteByGuestId(Long id);
 
     Collection<Review> findAllByGuestId(Long guestId);
 
     Collection<ReviewDto> getPendingReviews();
+
+    void reconcileReviewStats();
 }
@@ -15,6 +15,8 @@ public interface INotificationService {
 
     void createAndSendNotification(Notification notification);
 
+    void createAndSendNotifications(Collection<Notification> notifications);
+
     void markAllAsSeen(Long userId);
 
     void markAsSeen(Long userId, Long notificationId);
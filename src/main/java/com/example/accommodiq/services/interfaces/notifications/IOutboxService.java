@@ -0,0 +1,13 @@
+package com.example.accommodiq.services.interfaces.notifications;
+
+import com.example.accommodiq.domain.Notification;
+
+import java.util.Collection;
+
+public interface IOutboxService {
+    void enqueueNotifications(Collection<Notification> notifications);
+
+    void enqueueVerificationEmail(Long accountId, String email);
+
+    int relay();
+}
@@ -0,0 +1,9 @@
+package com.example.accommodiq.services.interfaces.users;
+
+import com.example.accommodiq.dtos.AdminDashboardDto;
+
+public interface IAdminDashboardService {
+    AdminDashboardDto getDashboard();
+
+    AdminDashboardDto reconcile();
+}
@@ -11,7 +11,7 @@ public interface IGuestService {
 
     Collection<ReservationCardDto> getReservations();
 
-    Collection<ReservationCardDto> findReservationsByFilter(String title, Long startDate, Long endDate, ReservationStatus status);
+    Collection<ReservationCardDto> findReservationsByFilter(String title, Long startDate, Long endDate, ReservationStatus status, int page, int size);
 
     ReservationRequestDto addReservation(ReservationRequestDto reservationDto);
 
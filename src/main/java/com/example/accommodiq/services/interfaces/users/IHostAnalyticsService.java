@@ -0,0 +1,9 @@
+package com.example.accommodiq.services.interfaces.users;
+
+import com.example.accommodiq.dtos.OccupancyReportDto;
+
+import java.time.YearMonth;
+
+public interface IHostAnalyticsService {
+    OccupancyReportDto getOccupancyReport(Long hostId, YearMonth from, YearMonth to);
+}
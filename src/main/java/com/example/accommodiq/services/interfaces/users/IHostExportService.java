@@ -0,0 +1,10 @@
+package com.example.accommodiq.services.interfaces.users;
+
+import com.example.accommodiq.enums.ReservationStatus;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface IHostExportService {
+    StreamingResponseBody exportReservations(long fromDate, long toDate, ReservationStatus status);
+
+    StreamingResponseBody exportDailyRevenue(long fromDate, long toDate);
+}
@@ -5,6 +5,7 @@ import com.example.accommodiq.dtos.*;
 import com.example.accommodiq.enums.ReservationStatus;
 import com.example.accommodiq.enums.ReviewStatus;
 
+import java.time.YearMonth;
 import java.util.Collection;
 import java.util.List;
 
@@ -26,10 +27,12 @@ public interface IHostService {
 
     Collection<AccommodationTitleDto> getHostAccommodationTitles();
 
-    Collection<HostReservationCardDto> getHostAccommodationReservationsByFilter(String title, Long startDate, Long endDate, ReservationStatus status);
+    Collection<HostReservationCardDto> getHostAccommodationReservationsByFilter(String title, Long startDate, Long endDate, ReservationStatus status, int page, int size);
 
     List<FinancialReportEntryDto> getFinancialReport(long fromDate, long toDate);
 
+    OccupancyReportDto getOccupancyReport(YearMonth from, YearMonth to);
+
     Collection<ReviewDto> getHostReviews(Long hostId);
 
     AccommodationDetailsDto createAccommodation(AccommodationModifyDto accommodationDto);
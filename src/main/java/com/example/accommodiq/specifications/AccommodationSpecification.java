@@ -1,26 +1,30 @@
 package com.example.accommodiq.specifications;
 
 import com.example.accommodiq.domain.Accommodation;
+import com.example.accommodiq.domain.Availability;
+import com.example.accommodiq.domain.Reservation;
 import com.example.accommodiq.enums.AccommodationStatus;
-import jakarta.persistence.criteria.Predicate;
+import com.example.accommodiq.enums.ReservationStatus;
+import jakarta.persistence.criteria.*;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
 public class AccommodationSpecification {
-    public static Specification<Accommodation> searchAndFilter(String title, String location, Integer guests, String type, Set<String> benefits) {
+    private static final long ONE_DAY = 24 * 60 * 60 * 1000L;
+
+    public static Specification<Accommodation> searchAndFilter(Long availableFrom, Long availableTo, Integer guests, String type) {
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             predicates.add(criteriaBuilder.equal((root.get("status")), AccommodationStatus.ACCEPTED));
+            predicates.add(criteriaBuilder.isNotEmpty(root.get("available")));
 
-            if (title != null) {
-                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("title")), "%" + title.toLowerCase() + "%"));
-            }
-            if (location != null) {
-                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("location").get("address")), "%" + location.toLowerCase() + "%"));
+            if (availableFrom != null && availableTo != null) {
+                predicates.add(isCovered(root, query, criteriaBuilder, availableFrom, availableTo));
+                predicates.add(criteriaBuilder.not(criteriaBuilder.exists(acceptedOverlappingReservations(root, query, criteriaBuilder, availableFrom, availableTo))));
             }
             if (guests != null) {
                 predicates.add(criteriaBuilder.and(
@@ -31,13 +35,84 @@ public class AccommodationSpecification {
             if (type != null) {
                 predicates.add(criteriaBuilder.equal(criteriaBuilder.lower(root.get("type")), type.toLowerCase()));
             }
-            if (benefits != null) {
-                for (String benefit : benefits) {
-                    predicates.add(criteriaBuilder.isMember(benefit, root.get("benefits")));
-                }
-            }
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    public static Specification<Accommodation> idIn(Collection<Long> ids) {
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Accommodation> idLessThan(Long id) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.lessThan(root.get("id"), id);
+    }
+
+    // highest stored average rating first, ties by id
+    public static Specification<Accommodation> orderByRatingDesc() {
+        return (root, query, criteriaBuilder) -> {
+            query.orderBy(criteriaBuilder.desc(root.get("reviewStats").get("ratingSortKey")), criteriaBuilder.asc(root.get("id")));
+            return null;
+        };
+    }
+
+    // keyset continuation of orderByRatingDesc after the given rating sort key and id
+    public static Specification<Accommodation> ratedAfter(double ratingSortKey, Long id) {
+        return (root, query, criteriaBuilder) -> {
+            Path<Double> rating = root.get("reviewStats").get("ratingSortKey");
+            return criteriaBuilder.or(
+                    criteriaBuilder.lessThan(rating, ratingSortKey),
+                    criteriaBuilder.and(criteriaBuilder.equal(rating, ratingSortKey), criteriaBuilder.greaterThan(root.get("id"), id))
+            );
+        };
+    }
+
+    // Mirrors Accommodation.isAvailable: some slot contains the first day, some slot contains the last day,
+    // and every slot that ends inside the range is continued by a slot starting at most one day later.
+    private static Predicate isCovered(Root<Accommodation> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder, long from, long to) {
+        Subquery<Long> startCovered = query.subquery(Long.class);
+        Join<Accommodation, Availability> startSlot = startCovered.correlate(root).join("available");
+        startCovered.select(startSlot.get("id")).where(
+                criteriaBuilder.lessThanOrEqualTo(startSlot.get("fromDate"), from),
+                criteriaBuilder.greaterThanOrEqualTo(startSlot.get("toDate"), from)
+        );
+
+        Subquery<Long> endCovered = query.subquery(Long.class);
+        Join<Accommodation, Availability> endSlot = endCovered.correlate(root).join("available");
+        endCovered.select(endSlot.get("id")).where(
+                criteriaBuilder.lessThanOrEqualTo(endSlot.get("fromDate"), to),
+                criteriaBuilder.greaterThanOrEqualTo(endSlot.get("toDate"), to)
+        );
+
+        Subquery<Long> gaps = query.subquery(Long.class);
+        Join<Accommodation, Availability> endingSlot = gaps.correlate(root).join("available");
+        Subquery<Long> continuation = gaps.subquery(Long.class);
+        Join<Accommodation, Availability> nextSlot = continuation.correlate(root).join("available");
+        continuation.select(nextSlot.get("id")).where(
+                criteriaBuilder.lessThanOrEqualTo(nextSlot.get("fromDate"), criteriaBuilder.sum(endingSlot.<Long>get("toDate"), ONE_DAY)),
+                criteriaBuilder.greaterThan(nextSlot.get("toDate"), endingSlot.get("toDate"))
+        );
+        gaps.select(endingSlot.get("id")).where(
+                criteriaBuilder.greaterThanOrEqualTo(endingSlot.get("toDate"), from),
+                criteriaBuilder.lessThan(endingSlot.get("toDate"), to),
+                criteriaBuilder.not(criteriaBuilder.exists(continuation))
+        );
+
+        return criteriaBuilder.and(
+                criteriaBuilder.exists(startCovered),
+                criteriaBuilder.exists(endCovered),
+                criteriaBuilder.not(criteriaBuilder.exists(gaps))
+        );
+    }
+
+    private static Subquery<Long> acceptedOverlappingReservations(Root<Accommodation> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder, long from, long to) {
+        Subquery<Long> reservations = query.subquery(Long.class);
+        Root<Reservation> reservation = reservations.from(Reservation.class);
+        return reservations.select(reservation.get("id")).where(
+                criteriaBuilder.equal(reservation.get("accommodation"), root),
+                criteriaBuilder.equal(reservation.get("status"), ReservationStatus.ACCEPTED),
+                criteriaBuilder.lessThan(reservation.get("startDate"), to),
+                criteriaBuilder.greaterThan(reservation.get("endDate"), from)
+        );
+    }
 }
@@ -0,0 +1,109 @@
+package com.example.accommodiq.utilities;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+// LRU map with a time to live per entry. The removal listener runs under the cache lock for every entry
+// that leaves the cache, whether it expired, was pushed out by size or was removed explicitly.
+public class BoundedTtlCache<K, V> {
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final BiConsumer<K, V> removalListener;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public BoundedTtlCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, (key, value) -> {
+        });
+    }
+
+    public BoundedTtlCache(int maxEntries, long ttlMillis, BiConsumer<K, V> removalListener) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.removalListener = removalListener;
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt < System.currentTimeMillis()) {
+            entries.remove(key);
+            evictions.incrementAndGet();
+            removalListener.accept(key, entry.value);
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        Entry<V> previous = entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+        if (previous != null) {
+            removalListener.accept(key, previous.value);
+        }
+
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            Map.Entry<K, Entry<V>> evicted = eldest.next();
+            eldest.remove();
+            evictions.incrementAndGet();
+            removalListener.accept(evicted.getKey(), evicted.getValue().value);
+        }
+    }
+
+    public synchronized void remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            removalListener.accept(key, removed.value);
+        }
+    }
+
+    public synchronized void removeIf(Predicate<K> condition) {
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = iterator.next();
+            if (condition.test(entry.getKey())) {
+                iterator.remove();
+                removalListener.accept(entry.getKey(), entry.getValue().value);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        removeIf(key -> true);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.accommodiq.utilities;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// A fixed set of fair locks shared by hashing keys onto them: equal keys always get the same lock,
+// different keys usually get different ones, and memory does not grow with the number of keys.
+// Callers holding several stripes at once must take them in ascending stripe order.
+public class StripedLocks {
+    private final ReentrantLock[] locks;
+
+    public StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1) << 1);
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock(true);
+        }
+    }
+
+    public int stripeOf(Object key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        hash ^= hash >>> 16;
+        return hash & (locks.length - 1);
+    }
+
+    public boolean tryLock(int stripe, long timeoutMillis) throws InterruptedException {
+        return locks[stripe].tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void unlock(int stripe) {
+        locks[stripe].unlock();
+    }
+
+    public int stripes() {
+        return locks.length;
+    }
+}
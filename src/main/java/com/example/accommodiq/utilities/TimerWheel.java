@@ -0,0 +1,108 @@
+package com.example.accommodiq.utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hierarchical hashed timer wheel. Level 0 has one slot per tick, and every level above covers a whole rotation of the
+// level below in each slot. Scheduling is O(1). Entries move down a level when their slot comes up and fire from level 0,
+// so advancing costs O(1) per tick plus the entries that move. Deadlines past the top level wait in an overflow list.
+// There is no cancel: callers drop stale entries when they fire.
+public class TimerWheel<T> {
+    private final long tickMillis;
+    private final int slotsPerLevel;
+    private final long[] levelSpans;
+    private final List<List<Entry<T>>> slots;
+    private final List<Entry<T>> overflow = new ArrayList<>();
+    private final List<Entry<T>> due = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public TimerWheel(long tickMillis, int slotsPerLevel, int levels, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.slotsPerLevel = slotsPerLevel;
+        this.levelSpans = new long[levels + 1];
+        this.slots = new ArrayList<>(levels * slotsPerLevel);
+        levelSpans[0] = 1;
+        for (int level = 1; level <= levels; level++) {
+            levelSpans[level] = levelSpans[level - 1] * slotsPerLevel;
+        }
+        for (int i = 0; i < levels * slotsPerLevel; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    public synchronized void schedule(T item, long deadlineMillis) {
+        // rounded up, so an entry never fires before its deadline
+        place(new Entry<>(item, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis)));
+        size++;
+    }
+
+    // moves the wheel up to the given time and returns everything that fell due, in no particular order
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        drainDue(expired);
+
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = levelSpans.length - 2; level > 0; level--) {
+                if (currentTick % levelSpans[level] == 0) {
+                    cascade(level);
+                }
+            }
+            if (currentTick % levelSpans[levelSpans.length - 1] == 0) {
+                List<Entry<T>> waiting = new ArrayList<>(overflow);
+                overflow.clear();
+                waiting.forEach(this::place);
+            }
+
+            List<Entry<T>> slot = slot(0, currentTick);
+            slot.forEach(entry -> expired.add(entry.item()));
+            slot.clear();
+            drainDue(expired);
+        }
+
+        size -= expired.size();
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.tick() - currentTick;
+        if (delta <= 0) {
+            due.add(entry);
+            return;
+        }
+
+        for (int level = 0; level < levelSpans.length - 1; level++) {
+            if (delta < levelSpans[level + 1]) {
+                slot(level, entry.tick()).add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private void cascade(int level) {
+        List<Entry<T>> slot = slot(level, currentTick);
+        List<Entry<T>> entries = new ArrayList<>(slot);
+        slot.clear();
+        entries.forEach(this::place);
+    }
+
+    private void drainDue(List<T> expired) {
+        due.forEach(entry -> expired.add(entry.item()));
+        due.clear();
+    }
+
+    private List<Entry<T>> slot(int level, long tick) {
+        return slots.get(level * slotsPerLevel + (int) Math.floorMod(tick / levelSpans[level], (long) slotsPerLevel));
+    }
+
+    private record Entry<T>(T item, long tick) {
+    }
+}
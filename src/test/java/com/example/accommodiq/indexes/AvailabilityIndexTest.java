@@ -0,0 +1,92 @@
+package com.example.accommodiq.indexes;
+
+import com.example.accommodiq.domain.Availability;
+import com.example.accommodiq.domain.Reservation;
+import com.example.accommodiq.enums.ReservationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.example.accommodiq.indexes.AvailabilityIndex.ONE_DAY;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityIndexTest {
+    private static long day(String date) {
+        return LocalDate.parse(date).toEpochDay() * ONE_DAY;
+    }
+
+    private static Reservation booking(long start, long end) {
+        return new Reservation(null, start, end, 1, ReservationStatus.ACCEPTED, null, null, 0);
+    }
+
+    @Test
+    void bookedAndUncoveredNightsAreNotBookable() {
+        AvailabilityIndex index = AvailabilityIndex.of(List.of(new Availability(null, day("2030-01-01"), day("2030-01-05"), 100),
+                new Availability(null, day("2030-01-07"), day("2030-01-10"), 50)), List.of(booking(day("2030-01-02"), day("2030-01-03"))));
+        double[] prices = new double[10];
+
+        // nights of January 1st to 10th; the 2nd is booked, the 5th and 6th end or start in the gap and the 10th ends after the last slot
+        assertEquals(0b01_1100_1101L, index.bookableNights(day("2030-01-01"), 10, prices));
+        assertArrayEquals(new double[]{100, 100, 100, 100, 100, Double.NaN, 50, 50, 50, 50}, prices);
+    }
+
+    @Test
+    void moreNightsThanFitInTheBitmapAreRejected() {
+        AvailabilityIndex index = AvailabilityIndex.of(List.of(new Availability(null, day("2030-01-01"), day("2030-06-01"), 100)));
+
+        assertEquals(-1L, index.bookableNights(day("2030-01-01"), 64, new double[64]));
+        assertThrows(IllegalArgumentException.class, () -> index.bookableNights(day("2030-01-01"), 65, new double[65]));
+    }
+
+    // random slots a few days apart, some overlapping and some starting off midnight, and random bookings against
+    // isBookable for every night, and against the earliest starting slot containing its start for the price
+    @Test
+    void bookableNightsMatchIsBookable() {
+        Random random = new Random(11);
+        long origin = day("2030-01-01");
+        int bookable = 0;
+        for (int run = 0; run < 500; run++) {
+            List<Availability> slots = new ArrayList<>();
+            long next = origin;
+            for (int i = random.nextInt(6); i > 0; i--) {
+                long from = next + (random.nextInt(4) - 1) * ONE_DAY + (random.nextInt(6) == 0 ? random.nextInt(24) * ONE_DAY / 24 : 0);
+                long to = from + random.nextInt(12) * ONE_DAY;
+                slots.add(new Availability(null, from, to, 10 + random.nextInt(200)));
+                next = to + random.nextInt(3) * ONE_DAY;
+            }
+            List<Reservation> bookings = new ArrayList<>();
+            for (int i = random.nextInt(4); i > 0; i--) {
+                long start = origin + random.nextInt(40) * ONE_DAY + (random.nextInt(4) == 0 ? random.nextInt(24) * ONE_DAY / 24 : 0);
+                bookings.add(booking(start, start + random.nextInt(5) * ONE_DAY));
+            }
+            AvailabilityIndex index = AvailabilityIndex.of(slots, bookings);
+
+            long firstNight = origin + (random.nextInt(10) - 5) * ONE_DAY;
+            int nights = 1 + random.nextInt(Long.SIZE);
+            double[] prices = new double[nights];
+            long nightsBitmap = index.bookableNights(firstNight, nights, prices);
+
+            for (int i = 0; i < Long.SIZE; i++) {
+                long night = firstNight + i * ONE_DAY;
+                boolean expected = i < nights && index.isBookable(night, night + ONE_DAY);
+                assertEquals(expected, (nightsBitmap >>> i & 1) == 1, "night " + i + " from " + firstNight + " of " + slots + " and " + bookings);
+                bookable += expected ? 1 : 0;
+                if (i < nights) {
+                    assertEquals(earliestSlotPrice(slots, night), prices[i], "price of night " + i + " of " + slots);
+                }
+            }
+        }
+        assertTrue(bookable > 1000);
+    }
+
+    private static double earliestSlotPrice(List<Availability> slots, long instant) {
+        return slots.stream()
+                .filter(slot -> slot.getFromDate() <= instant && instant <= slot.getToDate())
+                .min((first, second) -> Long.compare(first.getFromDate(), second.getFromDate()))
+                .map(Availability::getPrice)
+                .orElse(Double.NaN);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.accommodiq.indexes;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static com.example.accommodiq.indexes.AvailabilityIndex.ONE_DAY;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancySweepTest {
+    private static final long[] NONE = {};
+    // January, February and March 2030
+    private static final long[] MONTHS = {day("2030-01-01"), day("2030-02-01"), day("2030-03-01"), day("2030-04-01")};
+
+    private static long day(String date) {
+        return LocalDate.parse(date).toEpochDay() * ONE_DAY;
+    }
+
+    private static OccupancySweep stays(long[] start, long[] end, double[] price, long[] createdAt) {
+        return OccupancySweep.of(MONTHS, NONE, NONE, start, end, price, createdAt);
+    }
+
+    @Test
+    void rangesMeetingOnTheSameDayNeitherOverlapNorLeaveAGap() {
+        long[] openFrom = {day("2030-01-01"), day("2030-01-11")};
+        long[] openTo = {day("2030-01-11"), day("2030-01-21")};
+        long[] stayStart = {day("2030-01-05"), day("2030-01-08")};
+        long[] stayEnd = {day("2030-01-08"), day("2030-01-11")};
+        OccupancySweep sweep = OccupancySweep.of(MONTHS, openFrom, openTo, stayStart, stayEnd, new double[]{300, 600}, new long[2]);
+
+        assertEquals(20, sweep.availableNights(0));
+        assertEquals(6, sweep.occupiedNights(0));
+        assertEquals(900, sweep.revenue(0), 1e-9);
+    }
+
+    @Test
+    void stayOnlyPartlyOpenCountsItsNightsAsAvailable() {
+        OccupancySweep sweep = OccupancySweep.of(MONTHS, new long[]{day("2030-01-01")}, new long[]{day("2030-01-05")},
+                new long[]{day("2030-01-03")}, new long[]{day("2030-01-08")}, new double[]{500}, new long[1]);
+
+        assertEquals(7, sweep.availableNights(0));
+        assertEquals(5, sweep.occupiedNights(0));
+    }
+
+    @Test
+    void stayCrossingAMonthSplitsRevenuePerNight() {
+        OccupancySweep sweep = stays(new long[]{day("2030-01-30")}, new long[]{day("2030-02-03")}, new double[]{400}, new long[1]);
+
+        assertEquals(2, sweep.occupiedNights(0));
+        assertEquals(2, sweep.occupiedNights(1));
+        assertEquals(0, sweep.occupiedNights(2));
+        assertEquals(200, sweep.revenue(0), 1e-9);
+        assertEquals(200, sweep.revenue(1), 1e-9);
+    }
+
+    @Test
+    void staysBeforeTheWindowOnlyCountTheirNightsInside() {
+        long[] stayStart = {day("2029-12-10"), day("2029-12-30")};
+        long[] stayEnd = {day("2029-12-15"), day("2030-01-02")};
+        long[] createdAt = {day("2029-11-01"), day("2029-11-01")};
+        OccupancySweep sweep = stays(stayStart, stayEnd, new double[]{500, 300}, createdAt);
+
+        assertEquals(1, sweep.availableNights(0));
+        assertEquals(1, sweep.occupiedNights(0));
+        assertEquals(100, sweep.revenue(0), 1e-9);
+        // lead times belong to the period a stay starts in, which is outside the window for both
+        for (int period = 0; period < 3; period++) {
+            assertArrayEquals(new int[OccupancySweep.LEAD_TIME_BUCKET_DAYS.length], sweep.leadTimes(period));
+        }
+    }
+
+    @Test
+    void staysAfterTheWindowAreIgnored() {
+        OccupancySweep sweep = stays(new long[]{day("2030-04-01")}, new long[]{day("2030-04-05")}, new double[]{400}, new long[]{day("2030-03-01")});
+
+        for (int period = 0; period < 3; period++) {
+            assertEquals(0, sweep.occupiedNights(period));
+            assertEquals(0, sweep.revenue(period), 1e-9);
+            assertArrayEquals(new int[OccupancySweep.LEAD_TIME_BUCKET_DAYS.length], sweep.leadTimes(period));
+        }
+    }
+
+    @Test
+    void zeroNightStayIsCountedAsOneNight() {
+        long noon = day("2030-02-10") + ONE_DAY / 2;
+        OccupancySweep sweep = stays(new long[]{noon}, new long[]{noon}, new double[]{120}, new long[1]);
+
+        assertEquals(1, sweep.availableNights(1));
+        assertEquals(1, sweep.occupiedNights(1));
+        assertEquals(120, sweep.revenue(1), 1e-9);
+    }
+
+    @Test
+    void leadTimesFallIntoTheirBuckets() {
+        long start = day("2030-03-15");
+        // two stays on each side of every bucket's edges; booking after the start counts as same-day
+        long[] leadDays = {0, -3, 1, 6, 7, 29, 30, 89, 90, 400};
+        long[] stayStart = new long[leadDays.length + 1];
+        long[] stayEnd = new long[leadDays.length + 1];
+        long[] createdAt = new long[leadDays.length + 1];
+        for (int i = 0; i < leadDays.length; i++) {
+            stayStart[i] = start;
+            stayEnd[i] = start + ONE_DAY;
+            createdAt[i] = start - leadDays[i] * ONE_DAY - ONE_DAY / 4;
+        }
+        // the last stay has no known creation time and is left out
+        stayStart[leadDays.length] = start;
+        stayEnd[leadDays.length] = start + ONE_DAY;
+        OccupancySweep sweep = stays(stayStart, stayEnd, new double[leadDays.length + 1], createdAt);
+
+        assertArrayEquals(new int[]{0, 1, 7, 30, 90}, OccupancySweep.LEAD_TIME_BUCKET_DAYS);
+        assertArrayEquals(new int[]{2, 2, 2, 2, 2}, sweep.leadTimes(2));
+        assertArrayEquals(new int[5], sweep.leadTimes(0));
+        assertArrayEquals(new int[5], sweep.leadTimes(1));
+    }
+}
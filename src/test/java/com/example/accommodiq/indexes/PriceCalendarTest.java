@@ -0,0 +1,126 @@
+package com.example.accommodiq.indexes;
+
+import com.example.accommodiq.domain.Availability;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.Random;
+
+import static com.example.accommodiq.indexes.AvailabilityIndex.ONE_DAY;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceCalendarTest {
+    private static final long NOON = ONE_DAY / 2;
+
+    private static long day(String date) {
+        return LocalDate.parse(date).toEpochDay() * ONE_DAY;
+    }
+
+    private static AvailabilityIndex slots(Availability... slots) {
+        return AvailabilityIndex.of(List.of(slots));
+    }
+
+    private static void assertQuoteMatchesWalk(AvailabilityIndex index, long from, long to) {
+        OptionalDouble quote = PriceCalendar.of(index).quote(from, to);
+        assertTrue(quote.isPresent());
+        assertEquals(PriceCalendar.walk(index, from, to), quote.getAsDouble(), 1e-9);
+    }
+
+    @Test
+    void overlappingSlotsChargeTheEarlierStartingSlot() {
+        AvailabilityIndex index = slots(new Availability(null, day("2030-01-01"), day("2030-01-10"), 100),
+                new Availability(null, day("2030-01-05"), day("2030-01-15"), 70));
+
+        assertQuoteMatchesWalk(index, day("2030-01-03"), day("2030-01-13"));
+        assertEquals(8 * 100 + 2 * 70, PriceCalendar.of(index).quote(day("2030-01-03"), day("2030-01-13")).getAsDouble(), 1e-9);
+    }
+
+    // a slot starting the day after another ends continues it, since both cover their last day
+    @Test
+    void slotsOneDayApartAreQuotedAcrossTheGap() {
+        AvailabilityIndex index = slots(new Availability(null, day("2030-01-01"), day("2030-01-05"), 100),
+                new Availability(null, day("2030-01-06"), day("2030-01-10"), 50));
+
+        assertQuoteMatchesWalk(index, day("2030-01-03"), day("2030-01-08"));
+        assertEquals(3 * 100 + 2 * 50, PriceCalendar.of(index).quote(day("2030-01-03"), day("2030-01-08")).getAsDouble(), 1e-9);
+    }
+
+    @Test
+    void uncoveredDayIsLeftToTheWalk() {
+        AvailabilityIndex index = slots(new Availability(null, day("2030-01-01"), day("2030-01-05"), 100),
+                new Availability(null, day("2030-01-07"), day("2030-01-10"), 50));
+
+        assertTrue(PriceCalendar.of(index).quote(day("2030-01-03"), day("2030-01-08")).isEmpty());
+        assertTrue(PriceCalendar.of(index).quote(day("2029-12-30"), day("2030-01-02")).isEmpty());
+    }
+
+    // days are counted from the time of day of the earliest slot, so a start at another time of day cannot be quoted
+    @Test
+    void startNotAlignedToTheOffsetIsLeftToTheWalk() {
+        AvailabilityIndex index = slots(new Availability(null, day("2030-01-01") + NOON, day("2030-01-10") + NOON, 100));
+        PriceCalendar calendar = PriceCalendar.of(index);
+
+        assertTrue(calendar.quote(day("2030-01-03"), day("2030-01-05")).isEmpty());
+        assertTrue(calendar.quote(day("2030-01-03") + NOON + 1, day("2030-01-05") + NOON).isEmpty());
+        assertQuoteMatchesWalk(index, day("2030-01-03") + NOON, day("2030-01-05"));
+    }
+
+    @Test
+    void emptyCalendarHasNoQuotesAndNoMinPrice() {
+        PriceCalendar calendar = PriceCalendar.of(AvailabilityIndex.of(List.of()));
+
+        assertTrue(calendar.quote(day("2030-01-01"), day("2030-01-02")).isEmpty());
+        assertEquals(0, calendar.getMinPrice());
+    }
+
+    // random overlapping slots, some a day apart and some starting off the offset, against the slot walk; every quote the
+    // calendar answers has to match it, and a fully covered aligned range has to be answered
+    @Test
+    void quoteMatchesWalk() {
+        Random random = new Random(7);
+        long origin = day("2030-01-01");
+        int quoted = 0;
+        for (int run = 0; run < 500; run++) {
+            long offset = random.nextBoolean() ? 0 : random.nextInt(24) * ONE_DAY / 24;
+            List<Availability> slots = new ArrayList<>();
+            long next = origin + offset;
+            for (int i = 1 + random.nextInt(5); i > 0; i--) {
+                long from = next + (random.nextInt(4) - 1) * ONE_DAY + (random.nextInt(8) == 0 ? random.nextInt(20) * ONE_DAY / 24 : 0);
+                long to = from + random.nextInt(10) * ONE_DAY;
+                slots.add(new Availability(null, from, to, 10 + random.nextInt(200)));
+                next = to + (random.nextBoolean() ? ONE_DAY : 0);
+            }
+            AvailabilityIndex index = AvailabilityIndex.of(slots);
+            PriceCalendar calendar = PriceCalendar.of(index);
+
+            for (int query = 0; query < 50; query++) {
+                long from = origin + offset + (random.nextInt(45) - 3) * ONE_DAY + (random.nextInt(6) == 0 ? random.nextInt(24) * ONE_DAY / 24 : 0);
+                long to = from + random.nextInt(12) * ONE_DAY + (random.nextInt(4) == 0 ? random.nextInt(24) * ONE_DAY / 24 : 0);
+                OptionalDouble quote = calendar.quote(from, to);
+                if (quote.isPresent()) {
+                    quoted++;
+                    assertEquals(PriceCalendar.walk(index, from, to), quote.getAsDouble(), 1e-9, "quote " + from + ".." + to + " of " + slots);
+                } else if (Math.floorMod(from - slots.stream().mapToLong(Availability::getFromDate).min().orElseThrow(), ONE_DAY) == 0) {
+                    assertFalse(coversEveryDay(index, from, to), "covered range " + from + ".." + to + " was not quoted");
+                }
+            }
+        }
+        assertTrue(quoted > 1000);
+    }
+
+    private static boolean coversEveryDay(AvailabilityIndex index, long from, long to) {
+        for (long instant = from; instant <= to; instant += ONE_DAY) {
+            boolean covered = false;
+            for (int slot = 0; slot < index.slotCount(); slot++) {
+                covered |= index.slotFrom(slot) <= instant && instant <= index.slotTo(slot);
+            }
+            if (!covered) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
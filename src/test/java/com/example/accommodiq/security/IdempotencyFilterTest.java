@@ -0,0 +1,128 @@
+package com.example.accommodiq.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+    private static final String KEY = "3f6c1c1e-key";
+
+    private final IdempotencyFilter filter = new IdempotencyFilter(100, 3600, 5_000);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private static MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/reservations");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, KEY);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    // reads the body like a controller would and answers with the given status
+    private FilterChain handler(int status, CountDownLatch entered, CountDownLatch release) {
+        return (request, response) -> {
+            int execution = executions.incrementAndGet();
+            request.getInputStream().readAllBytes();
+            if (entered != null) {
+                entered.countDown();
+                try {
+                    assertTrue(release.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(status);
+            httpResponse.setContentType("application/json");
+            httpResponse.setHeader("Location", "/reservations/" + execution);
+            httpResponse.addHeader("X-Trace", "first");
+            httpResponse.addHeader("X-Trace", "second");
+            response.getOutputStream().write(("{\"id\":" + execution + "}").getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private FilterChain handler(int status) {
+        return handler(status, null, null);
+    }
+
+    private MockHttpServletResponse send(String body, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(body), response, chain);
+        return response;
+    }
+
+    @Test
+    void retryReplaysStatusHeadersAndBody() throws Exception {
+        MockHttpServletResponse first = send("{\"a\":1}", handler(201));
+        MockHttpServletResponse retry = send("{\"a\":1}", handler(201));
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("application/json", retry.getContentType());
+        assertEquals("/reservations/1", retry.getHeader("Location"));
+        assertEquals(List.of("first", "second"), retry.getHeaders("X-Trace"));
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheFirstAttempt() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<MockHttpServletResponse> first = executor.submit(() -> send("{\"a\":1}", handler(201, entered, release)));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        Future<MockHttpServletResponse> duplicate = executor.submit(() -> send("{\"a\":1}", handler(201)));
+        assertThrows(TimeoutException.class, () -> duplicate.get(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+
+        assertEquals(201, first.get(5, TimeUnit.SECONDS).getStatus());
+        MockHttpServletResponse replayed = duplicate.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        assertEquals(1, executions.get());
+        assertEquals("{\"id\":1}", replayed.getContentAsString());
+        assertEquals("true", replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void failedResponseIsNotKept() throws Exception {
+        MockHttpServletResponse failed = send("{\"a\":1}", handler(400));
+        MockHttpServletResponse retry = send("{\"a\":1}", handler(201));
+
+        assertEquals(2, executions.get());
+        assertEquals(400, failed.getStatus());
+        assertEquals(201, retry.getStatus());
+        assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void differentBodyUnderTheSameKeyIsRejected() throws Exception {
+        send("{\"a\":1}", handler(201));
+        MockHttpServletResponse reused = send("{\"a\":2}", handler(201));
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY.value(), reused.getStatus());
+    }
+
+    @Test
+    void requestsWithoutAKeyAreNotFiltered() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/reservations");
+        request.setContent("{}".getBytes(StandardCharsets.UTF_8));
+        filter.doFilter(request, new MockHttpServletResponse(), handler(201));
+        filter.doFilter(request, new MockHttpServletResponse(), handler(201));
+
+        assertEquals(2, executions.get());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.accommodiq.services.impl.accommodations;
+
+import com.example.accommodiq.domain.Accommodation;
+import com.example.accommodiq.domain.Availability;
+import com.example.accommodiq.domain.Reservation;
+import com.example.accommodiq.dtos.AccommodationCalendarDto;
+import com.example.accommodiq.enums.PricingType;
+import com.example.accommodiq.enums.ReservationStatus;
+import com.example.accommodiq.indexes.AvailabilityIndex;
+import com.example.accommodiq.repositories.AccommodationRepository;
+import com.example.accommodiq.services.interfaces.accommodations.IAvailabilityIndexService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.accommodiq.indexes.AvailabilityIndex.ONE_DAY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AccommodationServiceImplTest {
+    private static final long ACCOMMODATION_ID = 1L;
+
+    private AccommodationServiceImpl accommodationService;
+
+    private static long day(String date) {
+        return LocalDate.parse(date).toEpochDay() * ONE_DAY;
+    }
+
+    private static long nights(int... nights) {
+        long bitmap = 0;
+        for (int night : nights) {
+            bitmap |= 1L << night;
+        }
+        return bitmap;
+    }
+
+    // March 2030: 100 until the 12th, 120 from the overlapping slot until the 20th, nothing until the 25th and 90 after,
+    // with the nights of the 14th and 15th booked
+    @BeforeEach
+    void setUp() {
+        Accommodation accommodation = mock(Accommodation.class);
+        when(accommodation.getId()).thenReturn(ACCOMMODATION_ID);
+        when(accommodation.getPricingType()).thenReturn(PricingType.PER_NIGHT);
+        AccommodationRepository accommodationRepository = mock(AccommodationRepository.class);
+        when(accommodationRepository.findById(ACCOMMODATION_ID)).thenReturn(Optional.of(accommodation));
+
+        AvailabilityIndex index = AvailabilityIndex.of(List.of(new Availability(null, day("2030-02-20"), day("2030-03-12"), 100),
+                        new Availability(null, day("2030-03-12"), day("2030-03-20"), 120),
+                        new Availability(null, day("2030-03-25"), day("2030-04-05"), 90)),
+                List.of(new Reservation(null, day("2030-03-14"), day("2030-03-16"), 1, ReservationStatus.ACCEPTED, null, accommodation, 0)));
+        IAvailabilityIndexService availabilityIndexService = mock(IAvailabilityIndexService.class);
+        when(availabilityIndexService.getIndex(ACCOMMODATION_ID)).thenReturn(index);
+
+        accommodationService = new AccommodationServiceImpl(accommodationRepository, null, null, null, null, null, null,
+                availabilityIndexService, null, null, null, null, null, null, null, null, null);
+    }
+
+    @Test
+    void nightsThatStartedAreMaskedAndPricesAreRunLengthEncoded() {
+        AccommodationCalendarDto calendar = accommodationService.getCalendar(ACCOMMODATION_ID, 2030, 3, day("2030-03-10") + 15 * ONE_DAY / 24);
+
+        assertEquals(day("2030-03-01"), calendar.getFirstNight());
+        assertEquals(31, calendar.getNights());
+        // the night of the 10th is under way, so the first bookable night is the 11th
+        assertEquals(nights(10, 11, 12, 15, 16, 17, 18, 24, 25, 26, 27, 28, 29, 30), calendar.getBookable());
+        assertArrayEquals(new int[]{12, 8, 4, 7}, calendar.getPriceRunLengths());
+        assertArrayEquals(new Double[]{100.0, 120.0, null, 90.0}, calendar.getPriceRunValues());
+        assertEquals(PricingType.PER_NIGHT, calendar.getPricingType());
+    }
+
+    @Test
+    void maskFollowsTheFirstNightThatHasNotStarted() {
+        long unmasked = nights(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 15, 16, 17, 18, 24, 25, 26, 27, 28, 29, 30);
+
+        assertEquals(unmasked, accommodationService.getCalendar(ACCOMMODATION_ID, 2030, 3, day("2030-03-01") - 1).getBookable());
+        assertEquals(unmasked & ~1L, accommodationService.getCalendar(ACCOMMODATION_ID, 2030, 3, day("2030-03-01")).getBookable());
+        assertEquals(0, accommodationService.getCalendar(ACCOMMODATION_ID, 2030, 3, day("2030-03-31")).getBookable());
+        assertEquals(0, accommodationService.getCalendar(ACCOMMODATION_ID, 2030, 3, day("2030-05-01")).getBookable());
+    }
+
+    // the version covers the mask, so it changes when a night starts and stays the same within it
+    @Test
+    void versionChangesWhenANightStarts() {
+        String morning = accommodationService.getCalendar(ACCOMMODATION_ID, 2030, 3, day("2030-03-10") + 1).getVersion();
+        String evening = accommodationService.getCalendar(ACCOMMODATION_ID, 2030, 3, day("2030-03-11") - 1).getVersion();
+        String nextDay = accommodationService.getCalendar(ACCOMMODATION_ID, 2030, 3, day("2030-03-11")).getVersion();
+
+        assertEquals(morning, evening);
+        assertNotEquals(evening, nextDay);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.accommodiq.services.impl.accommodations;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingLockServiceImplTest {
+    private static final int ACCOMMODATIONS = 8;
+    private static final int THREADS = 32;
+    private static final int REQUESTS = 20_000;
+
+    // Writes only become visible on commit, like rows inserted by a READ COMMITTED transaction,
+    // so releasing the lock before the commit would let a competing booking miss them.
+    private static class CommitOnlyTransactionManager implements PlatformTransactionManager {
+        private final ThreadLocal<List<Runnable>> pendingWrites = new ThreadLocal<>();
+
+        void write(Runnable write) {
+            pendingWrites.get().add(write);
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            pendingWrites.set(new ArrayList<>());
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            Thread.yield();
+            pendingWrites.get().forEach(Runnable::run);
+            pendingWrites.remove();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            pendingWrites.remove();
+        }
+    }
+
+    @Test
+    void concurrentBookingsNeverOverlap() throws Exception {
+        CommitOnlyTransactionManager transactionManager = new CommitOnlyTransactionManager();
+        BookingLockServiceImpl bookingLockService = new BookingLockServiceImpl(transactionManager, 4, 10_000);
+        Map<Long, List<long[]>> accepted = new HashMap<>();
+        for (long id = 1; id <= ACCOMMODATIONS; id++) {
+            accepted.put(id, new ArrayList<>());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger acceptedCount = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int request = 0; request < REQUESTS; request++) {
+            long seed = request;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                long accommodationId = 1 + random.nextInt(ACCOMMODATIONS);
+                long from = random.nextInt(365);
+                long to = from + 1 + random.nextInt(7);
+                start.await();
+                bookingLockService.executeLocked(accommodationId, () -> {
+                    List<long[]> stays = accepted.get(accommodationId);
+                    boolean overlapping = stays.stream().anyMatch(stay -> stay[0] < to && stay[1] > from);
+                    if (!overlapping) {
+                        transactionManager.write(() -> stays.add(new long[]{from, to}));
+                        acceptedCount.incrementAndGet();
+                    }
+                    return overlapping;
+                });
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        int stored = 0;
+        for (List<long[]> stays : accepted.values()) {
+            stored += stays.size();
+            stays.sort(Comparator.comparingLong(stay -> stay[0]));
+            for (int i = 1; i < stays.size(); i++) {
+                assertTrue(stays.get(i - 1)[1] <= stays.get(i)[0], "double booking " + Arrays.toString(stays.get(i - 1)) + " and " + Arrays.toString(stays.get(i)));
+            }
+        }
+        assertEquals(acceptedCount.get(), stored);
+        assertTrue(stored > 0);
+    }
+
+    @Test
+    void bookingsForDifferentAccommodationsRunInParallel() throws Exception {
+        BookingLockServiceImpl bookingLockService = new BookingLockServiceImpl(new CommitOnlyTransactionManager(), 256, 10_000);
+        CountDownLatch firstInside = new CountDownLatch(1);
+        CountDownLatch secondDone = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Boolean> first = executor.submit(() -> bookingLockService.executeLocked(1L, () -> {
+            firstInside.countDown();
+            try {
+                // only completes if the second accommodation can be booked while this one is still locked
+                return secondDone.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }));
+
+        assertTrue(firstInside.await(5, TimeUnit.SECONDS));
+        Future<?> second = executor.submit(() -> bookingLockService.executeLocked(2L, () -> {
+            secondDone.countDown();
+            return null;
+        }));
+
+        second.get(5, TimeUnit.SECONDS);
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+}
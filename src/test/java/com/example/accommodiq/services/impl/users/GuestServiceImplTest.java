@@ -0,0 +1,200 @@
+package com.example.accommodiq.services.impl.users;
+
+import com.example.accommodiq.domain.Accommodation;
+import com.example.accommodiq.domain.Account;
+import com.example.accommodiq.domain.Guest;
+import com.example.accommodiq.domain.Reservation;
+import com.example.accommodiq.dtos.ReservationRequestDto;
+import com.example.accommodiq.enums.AccountRole;
+import com.example.accommodiq.enums.AccountStatus;
+import com.example.accommodiq.enums.ReservationStatus;
+import com.example.accommodiq.repositories.AccommodationRepository;
+import com.example.accommodiq.repositories.GuestRepository;
+import com.example.accommodiq.repositories.ReservationRepository;
+import com.example.accommodiq.services.impl.accommodations.BookingLockServiceImpl;
+import com.example.accommodiq.services.interfaces.accommodations.IReservationHoldService;
+import com.example.accommodiq.services.interfaces.accommodations.IReservationService;
+import com.example.accommodiq.services.interfaces.accommodations.IRevenueRollupService;
+import com.example.accommodiq.services.interfaces.notifications.INotificationService;
+import com.example.accommodiq.services.interfaces.users.IAccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Books through GuestServiceImpl.addReservation with the real booking lock. The repositories are backed by a list
+// whose writes only become visible on commit, like rows inserted by a READ COMMITTED transaction.
+class GuestServiceImplTest {
+    private static final int ACCOMMODATIONS = 4;
+    private static final int GUESTS = 16;
+    private static final int REQUESTS = 1_500;
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private final List<Reservation> committed = Collections.synchronizedList(new ArrayList<>());
+    private final ThreadLocal<List<Runnable>> pendingWrites = new ThreadLocal<>();
+    private final Map<Long, Accommodation> accommodations = new HashMap<>();
+
+    private GuestRepository guestRepository;
+    private AccommodationRepository accommodationRepository;
+    private GuestServiceImpl guestService;
+
+    private class CommitOnlyTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            pendingWrites.set(new ArrayList<>());
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            Thread.yield();
+            pendingWrites.get().forEach(Runnable::run);
+            pendingWrites.remove();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            pendingWrites.remove();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= ACCOMMODATIONS; id++) {
+            Accommodation accommodation = mock(Accommodation.class);
+            when(accommodation.getId()).thenReturn(id);
+            when(accommodation.isAvailable(anyLong(), anyLong())).thenReturn(true);
+            when(accommodation.isAutomaticAcceptance()).thenReturn(true);
+            accommodations.put(id, accommodation);
+        }
+
+        guestRepository = mock(GuestRepository.class);
+        when(guestRepository.findById(anyLong())).thenAnswer(invocation -> {
+            Guest guest = new Guest(invocation.getArgument(0), "Guest", "Guest", "Address", "000");
+            guest.setReservations(new HashSet<>());
+            return Optional.of(guest);
+        });
+        when(guestRepository.save(any(Guest.class))).thenAnswer(invocation -> {
+            Guest guest = invocation.getArgument(0);
+            List<Reservation> reservations = new ArrayList<>(guest.getReservations());
+            pendingWrites.get().add(() -> committed.addAll(reservations));
+            return guest;
+        });
+
+        accommodationRepository = mock(AccommodationRepository.class);
+        when(accommodationRepository.findByIdForUpdate(anyLong())).thenAnswer(invocation -> Optional.ofNullable(accommodations.get(invocation.<Long>getArgument(0))));
+
+        ReservationRepository reservationRepository = mock(ReservationRepository.class);
+        when(reservationRepository.countOverlappingReservationsOrGuestOverlappingReservations(any(), anyLong(), anyLong(), anyLong(), anyList())).thenAnswer(invocation -> {
+            Long guestId = invocation.getArgument(0);
+            Long accommodationId = invocation.getArgument(1);
+            long start = invocation.getArgument(2);
+            long end = invocation.getArgument(3);
+            List<ReservationStatus> statuses = invocation.getArgument(4);
+            synchronized (committed) {
+                return committed.stream()
+                        .filter(reservation -> reservation.getAccommodation().getId().equals(accommodationId))
+                        .filter(reservation -> guestId == null || reservation.getGuest().getId().equals(guestId))
+                        .filter(reservation -> statuses.contains(reservation.getStatus()))
+                        .filter(reservation -> reservation.getStartDate() < end && reservation.getEndDate() > start)
+                        .count();
+            }
+        });
+
+        IAccountService accountService = mock(IAccountService.class);
+        when(accountService.loadUserByUsername(anyString())).thenAnswer(invocation -> account(Long.parseLong(invocation.getArgument(0))));
+        when(accountService.findAccountByUserId(anyLong())).thenAnswer(invocation -> account(invocation.getArgument(0)));
+
+        guestService = new GuestServiceImpl(guestRepository, accommodationRepository, accountService, reservationRepository, mock(INotificationService.class),
+                mock(ApplicationEventPublisher.class), new BookingLockServiceImpl(new CommitOnlyTransactionManager(), 4, 10_000), mock(IReservationHoldService.class),
+                mock(IReservationService.class), mock(IRevenueRollupService.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static Account account(Long id) {
+        Account account = new Account();
+        account.setId(id);
+        account.setRole(AccountRole.GUEST);
+        account.setStatus(AccountStatus.ACTIVE);
+        return account;
+    }
+
+    private static void logIn(long guestId) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(String.valueOf(guestId), null));
+    }
+
+    @Test
+    void accommodationIsLockedBeforeTheGuestIsRead() {
+        logIn(1);
+        guestService.addReservation(new ReservationRequestDto(10 * DAY, 12 * DAY, 1, 1L));
+
+        InOrder inOrder = inOrder(accommodationRepository, guestRepository);
+        inOrder.verify(accommodationRepository).findByIdForUpdate(1L);
+        inOrder.verify(guestRepository).findById(1L);
+        assertEquals(1, committed.size());
+    }
+
+    @Test
+    void concurrentBookingsNeverOverlap() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(GUESTS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int request = 0; request < REQUESTS; request++) {
+            long seed = request;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                long accommodationId = 1 + random.nextInt(ACCOMMODATIONS);
+                long from = random.nextInt(120);
+                long to = from + 1 + random.nextInt(5);
+                logIn(1 + random.nextInt(GUESTS));
+                start.await();
+                try {
+                    guestService.addReservation(new ReservationRequestDto(from * DAY, to * DAY, 1, accommodationId));
+                    booked.incrementAndGet();
+                } catch (ResponseStatusException ex) {
+                    // dates already taken
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(booked.get(), committed.size());
+        assertTrue(booked.get() > 0);
+        for (Accommodation accommodation : accommodations.values()) {
+            List<Reservation> stays = committed.stream().filter(reservation -> reservation.getAccommodation() == accommodation)
+                    .sorted(Comparator.comparingLong(Reservation::getStartDate)).toList();
+            for (int i = 1; i < stays.size(); i++) {
+                assertTrue(stays.get(i - 1).getEndDate() <= stays.get(i).getStartDate(), "double booking of accommodation " + accommodation.getId());
+            }
+        }
+    }
+}
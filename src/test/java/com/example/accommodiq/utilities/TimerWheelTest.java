@@ -0,0 +1,127 @@
+package com.example.accommodiq.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+    private static final long TICK = 10;
+    private static final int SLOTS = 4;
+    private static final int LEVELS = 2;
+
+    // with 4 slots and 2 levels, level 0 covers 4 ticks, level 1 covers 16 and anything further waits in the overflow
+    private static TimerWheel<Long> wheel() {
+        return new TimerWheel<>(TICK, SLOTS, LEVELS, 0);
+    }
+
+    @Test
+    void deadlineIsRoundedUpToTheNextTick() {
+        TimerWheel<Long> wheel = wheel();
+        wheel.schedule(1L, 25);
+
+        assertEquals(List.of(), wheel.advance(29));
+        assertEquals(List.of(1L), wheel.advance(30));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlineFiresOnTheNextAdvance() {
+        TimerWheel<Long> wheel = wheel();
+        wheel.advance(100);
+        wheel.schedule(1L, 50);
+
+        assertEquals(List.of(1L), wheel.advance(100));
+    }
+
+    // ticks on both sides of the level 0, level 1 and overflow boundaries, firing from every level when stepped tick by tick
+    @Test
+    void entriesAtSlotBoundariesFireOnTheirTick() {
+        TimerWheel<Long> wheel = wheel();
+        long[] ticks = {1, 3, 4, 5, 7, 8, 15, 16, 17, 31, 32, 33, 63, 64, 65, 100};
+        for (long tick : ticks) {
+            wheel.schedule(tick, tick * TICK);
+        }
+        assertEquals(ticks.length, wheel.size());
+
+        List<Long> fired = new ArrayList<>();
+        for (long tick = 1; tick <= 100; tick++) {
+            List<Long> due = wheel.advance(tick * TICK);
+            for (Long item : due) {
+                assertEquals(tick, item, "fired on the wrong tick");
+            }
+            fired.addAll(due);
+        }
+        assertEquals(Arrays.stream(ticks).boxed().toList(), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    // an entry scheduled mid-rotation lands in a level 1 slot that only cascades after the level 0 slots wrap around
+    @Test
+    void entriesCascadeFromUpperLevelsAfterWrapping() {
+        TimerWheel<Long> wheel = wheel();
+        wheel.advance(6 * TICK);
+        wheel.schedule(21L, 21 * TICK);
+        wheel.schedule(22L, 22 * TICK);
+        wheel.schedule(40L, 40 * TICK);
+
+        assertEquals(List.of(), wheel.advance(20 * TICK));
+        assertEquals(List.of(21L), wheel.advance(21 * TICK));
+        assertEquals(List.of(22L), wheel.advance(22 * TICK));
+        assertEquals(List.of(), wheel.advance(39 * TICK));
+        assertEquals(List.of(40L), wheel.advance(40 * TICK));
+    }
+
+    @Test
+    void oneLargeAdvanceReturnsEverythingDue() {
+        TimerWheel<Long> wheel = wheel();
+        Set<Long> expected = new HashSet<>();
+        for (long item = 1; item <= 200; item++) {
+            wheel.schedule(item, item * 7);
+            expected.add(item);
+        }
+        wheel.schedule(1000L, 10_000);
+
+        assertEquals(expected, new HashSet<>(wheel.advance(1400)));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(1000L), wheel.advance(10_000));
+    }
+
+    // random schedules and advances against a list of deadlines: each advance returns exactly the entries whose
+    // rounded-up tick has been reached
+    @Test
+    void matchesBruteForce() {
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            long now = random.nextInt(1000);
+            TimerWheel<Long> wheel = new TimerWheel<>(TICK, SLOTS, LEVELS, now);
+            Map<Long, Long> pending = new HashMap<>();
+            long nextItem = 0;
+
+            for (int step = 0; step < 200; step++) {
+                int schedules = random.nextInt(4);
+                for (int i = 0; i < schedules; i++) {
+                    long deadline = now - 20 + random.nextInt(random.nextBoolean() ? 100 : 2000);
+                    wheel.schedule(nextItem, deadline);
+                    pending.put(nextItem++, Math.floorDiv(deadline + TICK - 1, TICK));
+                }
+
+                now += random.nextInt(random.nextInt(10) == 0 ? 500 : 30);
+                long tick = now / TICK;
+                Set<Long> expected = new HashSet<>();
+                pending.forEach((item, dueTick) -> {
+                    if (dueTick <= tick) {
+                        expected.add(item);
+                    }
+                });
+
+                List<Long> fired = wheel.advance(now);
+                assertEquals(expected.size(), fired.size(), "an entry fired twice or at the wrong time");
+                assertEquals(expected, new HashSet<>(fired));
+                expected.forEach(pending::remove);
+                assertEquals(pending.size(), wheel.size());
+            }
+        }
+    }
+}